@@ -48,10 +48,13 @@ public class App {
     
     // base-rank    
     app.post("/api/base-rank", BaseRankController::getBaseRank);
+    app.post("/api/base-rank/update", BaseRankController::updateBaseRank);
     app.post("/api/base-rank-explanation", BaseRankController::generateBaseRankExplanation);
 
     // entailment 
     app.post("/api/entailment/{reasoner}/{queryFormula}", ReasonerController::getEntailment);
+    app.post("/api/entailments/{reasoner}", ReasonerController::getEntailments);
+    app.post("/api/pre-rank/{reasoner}", ReasonerController::preRank);
     
     // explanation 
     app.post("/api/explanation/{reasoner}", ReasonerController::getExplanation);
@@ -60,5 +63,8 @@ public class App {
     app.post("/api/evaluation", EvaluationController::getEvaluation);
     app.post("/api/evaluation/import", EvaluationController::importEvaluation);
     app.post("/api/evaluation/export", EvaluationController::exportEvaluation);
+
+    // Statistics
+    app.get("/api/statistics/entailment-cache", StatisticsController::getEntailmentCacheStatistics);
   }
 }
@@ -29,4 +29,13 @@ public class JmhRunner {
 
         return new Runner(opt).run();
     }
+
+    public static Collection<RunResult> runSatBackendBenchmark() throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*SatBackendBenchmark.*")
+                .forks(1)
+                .build();
+
+        return new Runner(opt).run();
+    }
 }
@@ -1,12 +1,20 @@
 package uct.cs.klm.algorithms.benchmarks;
 
 import org.openjdk.jmh.annotations.*;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
 import uct.cs.klm.algorithms.enums.Algorithm;
 import uct.cs.klm.algorithms.enums.InferenceOperator;
+import uct.cs.klm.algorithms.enums.ReasonerType;
 import uct.cs.klm.algorithms.models.EvaluationData;
-import uct.cs.klm.algorithms.services.EvaluationServiceImpl;
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.ranking.BaseRankService;
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+import uct.cs.klm.algorithms.services.FormulaServiceImpl;
 import uct.cs.klm.algorithms.services.IKnowledgeBaseService;
+import uct.cs.klm.algorithms.services.IReasonerService;
 import uct.cs.klm.algorithms.services.KnowledgeBaseServiceImpl;
+import uct.cs.klm.algorithms.utils.ReasonerFactory;
 
 import java.util.concurrent.TimeUnit;
 
@@ -26,10 +34,11 @@ import java.util.concurrent.TimeUnit;
 @State(Scope.Thread)
 public class KlmBenchmark {
 
-    @Param({"Naive", "Binary", "Ternary", "PowerSet"})
+    // an algorithm without a variant for the operator runs its default one
+    @Param({"Naive", "Binary", "Ternary", "Parallel", "PowerSet", "MaxSat", "Cardinality"})
     private String algorithmName;
 
-    @Param({"RationalClosure", "LexicographicClosure", "RelevantClosure"})
+    @Param({"RationalClosure", "LexicographicClosure", "BasicRelevantClosure", "MinimalRelevantClosure"})
     private String inferenceOpName;
 
     @Param({"QuerySet_1", "QuerySet_2", "QuerySet_3", "QuerySet_4", "QuerySet_5"})
@@ -39,18 +48,43 @@ public class KlmBenchmark {
     private Algorithm algorithm;
 
     private IKnowledgeBaseService knowledgeBaseService;
-    private EvaluationServiceImpl evaluationService;
+    private ReasonerType reasonerType;
+    private ModelBaseRank baseRank;
+    private PlFormula queryFormula;
 
-    @Setup
+    @Setup(Level.Trial)
     public void setup() {
         this.knowledgeBaseService = new KnowledgeBaseServiceImpl();
-        this.evaluationService = new EvaluationServiceImpl();
         this.algorithm = Algorithm.valueOf(algorithmName);
         this.operator = InferenceOperator.valueOf(inferenceOpName);
+
+        this.reasonerType = switch (operator) {
+            case RationalClosure ->
+                ReasonerType.RationalClosure;
+            case LexicographicClosure ->
+                ReasonerType.LexicographicClosure;
+            case BasicRelevantClosure ->
+                ReasonerType.BasicRelevantClosure;
+            case MinimalRelevantClosure ->
+                ReasonerType.MinimalRelevantClosure;
+        };
+
+        KnowledgeBase knowledgeBase = knowledgeBaseService.getKnowledgeBase();
+        this.baseRank = new BaseRankService().construct(knowledgeBase);
+        this.queryFormula = new FormulaServiceImpl().getQueryFormula();
     }
 
     @Benchmark
     public EvaluationData runBenchmark() {
-        return null;
+        // own caches, as in EvaluationServiceImpl, so that no invocation is warmed by the last
+        IReasonerService reasoner = ReasonerFactory.createIsolatedEntailment(reasonerType, algorithm);
+
+        long start = System.nanoTime();
+        reasoner.getEntailment(new ModelBaseRank(baseRank), queryFormula);
+        double timeMs = Math.round(((System.nanoTime() - start) / 1_000_000.0) * 100.0) / 100.0;
+
+        EvaluationData data = new EvaluationData(querySet, operator);
+        data.addResult(algorithm, timeMs);
+        return data;
     }
 }
@@ -0,0 +1,123 @@
+package uct.cs.klm.algorithms.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+import uct.cs.klm.algorithms.enums.ExceptionalityCheck;
+import uct.cs.klm.algorithms.enums.SatBackendType;
+import uct.cs.klm.algorithms.generators.RandomKnowledgeBaseGenerator;
+import uct.cs.klm.algorithms.models.DefeasibleImplication;
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.ranking.BaseRankService;
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+import uct.cs.klm.algorithms.ranking.RemovalBoundaryCache;
+import uct.cs.klm.algorithms.rational.RationalClosureReasonerImpl;
+import uct.cs.klm.algorithms.sat.CnfSatReasoner;
+import uct.cs.klm.algorithms.sat.EntailmentCache;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class represents a benchmark comparing the SAT backends on randomly
+ * generated knowledge bases.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class SatBackendBenchmark {
+
+    private static final long SEED = 20240101L;
+    private static final int QUERY_COUNT = 20;
+
+    @Param({"Sat4j", "Dpll"})
+    private String backendName;
+
+    @Param({"abcdefgh", "abcdefghijklmnop"})
+    private String atoms;
+
+    @Param({"20", "60"})
+    private int defeasibleCount;
+
+    @Param({"Assumptions", "Independent"})
+    private String exceptionalityCheck;
+
+    private ISatBackend backend;
+    private CnfSatReasoner reasoner;
+    private BaseRankService baseRankService;
+    private KnowledgeBase knowledgeBase;
+    private KnowledgeBase materialisedKnowledgeBase;
+    private ModelBaseRank baseRank;
+    private List<PlFormula> queries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.backend = SatBackendFactory.create(SatBackendType.valueOf(backendName));
+        this.reasoner = new CnfSatReasoner(backend);
+
+        RandomKnowledgeBaseGenerator generator = new RandomKnowledgeBaseGenerator(atoms, SEED, backend);
+        this.knowledgeBase = generator.generateKnowledgeBase(defeasibleCount, defeasibleCount / 10, 3, 100);
+        this.materialisedKnowledgeBase = knowledgeBase.materialisedKnowledgeBase();
+        this.baseRankService = new BaseRankService(backend, ExceptionalityCheck.valueOf(exceptionalityCheck));
+        this.baseRank = baseRankService.construct(knowledgeBase);
+
+        Random random = new Random(SEED);
+        this.queries = new ArrayList<>();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            Proposition antecedent = new Proposition(String.valueOf(atoms.charAt(random.nextInt(atoms.length()))));
+            Proposition consequent = new Proposition(String.valueOf(atoms.charAt(random.nextInt(atoms.length()))));
+            queries.add(new DefeasibleImplication(antecedent, consequent));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCaches() {
+        // measure the solvers, not the shared entailment cache
+        EntailmentCache.getShared().clear();
+        RemovalBoundaryCache.getShared().clear();
+    }
+
+    @Benchmark
+    public int classicalEntailment() {
+        int entailed = 0;
+        for (PlFormula query : queries) {
+            DefeasibleImplication implication = (DefeasibleImplication) query;
+            if (reasoner.query(materialisedKnowledgeBase, implication.getSecondFormula())) {
+                entailed++;
+            }
+        }
+        return entailed;
+    }
+
+    @Benchmark
+    public ModelBaseRank baseRank() {
+        return baseRankService.construct(knowledgeBase);
+    }
+
+    @Benchmark
+    public int rationalClosure() {
+        // a fresh copy so that the incremental session is rebuilt on every invocation
+        ModelBaseRank freshBaseRank = new ModelBaseRank(baseRank);
+        RationalClosureReasonerImpl rationalClosure = new RationalClosureReasonerImpl(backend);
+
+        int entailed = 0;
+        for (PlFormula query : queries) {
+            if (rationalClosure.getEntailment(freshBaseRank, query).getEntailed()) {
+                entailed++;
+            }
+        }
+        return entailed;
+    }
+}
@@ -0,0 +1,200 @@
+package uct.cs.klm.algorithms.compilation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.enums.CompilationType;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+import uct.cs.klm.algorithms.utils.Fingerprint;
+
+/**
+ * This class represents a knowledge compiler that keeps a BDD of every
+ * cumulative rank suffix it has been asked about.
+ *
+ * Suffixes are compiled lazily, top rank first, each one as the conjunction of
+ * its rank with the (already compiled) suffix above it, and are keyed by the
+ * fingerprint of their materialised formulas so they are shared across
+ * requests and base ranks. A query is then compiled on its own and checked by
+ * a disjointness walk over the two diagrams. A suffix that would take more
+ * than its node allowance is remembered as too large and left to SAT; when the
+ * shared store fills up it is discarded and compilation starts over.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class BddKnowledgeCompiler implements IKnowledgeCompiler {
+
+    private static final Logger _logger = LoggerFactory.getLogger(BddKnowledgeCompiler.class);
+
+    // about 12 bytes per node
+    private static final int DEFAULT_MAX_NODES = 4_000_000;
+    private static final int DEFAULT_MAX_SUFFIX_NODES = 500_000;
+
+    private static final BddKnowledgeCompiler _shared = new BddKnowledgeCompiler(DEFAULT_MAX_NODES, DEFAULT_MAX_SUFFIX_NODES);
+
+    private final int _maxNodes;
+    private final int _maxSuffixNodes;
+
+    // guarded by this
+    private BddManager _manager;
+    private final Map<Fingerprint, Integer> _roots = new HashMap<>();
+    private final Set<Fingerprint> _oversized = new HashSet<>();
+
+    /**
+     * Creates a compiler with the given memory limits.
+     *
+     * @param maxNodes The maximum number of nodes kept in total.
+     * @param maxSuffixNodes The maximum number of new nodes for one suffix.
+     */
+    public BddKnowledgeCompiler(int maxNodes, int maxSuffixNodes) {
+        _maxNodes = maxNodes;
+        _maxSuffixNodes = maxSuffixNodes;
+        _manager = new BddManager(maxNodes);
+    }
+
+    /**
+     * Gets the compiler shared by all reasoners.
+     *
+     * @return The shared compiler.
+     */
+    public static BddKnowledgeCompiler getShared() {
+        return _shared;
+    }
+
+    @Override
+    public CompilationType getType() {
+        return CompilationType.Bdd;
+    }
+
+    @Override
+    public synchronized Boolean entails(RankSatSession session, int fromIndex, PlFormula formula, ReasoningBudget budget) {
+
+        budget.check();
+
+        try {
+            int root = compileSuffix(session, fromIndex);
+            return root < 0 ? null : isEntailed(root, formula);
+        } catch (BddManager.NodeLimitException ex) {
+            flush();
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized Boolean entails(Collection<? extends PlFormula> formulas, PlFormula formula, ReasoningBudget budget) {
+
+        budget.check();
+
+        try {
+            int root = compile(Fingerprint.of(formulas), BddManager.TRUE, formulas);
+            return root < 0 ? null : isEntailed(root, formula);
+        } catch (BddManager.NodeLimitException ex) {
+            flush();
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of nodes currently held.
+     *
+     * @return The number of nodes.
+     */
+    public synchronized int getNodeCount() {
+        return _manager.getNodeCount();
+    }
+
+    /**
+     * Discards every compiled diagram.
+     */
+    public synchronized void clear() {
+        flush();
+        _oversized.clear();
+    }
+
+    private boolean isEntailed(int root, PlFormula formula) {
+        _manager.setNodeLimit(_maxNodes);
+        return _manager.isDisjoint(root, _manager.not(_manager.compile(formula)));
+    }
+
+    private int compileSuffix(RankSatSession session, int fromIndex) {
+
+        ModelRankCollection ranking = session.getRanking();
+
+        // find the highest compiled suffix at or below the top, then build downwards
+        int index = fromIndex;
+        while (index < ranking.size() && !_roots.containsKey(session.getSuffixFingerprint(index))) {
+            if (_oversized.contains(session.getSuffixFingerprint(index))) {
+                return -1;
+            }
+            index++;
+        }
+
+        int root = index < ranking.size() ? _roots.get(session.getSuffixFingerprint(index)) : BddManager.TRUE;
+
+        while (index > fromIndex) {
+            index--;
+            root = compile(session.getSuffixFingerprint(index), root, ranking.get(index).getFormulas());
+            if (root < 0) {
+                return -1;
+            }
+        }
+
+        return root;
+    }
+
+    /**
+     * Compiles the conjunction of the formulas with a compiled base, within
+     * the suffix node allowance.
+     *
+     * @return The node of the conjunction, or -1 if it is too large.
+     */
+    private int compile(Fingerprint fingerprint, int base, Collection<? extends PlFormula> formulas) {
+
+        Integer known = _roots.get(fingerprint);
+        if (known != null) {
+            return known;
+        }
+        if (_oversized.contains(fingerprint)) {
+            return -1;
+        }
+
+        int allowance = _manager.getNodeCount() + _maxSuffixNodes;
+        if (allowance >= _maxNodes) {
+            // the store is nearly full: start over rather than refuse a suffix that fits on its own
+            flush();
+            return -1;
+        }
+
+        _manager.setNodeLimit(allowance);
+
+        try {
+            int root = base;
+            for (PlFormula formula : formulas) {
+                root = _manager.and(root, _manager.compile(formula));
+            }
+            _roots.put(fingerprint, root);
+            return root;
+        } catch (BddManager.NodeLimitException ex) {
+            _logger.debug("Suffix {} exceeds {} BDD nodes, using SAT", fingerprint, _maxSuffixNodes);
+            _oversized.add(fingerprint);
+            return -1;
+        } finally {
+            _manager.setNodeLimit(_maxNodes);
+        }
+    }
+
+    private void flush() {
+        _logger.debug("Discarding {} BDD nodes", _manager.getNodeCount());
+        _manager = new BddManager(_maxNodes);
+        _roots.clear();
+    }
+}
@@ -0,0 +1,345 @@
+package uct.cs.klm.algorithms.compilation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Contradiction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Equivalence;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.syntax.Tautology;
+
+/**
+ * This class represents a store of reduced ordered binary decision diagrams
+ * (ROBDDs) over a single variable order.
+ *
+ * Nodes live in primitive arrays and are hash-consed through a unique table,
+ * so equal functions share one node id and equivalence is an int comparison.
+ * Atoms get variables in the order they are first compiled. Every new node is
+ * checked against a node limit; once it is reached a NodeLimitException is
+ * thrown and the caller decides whether to fall back or to start over.
+ * Instances are not thread-safe.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class BddManager {
+
+    public static final int FALSE = 0;
+    public static final int TRUE = 1;
+
+    private static final int TERMINAL_VARIABLE = Integer.MAX_VALUE;
+
+    private static final int OP_AND = 0;
+    private static final int OP_OR = 1;
+    private static final int OP_NOT = 2;
+
+    // direct-mapped (lossy) operation cache
+    private static final int CACHE_SIZE = 1 << 16;
+
+    private int[] _variables = new int[1024];
+    private int[] _lows = new int[1024];
+    private int[] _highs = new int[1024];
+    private int _nodeCount = 2;
+
+    // open addressing on node ids, 0 marks an empty slot (node 0 is never hashed)
+    private int[] _uniqueTable = new int[2048];
+
+    private final int[] _cacheKeys = new int[CACHE_SIZE * 3];
+    private final int[] _cacheValues = new int[CACHE_SIZE];
+
+    private final Map<Proposition, Integer> _atomVariables = new HashMap<>();
+
+    private int _nodeLimit;
+
+    /**
+     * Creates a store that never grows beyond the given number of nodes.
+     *
+     * @param nodeLimit The maximum number of nodes.
+     */
+    public BddManager(int nodeLimit) {
+        _nodeLimit = nodeLimit;
+        _variables[FALSE] = TERMINAL_VARIABLE;
+        _variables[TRUE] = TERMINAL_VARIABLE;
+        _lows[TRUE] = _highs[TRUE] = TRUE;
+        Arrays.fill(_cacheKeys, -1);
+    }
+
+    public int getNodeCount() {
+        return _nodeCount;
+    }
+
+    public int getNodeLimit() {
+        return _nodeLimit;
+    }
+
+    /**
+     * Sets the node limit for the following operations.
+     *
+     * @param nodeLimit The maximum number of nodes.
+     */
+    public void setNodeLimit(int nodeLimit) {
+        _nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Compiles a formula. Defeasible implications are compiled as their
+     * materialised (classical) counterpart.
+     *
+     * @param formula The formula.
+     * @return The node of the formula.
+     * @throws NodeLimitException If the node limit is reached.
+     */
+    public int compile(PlFormula formula) {
+
+        if (formula instanceof Proposition atom) {
+            int variable = _atomVariables.computeIfAbsent(atom, a -> _atomVariables.size());
+            return makeNode(variable, FALSE, TRUE);
+        }
+
+        if (formula instanceof Negation negation) {
+            return not(compile(negation.getFormula()));
+        }
+
+        if (formula instanceof Tautology) {
+            return TRUE;
+        }
+
+        if (formula instanceof Contradiction) {
+            return FALSE;
+        }
+
+        if (formula instanceof Conjunction conjunction) {
+            int result = TRUE;
+            for (PlFormula operand : conjunction) {
+                result = and(result, compile(operand));
+            }
+            return result;
+        }
+
+        if (formula instanceof Disjunction disjunction) {
+            int result = FALSE;
+            for (PlFormula operand : disjunction) {
+                result = or(result, compile(operand));
+            }
+            return result;
+        }
+
+        if (formula instanceof Implication implication) {
+            return or(not(compile(implication.getFirstFormula())), compile(implication.getSecondFormula()));
+        }
+
+        if (formula instanceof Equivalence equivalence) {
+            int a = compile(equivalence.getFormulas().getFirst());
+            int b = compile(equivalence.getFormulas().getSecond());
+            return or(and(a, b), and(not(a), not(b)));
+        }
+
+        throw new IllegalArgumentException("Unsupported formula: " + formula);
+    }
+
+    public int and(int a, int b) {
+
+        if (a == FALSE || b == FALSE) {
+            return FALSE;
+        }
+        if (a == TRUE || a == b) {
+            return b;
+        }
+        if (b == TRUE) {
+            return a;
+        }
+
+        return apply(OP_AND, Math.min(a, b), Math.max(a, b));
+    }
+
+    public int or(int a, int b) {
+
+        if (a == TRUE || b == TRUE) {
+            return TRUE;
+        }
+        if (a == FALSE || a == b) {
+            return b;
+        }
+        if (b == FALSE) {
+            return a;
+        }
+
+        return apply(OP_OR, Math.min(a, b), Math.max(a, b));
+    }
+
+    public int not(int a) {
+
+        if (a <= TRUE) {
+            return TRUE - a;
+        }
+
+        int slot = cacheSlot(OP_NOT, a, 0);
+        if (isCached(slot, OP_NOT, a, 0)) {
+            return _cacheValues[slot];
+        }
+
+        int result = makeNode(_variables[a], not(_lows[a]), not(_highs[a]));
+        store(slot, OP_NOT, a, 0, result);
+        return result;
+    }
+
+    /**
+     * Checks whether the conjunction of two functions is unsatisfiable,
+     * without building any nodes.
+     *
+     * @param a The first node.
+     * @param b The second node.
+     * @return True if no assignment satisfies both.
+     */
+    public boolean isDisjoint(int a, int b) {
+        return isDisjoint(a, b, new HashMap<>());
+    }
+
+    private boolean isDisjoint(int a, int b, Map<Long, Boolean> memo) {
+
+        if (a == FALSE || b == FALSE) {
+            return true;
+        }
+        if (a == TRUE || b == TRUE || a == b) {
+            // both reduced and non-false, so each has a model
+            return false;
+        }
+
+        long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+        Boolean known = memo.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        int variable = Math.min(_variables[a], _variables[b]);
+
+        boolean result = isDisjoint(low(a, variable), low(b, variable), memo)
+                && isDisjoint(high(a, variable), high(b, variable), memo);
+
+        memo.put(key, result);
+        return result;
+    }
+
+    private int apply(int op, int a, int b) {
+
+        int slot = cacheSlot(op, a, b);
+        if (isCached(slot, op, a, b)) {
+            return _cacheValues[slot];
+        }
+
+        int variable = Math.min(_variables[a], _variables[b]);
+        int low = op == OP_AND
+                ? and(low(a, variable), low(b, variable))
+                : or(low(a, variable), low(b, variable));
+        int high = op == OP_AND
+                ? and(high(a, variable), high(b, variable))
+                : or(high(a, variable), high(b, variable));
+
+        int result = makeNode(variable, low, high);
+        store(slot, op, a, b, result);
+        return result;
+    }
+
+    private int low(int node, int variable) {
+        return _variables[node] == variable ? _lows[node] : node;
+    }
+
+    private int high(int node, int variable) {
+        return _variables[node] == variable ? _highs[node] : node;
+    }
+
+    private int makeNode(int variable, int low, int high) {
+
+        if (low == high) {
+            return low;
+        }
+
+        int mask = _uniqueTable.length - 1;
+        int slot = hash(variable, low, high) & mask;
+
+        while (_uniqueTable[slot] != 0) {
+            int node = _uniqueTable[slot];
+            if (_variables[node] == variable && _lows[node] == low && _highs[node] == high) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (_nodeCount >= _nodeLimit) {
+            throw NodeLimitException.INSTANCE;
+        }
+
+        if (_nodeCount == _variables.length) {
+            int capacity = _variables.length * 2;
+            _variables = Arrays.copyOf(_variables, capacity);
+            _lows = Arrays.copyOf(_lows, capacity);
+            _highs = Arrays.copyOf(_highs, capacity);
+        }
+
+        int node = _nodeCount++;
+        _variables[node] = variable;
+        _lows[node] = low;
+        _highs[node] = high;
+
+        _uniqueTable[slot] = node;
+        if (_nodeCount * 2 > _uniqueTable.length) {
+            rehash();
+        }
+
+        return node;
+    }
+
+    private void rehash() {
+
+        _uniqueTable = new int[_uniqueTable.length * 2];
+        int mask = _uniqueTable.length - 1;
+
+        for (int node = 2; node < _nodeCount; node++) {
+            int slot = hash(_variables[node], _lows[node], _highs[node]) & mask;
+            while (_uniqueTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            _uniqueTable[slot] = node;
+        }
+    }
+
+    private static int hash(int variable, int low, int high) {
+        int h = variable * 0x9E3779B1 + low * 0x85EBCA6B + high * 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static int cacheSlot(int op, int a, int b) {
+        return hash(op, a, b) & (CACHE_SIZE - 1);
+    }
+
+    private boolean isCached(int slot, int op, int a, int b) {
+        int base = slot * 3;
+        return _cacheKeys[base] == op && _cacheKeys[base + 1] == a && _cacheKeys[base + 2] == b;
+    }
+
+    private void store(int slot, int op, int a, int b, int result) {
+        int base = slot * 3;
+        _cacheKeys[base] = op;
+        _cacheKeys[base + 1] = a;
+        _cacheKeys[base + 2] = b;
+        _cacheValues[slot] = result;
+    }
+
+    /**
+     * This exception signals that an operation would exceed the node limit.
+     */
+    public static final class NodeLimitException extends RuntimeException {
+
+        static final NodeLimitException INSTANCE = new NodeLimitException();
+
+        private NodeLimitException() {
+            super("BDD node limit reached", null, false, false);
+        }
+    }
+}
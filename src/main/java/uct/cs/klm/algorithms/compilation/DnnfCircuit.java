@@ -0,0 +1,188 @@
+package uct.cs.klm.algorithms.compilation;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+
+/**
+ * This class represents a compiled decision-DNNF circuit over DIMACS style
+ * variables 1..n.
+ *
+ * Conjunctions are decomposable (their children share no variables) and
+ * disjunctions are deterministic (their children are decisions on one
+ * variable), so conditioning on a term, satisfiability and model counting
+ * are single bottom-up passes. Children always have smaller ids than their
+ * parents, so the passes are loops over the node arrays. Instances are
+ * immutable and may be queried concurrently.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class DnnfCircuit {
+
+    static final byte FALSE = 0;
+    static final byte TRUE = 1;
+    static final byte LITERAL = 2;
+    static final byte AND = 3;
+    static final byte OR = 4;
+
+    private final byte[] _types;
+    private final int[] _literals;
+    private final int[][] _children;
+    private final BitSet[] _variables;
+    private final int _root;
+    private final int _variableCount;
+
+    DnnfCircuit(byte[] types, int[] literals, int[][] children, BitSet[] variables, int root, int variableCount) {
+        _types = types;
+        _literals = literals;
+        _children = children;
+        _variables = variables;
+        _root = root;
+        _variableCount = variableCount;
+    }
+
+    public int getNodeCount() {
+        return _types.length;
+    }
+
+    public int getVariableCount() {
+        return _variableCount;
+    }
+
+    /**
+     * Checks whether the circuit conditioned on the term is satisfiable.
+     *
+     * @param term The literals assumed true.
+     * @return True if some model agrees with the term.
+     */
+    public boolean isSatisfiable(int[] term) {
+
+        byte[] fixed = toAssignment(term);
+        if (fixed == null) {
+            return false;
+        }
+
+        boolean[] isSatisfiable = new boolean[_types.length];
+
+        for (int node = 0; node < _types.length; node++) {
+            isSatisfiable[node] = switch (_types[node]) {
+                case FALSE -> false;
+                case TRUE -> true;
+                case LITERAL -> agrees(_literals[node], fixed);
+                case AND -> all(_children[node], isSatisfiable);
+                default -> any(_children[node], isSatisfiable);
+            };
+        }
+
+        return isSatisfiable[_root];
+    }
+
+    /**
+     * Counts the assignments to variables 1..n that satisfy the circuit and
+     * agree with the term.
+     *
+     * @param term The literals assumed true.
+     * @return The number of models.
+     */
+    public BigInteger countModels(int[] term) {
+
+        byte[] fixed = toAssignment(term);
+        if (fixed == null) {
+            return BigInteger.ZERO;
+        }
+
+        BitSet fixedVariables = new BitSet();
+        for (int literal : term) {
+            fixedVariables.set(Math.abs(literal));
+        }
+
+        BigInteger[] counts = new BigInteger[_types.length];
+
+        for (int node = 0; node < _types.length; node++) {
+            counts[node] = switch (_types[node]) {
+                case FALSE -> BigInteger.ZERO;
+                case TRUE -> BigInteger.ONE;
+                case LITERAL -> agrees(_literals[node], fixed) ? BigInteger.ONE : BigInteger.ZERO;
+                case AND -> product(_children[node], counts);
+                default -> smoothedSum(node, counts, fixedVariables);
+            };
+        }
+
+        BitSet universe = new BitSet();
+        universe.set(1, _variableCount + 1);
+
+        return counts[_root].shiftLeft(freeCount(universe, _variables[_root], fixedVariables));
+    }
+
+    private byte[] toAssignment(int[] term) {
+
+        int size = _variableCount;
+        for (int literal : term) {
+            size = Math.max(size, Math.abs(literal));
+        }
+
+        byte[] fixed = new byte[size + 1];
+
+        for (int literal : term) {
+            byte value = literal > 0 ? TRUE : (byte) -1;
+            int variable = Math.abs(literal);
+            if (fixed[variable] == -value) {
+                return null;
+            }
+            fixed[variable] = value;
+        }
+
+        return fixed;
+    }
+
+    private static boolean agrees(int literal, byte[] fixed) {
+        byte value = fixed[Math.abs(literal)];
+        return value == 0 || (value > 0) == (literal > 0);
+    }
+
+    private static boolean all(int[] children, boolean[] values) {
+        for (int child : children) {
+            if (!values[child]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean any(int[] children, boolean[] values) {
+        for (int child : children) {
+            if (values[child]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BigInteger product(int[] children, BigInteger[] counts) {
+        BigInteger result = BigInteger.ONE;
+        for (int child : children) {
+            result = result.multiply(counts[child]);
+        }
+        return result;
+    }
+
+    /**
+     * Sums the counts of the children of a disjunction, scaling each by the
+     * free variables of the disjunction the child does not mention.
+     */
+    private BigInteger smoothedSum(int node, BigInteger[] counts, BitSet fixedVariables) {
+        BigInteger result = BigInteger.ZERO;
+        for (int child : _children[node]) {
+            int missing = freeCount(_variables[node], _variables[child], fixedVariables);
+            result = result.add(counts[child].shiftLeft(missing));
+        }
+        return result;
+    }
+
+    private static int freeCount(BitSet outer, BitSet inner, BitSet fixedVariables) {
+        BitSet missing = (BitSet) outer.clone();
+        missing.andNot(inner);
+        missing.andNot(fixedVariables);
+        return missing.cardinality();
+    }
+}
@@ -0,0 +1,340 @@
+package uct.cs.klm.algorithms.compilation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a top-down compiler of CNF clauses into a
+ * decision-DNNF circuit.
+ *
+ * It runs an exhaustive DPLL search: unit propagation, then the remaining
+ * clauses are split into variable-disjoint components that are compiled
+ * independently (decomposable conjunction), and a component is compiled by
+ * deciding its most frequent variable both ways (deterministic disjunction).
+ * Components are cached by their canonical clause list, so a component that
+ * recurs under different decisions is compiled once.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+final class DnnfCompiler {
+
+    // decisions nest at most this deep, keeping the search off the end of the stack
+    private static final int MAX_DEPTH = 2_000;
+
+    private final int _maxNodes;
+
+    private byte[] _types = new byte[256];
+    private int[] _literals = new int[256];
+    private int[][] _children = new int[256][];
+    private BitSet[] _variables = new BitSet[256];
+    private int _nodeCount = 0;
+
+    private final Map<Integer, Integer> _literalNodes = new HashMap<>();
+    private final Map<String, Integer> _components = new HashMap<>();
+
+    private final int _falseNode;
+    private final int _trueNode;
+
+    DnnfCompiler(int maxNodes) {
+        _maxNodes = maxNodes;
+        _falseNode = addNode(DnnfCircuit.FALSE, 0, new int[0], new BitSet());
+        _trueNode = addNode(DnnfCircuit.TRUE, 0, new int[0], new BitSet());
+    }
+
+    /**
+     * Compiles the clauses over variables 1..variableCount.
+     *
+     * @param clauses The clauses.
+     * @param variableCount The number of variables.
+     * @return The circuit, or null if it would exceed the node limit.
+     */
+    DnnfCircuit compile(List<int[]> clauses, int variableCount) {
+        try {
+            int root = compileClauses(clauses, 0);
+            return new DnnfCircuit(
+                    Arrays.copyOf(_types, _nodeCount),
+                    Arrays.copyOf(_literals, _nodeCount),
+                    Arrays.copyOf(_children, _nodeCount),
+                    Arrays.copyOf(_variables, _nodeCount),
+                    root,
+                    variableCount);
+        } catch (LimitException ex) {
+            return null;
+        }
+    }
+
+    private int compileClauses(List<int[]> clauses, int depth) {
+
+        if (depth > MAX_DEPTH) {
+            throw LimitException.INSTANCE;
+        }
+
+        List<Integer> parts = new ArrayList<>();
+        List<int[]> current = clauses;
+
+        // unit propagation
+        while (true) {
+            int unit = 0;
+            for (int[] clause : current) {
+                if (clause.length == 0) {
+                    return _falseNode;
+                }
+                if (clause.length == 1) {
+                    unit = clause[0];
+                    break;
+                }
+            }
+            if (unit == 0) {
+                break;
+            }
+            parts.add(literalNode(unit));
+            current = condition(current, unit);
+            if (current == null) {
+                return _falseNode;
+            }
+        }
+
+        for (List<int[]> component : toComponents(current)) {
+            int node = compileComponent(component, depth);
+            if (node == _falseNode) {
+                return _falseNode;
+            }
+            parts.add(node);
+        }
+
+        return and(parts);
+    }
+
+    private int compileComponent(List<int[]> component, int depth) {
+
+        String key = toKey(component);
+        Integer known = _components.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        int variable = mostFrequentVariable(component);
+
+        int high = decide(component, variable, depth);
+        int low = decide(component, -variable, depth);
+
+        int node;
+        if (high == _falseNode) {
+            node = low;
+        } else if (low == _falseNode) {
+            node = high;
+        } else {
+            BitSet variables = (BitSet) _variables[high].clone();
+            variables.or(_variables[low]);
+            node = addNode(DnnfCircuit.OR, 0, new int[]{high, low}, variables);
+        }
+
+        _components.put(key, node);
+        return node;
+    }
+
+    private int decide(List<int[]> component, int literal, int depth) {
+
+        List<int[]> conditioned = condition(component, literal);
+        if (conditioned == null) {
+            return _falseNode;
+        }
+
+        int rest = compileClauses(conditioned, depth + 1);
+        if (rest == _falseNode) {
+            return _falseNode;
+        }
+
+        List<Integer> parts = new ArrayList<>();
+        parts.add(literalNode(literal));
+        parts.add(rest);
+        return and(parts);
+    }
+
+    /**
+     * Sets the literal true: drops satisfied clauses and removes the opposite
+     * literal from the others.
+     *
+     * @return The remaining clauses, or null if one became empty.
+     */
+    private static List<int[]> condition(List<int[]> clauses, int literal) {
+
+        List<int[]> result = new ArrayList<>(clauses.size());
+
+        next:
+        for (int[] clause : clauses) {
+            int opposite = -1;
+            for (int i = 0; i < clause.length; i++) {
+                if (clause[i] == literal) {
+                    continue next;
+                }
+                if (clause[i] == -literal) {
+                    opposite = i;
+                }
+            }
+
+            if (opposite < 0) {
+                result.add(clause);
+                continue;
+            }
+
+            if (clause.length == 1) {
+                return null;
+            }
+
+            int[] shortened = new int[clause.length - 1];
+            for (int i = 0, j = 0; i < clause.length; i++) {
+                if (clause[i] != -literal) {
+                    shortened[j++] = clause[i];
+                }
+            }
+            result.add(shortened);
+        }
+
+        return result;
+    }
+
+    private static List<List<int[]>> toComponents(List<int[]> clauses) {
+
+        // union-find over variables, then group clauses by the root of their first variable
+        Map<Integer, Integer> parents = new HashMap<>();
+
+        for (int[] clause : clauses) {
+            int first = find(parents, Math.abs(clause[0]));
+            for (int i = 1; i < clause.length; i++) {
+                int other = find(parents, Math.abs(clause[i]));
+                if (other != first) {
+                    parents.put(other, first);
+                }
+            }
+        }
+
+        Map<Integer, List<int[]>> groups = new HashMap<>();
+        for (int[] clause : clauses) {
+            groups.computeIfAbsent(find(parents, Math.abs(clause[0])), root -> new ArrayList<>()).add(clause);
+        }
+
+        return new ArrayList<>(groups.values());
+    }
+
+    private static int find(Map<Integer, Integer> parents, int variable) {
+
+        int root = variable;
+        Integer parent;
+        while ((parent = parents.get(root)) != null && parent != root) {
+            root = parent;
+        }
+
+        // path compression
+        int current = variable;
+        while (current != root) {
+            int next = parents.get(current);
+            parents.put(current, root);
+            current = next;
+        }
+
+        parents.putIfAbsent(root, root);
+        return root;
+    }
+
+    private static int mostFrequentVariable(List<int[]> clauses) {
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        int best = 0;
+        int bestCount = 0;
+
+        for (int[] clause : clauses) {
+            for (int literal : clause) {
+                int count = counts.merge(Math.abs(literal), 1, Integer::sum);
+                if (count > bestCount || (count == bestCount && Math.abs(literal) < best)) {
+                    best = Math.abs(literal);
+                    bestCount = count;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private static String toKey(List<int[]> clauses) {
+
+        int[][] sorted = new int[clauses.size()][];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = clauses.get(i).clone();
+            Arrays.sort(sorted[i]);
+        }
+        Arrays.sort(sorted, Arrays::compare);
+
+        StringBuilder key = new StringBuilder();
+        for (int[] clause : sorted) {
+            for (int literal : clause) {
+                key.append(literal).append(' ');
+            }
+            key.append('|');
+        }
+        return key.toString();
+    }
+
+    private int literalNode(int literal) {
+        return _literalNodes.computeIfAbsent(literal, l -> {
+            BitSet variables = new BitSet();
+            variables.set(Math.abs(l));
+            return addNode(DnnfCircuit.LITERAL, l, new int[0], variables);
+        });
+    }
+
+    private int and(List<Integer> parts) {
+
+        if (parts.isEmpty()) {
+            return _trueNode;
+        }
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+
+        int[] children = new int[parts.size()];
+        BitSet variables = new BitSet();
+        for (int i = 0; i < children.length; i++) {
+            children[i] = parts.get(i);
+            variables.or(_variables[children[i]]);
+        }
+
+        return addNode(DnnfCircuit.AND, 0, children, variables);
+    }
+
+    private int addNode(byte type, int literal, int[] children, BitSet variables) {
+
+        if (_nodeCount >= _maxNodes) {
+            throw LimitException.INSTANCE;
+        }
+
+        if (_nodeCount == _types.length) {
+            int capacity = _types.length * 2;
+            _types = Arrays.copyOf(_types, capacity);
+            _literals = Arrays.copyOf(_literals, capacity);
+            _children = Arrays.copyOf(_children, capacity);
+            _variables = Arrays.copyOf(_variables, capacity);
+        }
+
+        int node = _nodeCount++;
+        _types[node] = type;
+        _literals[node] = literal;
+        _children[node] = children;
+        _variables[node] = variables;
+        return node;
+    }
+
+    private static final class LimitException extends RuntimeException {
+
+        static final LimitException INSTANCE = new LimitException();
+
+        private LimitException() {
+            super("d-DNNF node limit reached", null, false, false);
+        }
+    }
+}
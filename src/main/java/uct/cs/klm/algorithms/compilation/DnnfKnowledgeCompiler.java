@@ -0,0 +1,279 @@
+package uct.cs.klm.algorithms.compilation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+import uct.cs.klm.algorithms.enums.CompilationType;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ClauseBlock;
+import uct.cs.klm.algorithms.sat.ClauseBlockCache;
+import uct.cs.klm.algorithms.sat.ClauseSet;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+import uct.cs.klm.algorithms.utils.Fingerprint;
+
+/**
+ * This class represents a knowledge compiler that keeps a d-DNNF circuit of
+ * every materialised rank suffix it has been asked about.
+ *
+ * A suffix is compiled once from its clause set and kept, keyed by its
+ * fingerprint, in an LRU store bounded by the total number of circuit nodes.
+ * A query whose CNF needs no auxiliary variables is then decided clause by
+ * clause, each clause by conditioning the circuit on its negation. Circuits
+ * also count models, which gives the share of suffix models that satisfy a
+ * query that is not entailed. Suffixes over the node limit are left to SAT.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class DnnfKnowledgeCompiler implements IKnowledgeCompiler {
+
+    private static final Logger _logger = LoggerFactory.getLogger(DnnfKnowledgeCompiler.class);
+
+    private static final int DEFAULT_MAX_NODES = 2_000_000;
+    private static final int DEFAULT_MAX_CIRCUIT_NODES = 250_000;
+
+    private static final DnnfKnowledgeCompiler _shared = new DnnfKnowledgeCompiler(DEFAULT_MAX_NODES, DEFAULT_MAX_CIRCUIT_NODES);
+
+    private final int _maxNodes;
+    private final int _maxCircuitNodes;
+
+    // guarded by this, access ordered
+    private final LinkedHashMap<Fingerprint, CompiledSuffix> _suffixes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Fingerprint> _oversized = new HashSet<>();
+    private long _nodeCount = 0;
+
+    /**
+     * Creates a compiler with the given memory limits.
+     *
+     * @param maxNodes The maximum number of nodes kept in total.
+     * @param maxCircuitNodes The maximum number of nodes of one circuit.
+     */
+    public DnnfKnowledgeCompiler(int maxNodes, int maxCircuitNodes) {
+        _maxNodes = maxNodes;
+        _maxCircuitNodes = maxCircuitNodes;
+    }
+
+    /**
+     * Gets the compiler shared by all reasoners.
+     *
+     * @return The shared compiler.
+     */
+    public static DnnfKnowledgeCompiler getShared() {
+        return _shared;
+    }
+
+    @Override
+    public CompilationType getType() {
+        return CompilationType.Dnnf;
+    }
+
+    @Override
+    public Boolean entails(RankSatSession session, int fromIndex, PlFormula formula, ReasoningBudget budget) {
+        budget.check();
+        return entails(getSuffix(session, fromIndex), formula);
+    }
+
+    @Override
+    public Boolean entails(Collection<? extends PlFormula> formulas, PlFormula formula, ReasoningBudget budget) {
+        budget.check();
+        return entails(getCompiled(Fingerprint.of(formulas), formulas), formula);
+    }
+
+    @Override
+    public Double getModelSupport(RankSatSession session, int fromIndex, PlFormula formula) {
+
+        CompiledSuffix suffix = getSuffix(session, fromIndex);
+        if (suffix == null) {
+            return null;
+        }
+
+        // the negated query must be a term, so its models can be counted by conditioning
+        List<int[]> clauses = toClauses(suffix, new Negation(formula));
+        if (clauses == null) {
+            return null;
+        }
+
+        int[] term = new int[clauses.size()];
+        for (int i = 0; i < term.length; i++) {
+            if (clauses.get(i).length != 1) {
+                return clauses.get(i).length == 0 ? 1.0 : null;
+            }
+            term[i] = clauses.get(i)[0];
+        }
+
+        BigInteger models = suffix.circuit.countModels(new int[0]);
+        if (models.signum() == 0) {
+            return null;
+        }
+
+        // atoms the suffix does not mention double its models over the extended atoms
+        int unknownAtoms = (int) Arrays.stream(term)
+                .map(Math::abs)
+                .filter(variable -> variable > suffix.clauseSet.getMaxVariable())
+                .distinct()
+                .count();
+
+        BigDecimal counterModels = new BigDecimal(suffix.circuit.countModels(term));
+        BigDecimal share = counterModels.divide(new BigDecimal(models.shiftLeft(unknownAtoms)), MathContext.DECIMAL64);
+
+        return 1.0 - share.doubleValue();
+    }
+
+    /**
+     * Counts the models of the materialised ranks from the given index
+     * (ascending) onwards, over the atoms they mention.
+     *
+     * @param session The SAT session of the base ranking.
+     * @param fromIndex The index of the lowest active rank.
+     * @return The number of models, or null if the suffix is too large to compile.
+     */
+    public BigInteger countModels(RankSatSession session, int fromIndex) {
+        CompiledSuffix suffix = getSuffix(session, fromIndex);
+        return suffix == null ? null : suffix.circuit.countModels(new int[0]);
+    }
+
+    /**
+     * Gets the number of circuit nodes currently held.
+     *
+     * @return The number of nodes.
+     */
+    public synchronized long getNodeCount() {
+        return _nodeCount;
+    }
+
+    /**
+     * Discards every compiled circuit.
+     */
+    public synchronized void clear() {
+        _suffixes.clear();
+        _oversized.clear();
+        _nodeCount = 0;
+    }
+
+    private Boolean entails(CompiledSuffix suffix, PlFormula formula) {
+
+        if (suffix == null) {
+            return null;
+        }
+
+        List<int[]> clauses = toClauses(suffix, formula);
+        if (clauses == null) {
+            return null;
+        }
+
+        // the suffix entails a clause iff it has no model where every literal of the clause is false
+        for (int[] clause : clauses) {
+            int[] term = new int[clause.length];
+            for (int i = 0; i < clause.length; i++) {
+                term[i] = -clause[i];
+            }
+            if (suffix.circuit.isSatisfiable(term)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Maps the direct CNF of a formula onto the variables of the suffix.
+     * Atoms the suffix does not mention get variables above its own.
+     *
+     * @return The clauses, or null if the formula needs auxiliary variables.
+     */
+    private static List<int[]> toClauses(CompiledSuffix suffix, PlFormula formula) {
+
+        ClauseBlock block = ClauseBlockCache.get(formula);
+
+        int[] mapping = new int[block.getVariableCount() + 1];
+        for (int variable = 1; variable <= block.getVariableCount(); variable++) {
+            Proposition atom = block.getAtom(variable);
+            if (atom == null) {
+                return null;
+            }
+            int known = suffix.clauseSet.getVariable(atom);
+            mapping[variable] = known != 0 ? known : suffix.clauseSet.getMaxVariable() + variable;
+        }
+
+        List<int[]> clauses = new ArrayList<>();
+
+        for (int[] clause : block.getClauses()) {
+            clauses.add(Arrays.stream(clause)
+                    .map(literal -> literal > 0 ? mapping[literal] : -mapping[-literal])
+                    .toArray());
+        }
+
+        return clauses;
+    }
+
+    private CompiledSuffix getSuffix(RankSatSession session, int fromIndex) {
+
+        ModelRankCollection ranking = session.getRanking();
+
+        List<PlFormula> formulas = new ArrayList<>();
+        for (int index = fromIndex; index < ranking.size(); index++) {
+            formulas.addAll(ranking.get(index).getFormulas());
+        }
+
+        return getCompiled(session.getSuffixFingerprint(fromIndex), formulas);
+    }
+
+    private synchronized CompiledSuffix getCompiled(Fingerprint fingerprint, Collection<? extends PlFormula> formulas) {
+
+        CompiledSuffix suffix = _suffixes.get(fingerprint);
+        if (suffix != null || _oversized.contains(fingerprint)) {
+            return suffix;
+        }
+
+        ClauseSet clauseSet = new ClauseSet();
+        clauseSet.addAll(formulas);
+
+        DnnfCircuit circuit = new DnnfCompiler(_maxCircuitNodes).compile(clauseSet.getClauses(), clauseSet.getMaxVariable());
+
+        if (circuit == null) {
+            _logger.debug("Suffix {} exceeds {} d-DNNF nodes, using SAT", fingerprint, _maxCircuitNodes);
+            _oversized.add(fingerprint);
+            return null;
+        }
+
+        suffix = new CompiledSuffix(clauseSet, circuit);
+        _suffixes.put(fingerprint, suffix);
+        _nodeCount += circuit.getNodeCount();
+
+        // evict least recently used circuits beyond the node budget
+        Iterator<Map.Entry<Fingerprint, CompiledSuffix>> eldest = _suffixes.entrySet().iterator();
+        while (_nodeCount > _maxNodes && eldest.hasNext()) {
+            CompiledSuffix evicted = eldest.next().getValue();
+            if (evicted == suffix) {
+                break;
+            }
+            _nodeCount -= evicted.circuit.getNodeCount();
+            eldest.remove();
+        }
+
+        return suffix;
+    }
+
+    /**
+     * A compiled suffix and the clause set that numbers its atoms.
+     */
+    private record CompiledSuffix(ClauseSet clauseSet, DnnfCircuit circuit) {
+    }
+}
@@ -0,0 +1,59 @@
+package uct.cs.klm.algorithms.compilation;
+
+import java.util.Collection;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.enums.CompilationType;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+
+/**
+ * This interface represents a knowledge compilation engine that answers
+ * classical entailment on compiled (materialised) rank suffixes.
+ *
+ * A compiler may decline a knowledge base it cannot compile within its
+ * limits, in which case the caller falls back to SAT.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public interface IKnowledgeCompiler {
+
+    CompilationType getType();
+
+    /**
+     * Checks whether the materialised ranks of the session from the given
+     * index (ascending) onwards entail the formula.
+     *
+     * @param session The SAT session of the base ranking.
+     * @param fromIndex The index of the lowest active rank.
+     * @param formula The formula to check.
+     * @param budget The budget of the request.
+     * @return The entailment, or null if the suffix is too large to compile.
+     */
+    Boolean entails(RankSatSession session, int fromIndex, PlFormula formula, ReasoningBudget budget);
+
+    /**
+     * Checks whether the (materialised) formulas entail the formula.
+     *
+     * @param formulas The formulas.
+     * @param formula The formula to check.
+     * @param budget The budget of the request.
+     * @return The entailment, or null if the formulas are too large to compile.
+     */
+    Boolean entails(Collection<? extends PlFormula> formulas, PlFormula formula, ReasoningBudget budget);
+
+    /**
+     * Gets the share of the models of the rank suffix that satisfy the
+     * formula, a measure of how close a failed entailment was.
+     *
+     * @param session The SAT session of the base ranking.
+     * @param fromIndex The index of the lowest active rank.
+     * @param formula The formula.
+     * @return The share in [0, 1], or null if the compiler cannot count it.
+     */
+    default Double getModelSupport(RankSatSession session, int fromIndex, PlFormula formula) {
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package uct.cs.klm.algorithms.compilation;
+
+import uct.cs.klm.algorithms.enums.CompilationType;
+
+/**
+ * This class represents a knowledge compiler factory.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public class KnowledgeCompilerFactory {
+
+    public static CompilationType createCompilationType(String type) {
+
+        if (type == null || type.isBlank()) {
+            return CompilationType.None;
+        }
+
+        return switch (type.toLowerCase()) {
+            case "none" ->
+                CompilationType.None;
+            case "bdd" ->
+                CompilationType.Bdd;
+            case "dnnf" ->
+                CompilationType.Dnnf;
+
+            default ->
+                throw new IllegalArgumentException("Unknown compilation: " + type);
+        };
+    }
+
+    /**
+     * Gets the shared compiler of the given type.
+     *
+     * @param compilationType The compilation type.
+     * @return The compiler, or null for CompilationType.None.
+     */
+    public static IKnowledgeCompiler create(CompilationType compilationType) {
+        return switch (compilationType) {
+            case CompilationType.None ->
+                null;
+            case CompilationType.Bdd ->
+                BddKnowledgeCompiler.getShared();
+            case CompilationType.Dnnf ->
+                DnnfKnowledgeCompiler.getShared();
+
+            default ->
+                throw new IllegalArgumentException("Unknown compilation: " + compilationType);
+        };
+    }
+
+    public static IKnowledgeCompiler create(String type) {
+        return create(createCompilationType(type));
+    }
+}
@@ -1,10 +1,18 @@
 package uct.cs.klm.algorithms.controllers;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
+import uct.cs.klm.algorithms.enums.SatBackendType;
+import uct.cs.klm.algorithms.models.BaseRankUpdateInput;
 import uct.cs.klm.algorithms.models.ModelErrorResponse;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.*;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
 
 import io.javalin.http.Context;
 
@@ -18,14 +26,33 @@ import io.javalin.http.Context;
 
 public class BaseRankController {
   private static final Logger logger = LoggerFactory.getLogger(BaseRankController.class);
-  private static final IBaseRankService baseRankService = new BaseRankService();
+  private static final Map<SatBackendType, IBaseRankService> baseRankServices = new ConcurrentHashMap<>();
   private static final IBaseRankExplanationService baseRankExplanationService = new BaseRankExplanationService();
 
   public static void getBaseRank(Context ctx) {
+    // optional ?timeoutMs=&maxSatCalls=&maxConflicts=, unlimited when absent
+    ReasoningBudget budget = toBudget(ctx);
+    if (budget == null) {
+      return;
+    }
     try {
       KnowledgeBase kb = ctx.bodyAsClass(KnowledgeBase.class);
+      // optional ?backend=sat4j|dpll, defaults to Sat4j
+      SatBackendType backendType = SatBackendFactory.createBackendType(ctx.queryParam("backend"));
+      IBaseRankService baseRankService = baseRankServices.computeIfAbsent(
+          backendType, type -> new BaseRankService(SatBackendFactory.create(type)));
+      // the ranking only depends on the knowledge base, so its fingerprint is the entity tag
+      String entityTag = String.format("W/\"%s\"", kb.getFingerprint());
+      if (entityTag.equals(ctx.header("If-None-Match"))) {
+        ctx.status(304);
+        return;
+      }
+      ModelBaseRank baseRank = baseRankService.construct(kb, budget);
+      if (baseRank.getStatus() == ReasoningStatus.Completed) {
+        ctx.header("ETag", entityTag);
+      }
       ctx.status(200);
-      ctx.json(baseRankService.construct(kb));
+      ctx.json(baseRank);
     } catch (Exception e) {
       logger.error("An error occurred", e);
       ctx.status(400);
@@ -33,6 +60,25 @@ public class BaseRankController {
     }
   }
 
+  public static void updateBaseRank(Context ctx) {
+    ReasoningBudget budget = toBudget(ctx);
+    if (budget == null) {
+      return;
+    }
+    try {
+      BaseRankUpdateInput input = ctx.bodyAsClass(BaseRankUpdateInput.class);
+      SatBackendType backendType = SatBackendFactory.createBackendType(ctx.queryParam("backend"));
+      IBaseRankService baseRankService = baseRankServices.computeIfAbsent(
+          backendType, type -> new BaseRankService(SatBackendFactory.create(type)));
+      ctx.status(200);
+      ctx.json(baseRankService.update(input.getBaseRank(), input.getAdded(), input.getRemoved(), budget));
+    } catch (Exception e) {
+      logger.error("An error occurred", e);
+      ctx.status(400);
+      ctx.json(new ModelErrorResponse(400, "Bad Request", "The base rank update is invalid"));
+    }
+  }
+
   public static void generateBaseRankExplanation(Context ctx) {
     try {
       ModelBaseRank baseRank =  ctx.bodyAsClass(ModelBaseRank.class);
@@ -44,4 +90,16 @@ public class BaseRankController {
       ctx.json(new ModelErrorResponse(400, "Bad Request", "The base rank is invalid"));
     }
   }
+
+  // answers a bad request and returns null when a budget parameter is not a limit
+  private static ReasoningBudget toBudget(Context ctx) {
+    try {
+      return ReasoningBudget.parse(
+          ctx.queryParam("timeoutMs"), ctx.queryParam("maxSatCalls"), ctx.queryParam("maxConflicts"));
+    } catch (IllegalArgumentException e) {
+      ctx.status(400);
+      ctx.json(new ModelErrorResponse(400, "Bad Request", "Invalid budget: " + e.getMessage()));
+      return null;
+    }
+  }
 }
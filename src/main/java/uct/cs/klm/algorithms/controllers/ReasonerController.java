@@ -6,14 +6,25 @@ import uct.cs.klm.algorithms.rational.RationalClosureExplanationService;
 import uct.cs.klm.algorithms.relevant.MinimalRelevantClosureExplanationService;
 import uct.cs.klm.algorithms.relevant.BasicRelevantClosureExplanationService;
 import io.javalin.http.Context;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tweetyproject.logics.pl.syntax.Implication;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.compilation.KnowledgeCompilerFactory;
+import uct.cs.klm.algorithms.enums.Algorithm;
 import uct.cs.klm.algorithms.enums.ReasonerType;
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
 import uct.cs.klm.algorithms.explanation.IJustificationService;
 import uct.cs.klm.algorithms.models.*;
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
 import uct.cs.klm.algorithms.services.*;
 import uct.cs.klm.algorithms.utils.*;
 import uct.cs.klm.algorithms.services.IReasonerService;
@@ -37,7 +48,20 @@ public class ReasonerController {
         ReasonerType reasonerType = ReasonerFactory.createReasonerType(context.pathParam("reasoner"));
         String query = context.pathParam("queryFormula");
 
+        ReasoningBudget budget = toBudget(context);
+        if (budget == null) {
+            return;
+        }
+
         try {
+            // optional ?backend=sat4j|dpll, defaults to Sat4j
+            ISatBackend backend = SatBackendFactory.create(context.queryParam("backend"));
+
+            // optional ?compile=bdd|dnnf, rank suffixes are not compiled by default
+            IKnowledgeCompiler compiler = KnowledgeCompilerFactory.create(context.queryParam("compile"));
+
+            // optional ?algorithm=naive|binary|..., defaults to the reasoner's naive algorithm
+            Algorithm algorithm = ReasonerFactory.createAlgorithm(context.queryParam("algorithm"));
 
             ModelBaseRank baseRankParam = context.bodyAsClass(ModelBaseRank.class);
             ModelBaseRank baseRank = new ModelBaseRank(baseRankParam);
@@ -46,10 +70,16 @@ public class ReasonerController {
             PlFormula queryFormula = parser.parseFormula(query);
             
           
-            IReasonerService reasoner = ReasonerFactory.createEntailment(reasonerType);
-            ModelEntailment entailment = reasoner.getEntailment(baseRank, queryFormula);
+            IReasonerService reasoner = ReasonerFactory.createEntailment(reasonerType, algorithm, backend, compiler);
+            ModelEntailment entailment = reasoner.getEntailment(baseRank, queryFormula, budget);
 
-            IJustificationService justification = ReasonerFactory.createJustification(reasonerType);
+            if (entailment.getStatus() == ReasoningStatus.BudgetExceeded) {
+                context.status(200);
+                context.json(entailment);
+                return;
+            }
+
+            IJustificationService justification = ReasonerFactory.createJustification(reasonerType, backend);
 
             long startTime = System.nanoTime();
             
@@ -57,10 +87,16 @@ public class ReasonerController {
                     entailment.getBaseRanking().getInfinityRank(), 
                     entailment.getEntailmentKnowledgeBaseKb(), 
                     queryFormula,
-                    true);
+                    true,
+                    budget);
             
             double finalTime = ReasonerUtils.ToTimeDifference(startTime, System.nanoTime());
 
+            if (budget.isExceeded()) {
+                entailment.setStatus(ReasoningStatus.BudgetExceeded);
+                entailment.setStatusMessage(budget.getExceededReason());
+            }
+
             entailment.setJustification(justificationKb);
             entailment.setJustificationTime(finalTime);
 
@@ -84,6 +120,112 @@ public class ReasonerController {
         }
     }
 
+    /**
+     * Determines the entailments of many queries on one base rank through the
+     * query planner, so queries sharing an antecedent search for it once.
+     * Justifications are not computed here; they are requested per query.
+     *
+     * @param context The request context.
+     */
+    public static void getEntailments(Context context) {
+
+        ReasonerType reasonerType = ReasonerFactory.createReasonerType(context.pathParam("reasoner"));
+
+        // one budget for all the queries of the request
+        ReasoningBudget budget = toBudget(context);
+        if (budget == null) {
+            return;
+        }
+
+        try {
+            ISatBackend backend = SatBackendFactory.create(context.queryParam("backend"));
+            IKnowledgeCompiler compiler = KnowledgeCompilerFactory.create(context.queryParam("compile"));
+            Algorithm algorithm = ReasonerFactory.createAlgorithm(context.queryParam("algorithm"));
+
+            EntailmentsInput input = context.bodyAsClass(EntailmentsInput.class);
+            ModelBaseRank baseRank = new ModelBaseRank(input.getBaseRank());
+
+            DefeasibleParser parser = new DefeasibleParser();
+            List<PlFormula> queryFormulas = new ArrayList<>();
+            for (String query : input.getQueryFormulas()) {
+                queryFormulas.add(parser.parseFormula(query));
+            }
+
+            IReasonerService reasoner = ReasonerFactory.createEntailment(reasonerType, algorithm, backend, compiler);
+            List<ModelEntailment> entailments = new QueryPlanner(reasoner).getEntailments(baseRank, queryFormulas, budget);
+
+            context.status(200);
+            context.json(entailments);
+
+        } catch (IllegalArgumentException e) {
+            logger.error("An error occurred", e);
+            context.status(400);
+            context.json(new ModelErrorResponse(400, "Bad Request", "Invalid reasoner: " + reasonerType));
+        } catch (Exception e) {
+            logger.error("An error occurred", e);
+            context.status(400);
+            context.json(new ModelErrorResponse(400, "Bad Request", "Invalid query formulas"));
+        }
+    }
+
+    /**
+     * Ranks the antecedents of a log of queries on one base rank ahead of the
+     * queries themselves. The boundaries found are memoised by ranking, so
+     * later requests on the same base rank only check their consequents. A
+     * request whose budget runs out answers with status BudgetExceeded; the
+     * boundaries found before then are memoised all the same.
+     *
+     * @param context The request context.
+     */
+    public static void preRank(Context context) {
+
+        ReasonerType reasonerType = ReasonerFactory.createReasonerType(context.pathParam("reasoner"));
+
+        ReasoningBudget budget = toBudget(context);
+        if (budget == null) {
+            return;
+        }
+
+        try {
+            ISatBackend backend = SatBackendFactory.create(context.queryParam("backend"));
+            Algorithm algorithm = ReasonerFactory.createAlgorithm(context.queryParam("algorithm"));
+
+            EntailmentsInput input = context.bodyAsClass(EntailmentsInput.class);
+            ModelBaseRank baseRank = new ModelBaseRank(input.getBaseRank());
+
+            DefeasibleParser parser = new DefeasibleParser();
+            List<PlFormula> antecedents = new ArrayList<>();
+            for (String query : input.getQueryFormulas()) {
+                antecedents.add(((Implication) parser.parseFormula(query)).getFirstFormula());
+            }
+
+            IReasonerService reasoner = ReasonerFactory.createEntailment(reasonerType, algorithm, backend, null);
+
+            Map<String, Integer> rankNumbers = new LinkedHashMap<>();
+            ModelPreRank preRank;
+
+            try {
+                reasoner.preRank(baseRank, antecedents, budget)
+                        .forEach((antecedent, rankNumber) -> rankNumbers.put(antecedent.toString(), rankNumber));
+                preRank = new ModelPreRank(rankNumbers, ReasoningStatus.Completed, null);
+            } catch (ReasoningBudget.ExceededException e) {
+                preRank = new ModelPreRank(rankNumbers, ReasoningStatus.BudgetExceeded, e.getMessage());
+            }
+
+            context.status(200);
+            context.json(preRank);
+
+        } catch (IllegalArgumentException e) {
+            logger.error("An error occurred", e);
+            context.status(400);
+            context.json(new ModelErrorResponse(400, "Bad Request", "Invalid reasoner: " + reasonerType));
+        } catch (Exception e) {
+            logger.error("An error occurred", e);
+            context.status(400);
+            context.json(new ModelErrorResponse(400, "Bad Request", "Invalid query formulas"));
+        }
+    }
+
     public static void getExplanation(Context context) {
 
         System.out.println();
@@ -119,4 +261,25 @@ public class ReasonerController {
             context.json(new ModelErrorResponse(400, "Bad Request", "Invalid reasoner: " + reasonerType));
         }
     }
+
+    /**
+     * Creates the budget of a request from its optional ?timeoutMs=,
+     * ?maxSatCalls= and ?maxConflicts= parameters, unlimited when absent.
+     *
+     * @param context The request context.
+     * @return The budget, or null once a bad request has been answered.
+     */
+    private static ReasoningBudget toBudget(Context context) {
+
+        try {
+            return ReasoningBudget.parse(
+                    context.queryParam("timeoutMs"),
+                    context.queryParam("maxSatCalls"),
+                    context.queryParam("maxConflicts"));
+        } catch (IllegalArgumentException e) {
+            context.status(400);
+            context.json(new ModelErrorResponse(400, "Bad Request", "Invalid budget: " + e.getMessage()));
+            return null;
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package uct.cs.klm.algorithms.controllers;
+
+import uct.cs.klm.algorithms.models.ModelCacheStatistics;
+import uct.cs.klm.algorithms.sat.EntailmentCache;
+
+import io.javalin.http.Context;
+
+/**
+ * This class represents a statistics controller for the shared reasoner
+ * caches.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public class StatisticsController
+{
+  public static void getEntailmentCacheStatistics(Context ctx) {
+    EntailmentCache cache = EntailmentCache.getShared();
+    ctx.status(200);
+    ctx.json(new ModelCacheStatistics(
+        cache.getHits(),
+        cache.getMisses(),
+        cache.getEvictions(),
+        cache.getHitRate(),
+        cache.getSize()));
+  }
+}
@@ -15,7 +15,11 @@ public enum Algorithm {
     BinaryIndex,
     Ternary,
     TernaryIndex,
+    Parallel,
+    ParallelIndex,
     PowerSet,
     PowerSetCombined,
-    PowerSetSubset
+    PowerSetSubset,
+    MaxSat,
+    Cardinality
 }
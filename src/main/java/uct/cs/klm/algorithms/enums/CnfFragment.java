@@ -0,0 +1,15 @@
+package uct.cs.klm.algorithms.enums;
+
+/**
+ * This enum represents the tractable CNF fragment a clause set falls into.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public enum CnfFragment 
+{
+    Horn,
+    TwoCnf,
+    General
+}
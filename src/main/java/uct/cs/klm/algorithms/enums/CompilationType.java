@@ -0,0 +1,15 @@
+package uct.cs.klm.algorithms.enums;
+
+/**
+ * This enum represents a knowledge compilation engine for rank suffixes.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public enum CompilationType 
+{
+    None,
+    Bdd,
+    Dnnf
+}
@@ -0,0 +1,16 @@
+package uct.cs.klm.algorithms.enums;
+
+/**
+ * This enum represents how the base rank checks the exceptionality of
+ * antecedents: one independent SAT call per antecedent, or assumptions on
+ * one incremental session per construction.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public enum ExceptionalityCheck 
+{
+    Independent,
+    Assumptions
+}
@@ -0,0 +1,14 @@
+package uct.cs.klm.algorithms.enums;
+
+/**
+ * This enum represents the completion status of a reasoning request.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public enum ReasoningStatus 
+{
+    Completed,
+    BudgetExceeded
+}
@@ -0,0 +1,14 @@
+package uct.cs.klm.algorithms.enums;
+
+/**
+ * This enum represents a SAT backend used by the reasoners.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public enum SatBackendType 
+{
+    Sat4j,
+    Dpll
+}
@@ -3,6 +3,7 @@ package uct.cs.klm.algorithms.explanation;
 import java.util.ArrayList;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.ModelRank;
 
 /**
@@ -14,9 +15,24 @@ import uct.cs.klm.algorithms.ranking.ModelRank;
  */
 public interface IJustificationService 
 {   
+    public default ArrayList<KnowledgeBase> computeAllJustifications(     
+            ModelRank infinityRank,
+            KnowledgeBase remainingKnowledgeBase, 
+            PlFormula query,
+            boolean convertDefeasible)
+    {
+        return computeAllJustifications(infinityRank, remainingKnowledgeBase, query, convertDefeasible, ReasoningBudget.unlimited());
+    }
+
+    /**
+     * Computes the justifications within the given budget. If the budget runs
+     * out the justifications found so far are returned and the budget reports
+     * isExceeded().
+     */
     public ArrayList<KnowledgeBase> computeAllJustifications(     
             ModelRank infinityRank,
             KnowledgeBase remainingKnowledgeBase, 
             PlFormula query,
-            boolean convertDefeasible);
+            boolean convertDefeasible,
+            ReasoningBudget budget);
 }
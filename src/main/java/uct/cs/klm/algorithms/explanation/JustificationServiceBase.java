@@ -1,27 +1,27 @@
 package uct.cs.klm.algorithms.explanation;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
-import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.tweetyproject.logics.pl.reasoner.SatReasoner;
-import org.tweetyproject.logics.pl.sat.Sat4jSolver;
-import org.tweetyproject.logics.pl.sat.SatSolver;
 import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
-import org.tweetyproject.logics.pl.syntax.Proposition;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 import uct.cs.klm.algorithms.enums.ReasonerType;
 
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.models.ModelHittingSetTree;
 import uct.cs.klm.algorithms.models.ModelNode;
 import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.sat.CnfSatReasoner;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
+import uct.cs.klm.algorithms.utils.SignatureIndex;
 
 /**
  * This class represents a justification service base for a given query.
@@ -34,11 +34,14 @@ public abstract class JustificationServiceBase {
 
     private static final Logger _logger = LoggerFactory.getLogger(JustificationServiceBase.class);
     
-    protected final SatReasoner _reasoner;
+    protected final CnfSatReasoner _reasoner;
 
     public JustificationServiceBase() {
-        SatSolver.setDefaultSolver(new Sat4jSolver());
-        _reasoner = new SatReasoner();
+        this(SatBackendFactory.getDefault());
+    }
+
+    public JustificationServiceBase(ISatBackend backend) {
+        _reasoner = new CnfSatReasoner(backend);
     }
 
     protected ArrayList<KnowledgeBase> computeAllJustifications(          
@@ -46,7 +49,8 @@ public abstract class JustificationServiceBase {
             ReasonerType reasonerType,
             KnowledgeBase remainingKnowledgeBase,
             PlFormula queryFormula,
-            boolean convertDefeasible) {
+            boolean convertDefeasible,
+            ReasoningBudget budget) {
 
         _logger.debug("");
         _logger.debug(String.format("%s Justifications", reasonerType));
@@ -65,7 +69,13 @@ public abstract class JustificationServiceBase {
         queryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
 
         // Construct root node
-        KnowledgeBase rootJustification = computeSingleJustification(remainingKnowledgeBase, queryFormula);
+        KnowledgeBase rootJustification;
+        try {
+            rootJustification = computeSingleJustification(remainingKnowledgeBase, queryFormula, budget);
+        } catch (ReasoningBudget.ExceededException ex) {
+            _logger.debug(String.format("Budget exceeded: %s", ex.getMessage()));
+            return new ArrayList<>();
+        }
 
         ModelNode rootNode = new ModelNode(remainingKnowledgeBase, rootJustification);
 
@@ -75,22 +85,29 @@ public abstract class JustificationServiceBase {
 
         ModelHittingSetTree tree = new ModelHittingSetTree(rootNode);
 
-        while (!queue.isEmpty()) {
+        try {
+            while (!queue.isEmpty()) {
 
-            ModelNode node = queue.poll();
+                budget.check();
 
-            for (PlFormula formula : node.getJustification()) {
-                KnowledgeBase childKnowledgeBase = ReasonerUtils.removeFormula(node.getKnowledgeBase(), formula);
-                KnowledgeBase childJustification = computeSingleJustification(childKnowledgeBase, queryFormula);
-                ModelNode childNode = new ModelNode(childKnowledgeBase, childJustification);
+                ModelNode node = queue.poll();
 
-                node.addChildNode(formula, childNode);
-                tree.addNode(childNode);
+                for (PlFormula formula : node.getJustification()) {
+                    KnowledgeBase childKnowledgeBase = ReasonerUtils.removeFormula(node.getKnowledgeBase(), formula);
+                    KnowledgeBase childJustification = computeSingleJustification(childKnowledgeBase, queryFormula, budget);
+                    ModelNode childNode = new ModelNode(childKnowledgeBase, childJustification);
 
-                if (childJustification != null && childJustification.isEmpty()) {
-                    queue.add(childNode);
+                    node.addChildNode(formula, childNode);
+                    tree.addNode(childNode);
+
+                    if (childJustification != null && childJustification.isEmpty()) {
+                        queue.add(childNode);
+                    }
                 }
             }
+        } catch (ReasoningBudget.ExceededException ex) {
+            // keep the justifications found so far
+            _logger.debug(String.format("Budget exceeded: %s", ex.getMessage()));
         }
 
         ArrayList<KnowledgeBase> allJustifications = new ArrayList<>();
@@ -130,7 +147,8 @@ public abstract class JustificationServiceBase {
 
     private KnowledgeBase computeSingleJustification(
             KnowledgeBase entailmentKb,
-            PlFormula query) {
+            PlFormula query,
+            ReasoningBudget budget) {
         KnowledgeBase result = new KnowledgeBase();
 
         if (entailmentKb.contains(query)) {
@@ -138,13 +156,13 @@ public abstract class JustificationServiceBase {
             return result;
         }
 
-        result = expandFormulas(entailmentKb, query, _reasoner);
+        result = expandFormulas(entailmentKb, query, _reasoner, budget);
 
         if (result.isEmpty()) {
             return result;
         }
 
-        result = contractFormuls(result, query, _reasoner);
+        result = contractFormuls(result, query, _reasoner, budget);
 
         return result;
     }
@@ -152,87 +170,56 @@ public abstract class JustificationServiceBase {
     private KnowledgeBase expandFormulas(
             KnowledgeBase knowledgeBase,
             PlFormula query,
-            SatReasoner reasoner) {
-        KnowledgeBase result = new KnowledgeBase();
+            CnfSatReasoner reasoner,
+            ReasoningBudget budget) {
 
-        if (!reasoner.query(knowledgeBase, query)) {
+        if (!reasoner.query(knowledgeBase, query, budget)) {
             return new KnowledgeBase();
         }
 
-        KnowledgeBase sPrime = new KnowledgeBase();
-        List<Proposition> sigma = getSignature(query);
-        
-        int counter = 1;
-        _logger.debug(String.format("->Signature for %s:", query));
-         for (Proposition prop : sigma) {
-            _logger.debug(String.format(" %s: %s", counter, prop));
-            counter++;
-        }
+        // grow the formulas by shared atoms, starting from the atoms of the query
+        SignatureIndex index = knowledgeBase.getSignatureIndex();
+        BitSet sigma = index.toAtoms(query);
 
-        while (result != sPrime) {
-            sPrime = result;
-            result = ReasonerUtils.toCombinedKnowledgeBases(result, findRelatedFormulas(sigma, knowledgeBase));
-            PlBeliefSet resultKownledgeBase = new PlBeliefSet(result);
+        _logger.debug(String.format("->Signature for %s: %s of %s atoms", query, sigma.cardinality(), index.getAtomCount()));
 
-            if (reasoner.query(resultKownledgeBase, query)) {
-                return result;
-            }
+        BitSet formulas = index.toRelatedFormulas(sigma);
 
-            sigma = getSignature(result);
-        }
+        while (true) {
 
-        return result;
-    }
-
-    private KnowledgeBase findRelatedFormulas(
-            List<Proposition> signatures,
-            KnowledgeBase knowledgeBase) {
-        KnowledgeBase result = new KnowledgeBase();
+            KnowledgeBase result = index.toKnowledgeBase(formulas);
 
-        for (PlFormula formula : knowledgeBase) {
-            if (!Collections.disjoint(getSignature(formula), signatures)) {
-                result.add(formula);
+            if (reasoner.query(result, query, budget)) {
+                return result;
             }
-        }
-
-        return result;
-    }
 
-    private List<Proposition> getSignature(
-            KnowledgeBase formulas) {
-        List<Proposition> result = new ArrayList<>();
+            BitSet expanded = index.toRelatedFormulas(index.toAtoms(formulas));
+            expanded.or(formulas);
 
-        for (PlFormula formula : formulas) {
-            List<Proposition> signature = getSignature(formula);
-            for (Proposition atom : signature) {
-                if (!result.contains(atom)) {
-                    result.add(atom);
-                }
+            if (expanded.equals(formulas)) {
+                // the atoms reachable from the query do not entail it (e.g. a conflict
+                // over unrelated atoms), so the whole knowledge base is contracted instead
+                return knowledgeBase;
             }
-        }
-        return result;
-    }
 
-    private List<Proposition> getSignature(
-            PlFormula query) {
-        List<Proposition> result = new ArrayList<>();
-        Set<Proposition> atoms = query.getAtoms();
-        result.addAll(atoms);
-        return result;
+            formulas = expanded;
+        }
     }
 
     private KnowledgeBase contractFormuls(
             KnowledgeBase result,
             PlFormula query,
-            SatReasoner reasoner) {
-        return contractRecursive(new KnowledgeBase(), result, query, reasoner);
+            CnfSatReasoner reasoner,
+            ReasoningBudget budget) {
+        return contractRecursive(new KnowledgeBase(), result, query, reasoner, budget);
     }
 
     private KnowledgeBase contractRecursive(
             KnowledgeBase support,
             KnowledgeBase whole,
             PlFormula query,
-            SatReasoner reasoner) {
+            CnfSatReasoner reasoner,
+            ReasoningBudget budget) {
         if (whole.size() == 1) {
             return whole;
         }
@@ -249,16 +236,16 @@ public abstract class JustificationServiceBase {
 
         PlBeliefSet rightKB = new PlBeliefSet(rightUnion);
 
-        if (reasoner.query(leftKB, query)) {
-            return contractRecursive(support, left, query, reasoner);
+        if (reasoner.query(leftKB, query, budget)) {
+            return contractRecursive(support, left, query, reasoner, budget);
         }
-        if (reasoner.query(rightKB, query)) {
-            return contractRecursive(support, right, query, reasoner);
+        if (reasoner.query(rightKB, query, budget)) {
+            return contractRecursive(support, right, query, reasoner, budget);
         }
 
-        KnowledgeBase leftPrime = contractRecursive(rightUnion, left, query, reasoner);
+        KnowledgeBase leftPrime = contractRecursive(rightUnion, left, query, reasoner, budget);
         KnowledgeBase leftPrimeUnion = ReasonerUtils.toCombinedKnowledgeBases(support, leftPrime);
-        KnowledgeBase rightPrime = contractRecursive(leftPrimeUnion, right, query, reasoner);
+        KnowledgeBase rightPrime = contractRecursive(leftPrimeUnion, right, query, reasoner, budget);
 
         return ReasonerUtils.toCombinedKnowledgeBases(leftPrime, rightPrime);
     }
@@ -1,8 +1,5 @@
 package uct.cs.klm.algorithms.generators;
 
-import org.tweetyproject.logics.pl.reasoner.SatReasoner;
-import org.tweetyproject.logics.pl.sat.Sat4jSolver;
-import org.tweetyproject.logics.pl.sat.SatSolver;
 import org.tweetyproject.logics.pl.syntax.Conjunction;
 import org.tweetyproject.logics.pl.syntax.Disjunction;
 import org.tweetyproject.logics.pl.syntax.Implication;
@@ -11,6 +8,9 @@ import org.tweetyproject.logics.pl.syntax.PlFormula;
 import org.tweetyproject.logics.pl.syntax.Proposition;
 
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.sat.CnfSatReasoner;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -30,7 +30,7 @@ public class RandomKnowledgeBaseGenerator {
     
     private final Random random;
     private final List<Proposition> propositions;
-    private final SatReasoner reasoner;
+    private final CnfSatReasoner reasoner;
     
     /**
      * Creates a new generator with a set of propositions using the given symbols.
@@ -38,16 +38,7 @@ public class RandomKnowledgeBaseGenerator {
      * @param propositionSymbols The symbols to use for propositions (e.g., "abcdef")
      */
     public RandomKnowledgeBaseGenerator(String propositionSymbols) {
-        this.random = new Random();
-        this.propositions = new ArrayList<>();
-        
-        for (char c : propositionSymbols.toCharArray()) {
-            propositions.add(new Proposition(String.valueOf(c)));
-        }
-        
-        // Initialize reasoner for consistency checking
-        SatSolver.setDefaultSolver(new Sat4jSolver());
-        this.reasoner = new SatReasoner();
+        this(propositionSymbols, new Random(), SatBackendFactory.getDefault());
     }
     
     /**
@@ -57,7 +48,23 @@ public class RandomKnowledgeBaseGenerator {
      * @param seed The random seed for reproducible generation
      */
     public RandomKnowledgeBaseGenerator(String propositionSymbols, long seed) {
-        this.random = new Random(seed);
+        this(propositionSymbols, new Random(seed), SatBackendFactory.getDefault());
+    }
+    
+    /**
+     * Creates a new generator with a set of propositions using the given symbols, a specific seed
+     * and the SAT backend used for consistency checking.
+     * 
+     * @param propositionSymbols The symbols to use for propositions (e.g., "abcdef")
+     * @param seed The random seed for reproducible generation
+     * @param backend The SAT backend for consistency checking
+     */
+    public RandomKnowledgeBaseGenerator(String propositionSymbols, long seed, ISatBackend backend) {
+        this(propositionSymbols, new Random(seed), backend);
+    }
+    
+    private RandomKnowledgeBaseGenerator(String propositionSymbols, Random random, ISatBackend backend) {
+        this.random = random;
         this.propositions = new ArrayList<>();
         
         for (char c : propositionSymbols.toCharArray()) {
@@ -65,8 +72,7 @@ public class RandomKnowledgeBaseGenerator {
         }
         
         // Initialize reasoner for consistency checking
-        SatSolver.setDefaultSolver(new Sat4jSolver());
-        this.reasoner = new SatReasoner();
+        this.reasoner = new CnfSatReasoner(backend);
     }
     
     /**
@@ -127,14 +133,7 @@ public class RandomKnowledgeBaseGenerator {
             return true;
         }
         
-        // Create a conjunction of all formulas
-        Conjunction conjunction = new Conjunction(new ArrayList<>(formulas));
-        
-        // A set of formulas is consistent if and only if its negation is not a tautology
-        Negation negation = new Negation(conjunction);
-                
-        // Use the reasoner to check if the negation is not a tautology
-        return !reasoner.query(new KnowledgeBase(formulas), negation);
+        return reasoner.isConsistent(formulas);
     }
     
     /**
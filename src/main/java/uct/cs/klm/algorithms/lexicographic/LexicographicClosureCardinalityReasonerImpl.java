@@ -0,0 +1,43 @@
+package uct.cs.klm.algorithms.lexicographic;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.MaxSatSession;
+import uct.cs.klm.algorithms.utils.FormulaSubsetIndex;
+
+/**
+ * This class represents a lexicographic closure reasoner implementation that
+ * binary searches the counts of its MaxSAT search.
+ *
+ * The first consistent powerset maximises, in turn, the number of formulas it
+ * keeps, then of each rank from the most preferred down, then of each run of
+ * one text. Each count is binary searched on a totaliser, with the earlier
+ * counts fixed, which takes at most the logarithm of the number of formulas
+ * counted in SAT calls rather than one per count gained.
+ *
+ * The walk, and so every answer, is that of the MaxSAT variant, which are
+ * those of LexicographicClosureReasonerImpl.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class LexicographicClosureCardinalityReasonerImpl extends LexicographicClosureMaxSatReasonerImpl {
+
+    public LexicographicClosureCardinalityReasonerImpl() {
+        super();
+    }
+
+    public LexicographicClosureCardinalityReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public LexicographicClosureCardinalityReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
+    @Override
+    protected MaxSatSession createSession(FormulaSubsetIndex subsetIndex, PlFormula antecedent) {
+        return new MaxSatSession(subsetIndex, antecedent, _backend, true);
+    }
+}
@@ -0,0 +1,219 @@
+package uct.cs.klm.algorithms.lexicographic;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.models.ModelRankResponse;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.MaxSatSession;
+import uct.cs.klm.algorithms.sat.SubsetSatSession;
+import uct.cs.klm.algorithms.utils.DisplayUtils;
+import uct.cs.klm.algorithms.utils.FormulaSubsetIndex;
+import uct.cs.klm.algorithms.utils.ReasonerUtils;
+import uct.cs.klm.algorithms.utils.Symbols;
+
+/**
+ * This class represents a lexicographic closure reasoner implementation that
+ * finds the powersets to try with a MaxSAT search instead of walking them
+ * all.
+ *
+ * Its answers are those of LexicographicClosureReasonerImpl. That reasoner
+ * tries the powersets in turn, skips those inconsistent with the antecedent,
+ * and stops at the first that entails the query. A consistent powerset that
+ * does not entail the query has no subset that does, so this reasoner asks
+ * the session for the first consistent powerset, blocks its subsets if it
+ * does not entail the query and asks again: every powerset the walk skips
+ * would have been skipped or answered no. The consistent rank is the
+ * position the full walk would have reached, counted by the subset index.
+ * The response lists the powersets tried.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class LexicographicClosureMaxSatReasonerImpl extends LexicographicClosureReasonerImpl {
+
+    private static final Logger _logger = LoggerFactory.getLogger(LexicographicClosureMaxSatReasonerImpl.class);
+
+    public LexicographicClosureMaxSatReasonerImpl() {
+        super();
+    }
+
+    public LexicographicClosureMaxSatReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public LexicographicClosureMaxSatReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
+    @Override
+    public ModelEntailment getEntailment(ModelBaseRank baseRank, PlFormula queryFormula, ReasoningBudget budget) {
+        return getEntailments(baseRank, List.of(queryFormula), budget).get(0);
+    }
+
+    @Override
+    public List<ModelEntailment> getEntailments(ModelBaseRank baseRank, List<? extends PlFormula> queryFormulas, ReasoningBudget budget) {
+
+        // the first consistent powerset is found once per antecedent
+        return toEntailments(
+                baseRank,
+                queryFormulas,
+                ModelLexicographicEntailment.ModelLexicographicEntailmentBuilder::new,
+                queryFormula -> new AntecedentPlan(baseRank, queryFormula),
+                (plan, queryFormula, startTime) -> determineEntailment(plan, baseRank, queryFormula, startTime, budget));
+    }
+
+    /**
+     * Creates the MaxSAT session of an antecedent over the finite ranks.
+     *
+     * @param subsetIndex The index of the formulas of the finite ranks, with
+     * the infinity rank fixed.
+     * @param antecedent The antecedent.
+     * @return The session.
+     */
+    protected MaxSatSession createSession(FormulaSubsetIndex subsetIndex, PlFormula antecedent) {
+        return new MaxSatSession(subsetIndex, antecedent, _backend);
+    }
+
+    private ModelEntailment determineEntailment(
+            AntecedentPlan plan,
+            ModelBaseRank baseRank,
+            PlFormula queryFormula,
+            long startTime,
+            ReasoningBudget budget) {
+
+        _logger.debug("==> Lexicographic Closure MaxSAT Entailment");
+        _logger.debug(String.format("->Query: %s", queryFormula));
+
+        PlFormula materialisedQueryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
+        ModelRank infinityRank = baseRank.getRanking().getInfinityRank();
+        FormulaSubsetIndex subsetIndex = plan.subsetIndex;
+
+        // the position of the infinity rank alone, the last of a walk over every powerset
+        long lastPosition = subsetIndex.toPosition(0L);
+
+        boolean isQueryEntailed = false;
+        long consistentRank;
+        long subset = plan.session.toFirstSubset(budget);
+        List<Long> powersets = new ArrayList<>();
+
+        if (subset == MaxSatSession.NO_SUBSET) {
+
+            DisplayUtils.LogDebug(_logger, "=> No powerset is consistent with the antecedent");
+
+            isQueryEntailed = doesInfinityRankEntailQuery(infinityRank, queryFormula, budget);
+            consistentRank = isQueryEntailed ? lastPosition + 1 : 0;
+        } else {
+
+            long firstPosition = subsetIndex.toPosition(subset);
+            int walk = plan.session.newWalk();
+
+            while (subset != MaxSatSession.NO_SUBSET) {
+
+                budget.check();
+                powersets.add(subset);
+
+                if (_logger.isDebugEnabled()) {
+                    _logger.debug(String.format("=> Powerset %s := %s", subsetIndex.toPosition(subset) + 1, subsetIndex.toFormulas(subset)));
+                }
+
+                isQueryEntailed = query(plan.subsetSession, subset, materialisedQueryFormula, budget);
+
+                if (isQueryEntailed) {
+                    break;
+                }
+
+                _logger.debug("  But the query is not entailed by the remaining statements");
+
+                plan.session.block(walk, subset);
+                subset = plan.session.toFirstSubset(walk, budget);
+            }
+
+            if (isQueryEntailed) {
+
+                // as the walk counts: the full knowledge base first, else one past the powerset
+                long position = subsetIndex.toPosition(subset);
+                consistentRank = position == 0 || position == lastPosition ? position + 1 : position + 2;
+            } else {
+
+                // the walk ends on the infinity rank alone
+                consistentRank = firstPosition == lastPosition ? 0 : firstPosition + 1;
+                subset = 0L;
+            }
+        }
+
+        KnowledgeBase materialisedKb;
+        ModelRankCollection remainingRanking;
+        ModelRankCollection removedRanking;
+
+        if (subset == MaxSatSession.NO_SUBSET) {
+            materialisedKb = infinityRank.getFormulas();
+            remainingRanking = new ModelRankCollection(infinityRank);
+            removedRanking = baseRank.getRanking().getRankingCollectonExcept(Symbols.INFINITY_RANK_NUMBER);
+        } else {
+            materialisedKb = subsetIndex.toMaterialisedKnowledgeBase(subset);
+            remainingRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, materialisedKb, false);
+            removedRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, remainingRanking.getKnowledgeBase(), true);
+        }
+
+        if (isQueryEntailed) {
+            _logger.debug(String.format("-> Entailment:YES : %s entails %s", materialisedKb, queryFormula));
+        } else {
+            _logger.debug(String.format("-> Entailment:NO : %s does not entail %s", materialisedKb, queryFormula));
+        }
+
+        ArrayList<ModelRankResponse> powersetRanking = ReasonerUtils.toResponseRanks(
+                baseRank,
+                subsetIndex,
+                powersets.stream().mapToLong(Long::longValue).toArray());
+
+        var finalTime = ReasonerUtils.ToTimeDifference(startTime, System.nanoTime());
+
+        return new ModelLexicographicEntailment.ModelLexicographicEntailmentBuilder()
+                .withKnowledgeBase(baseRank.getKnowledgeBaseKb())
+                .withQueryFormula(queryFormula)
+                .withBaseRanking(baseRank.getRanking())
+                .withRemovedRanking(removedRanking)
+                .withConsistentRank((int) Math.min(consistentRank, Integer.MAX_VALUE))
+                .withRemainingRanking(remainingRanking)
+                .withWeakenedRanking(new ModelRankCollection())
+                .withPowersetRanking(powersetRanking)
+                .withEntailmentKnowledgeBase(remainingRanking.getKnowledgeBase())
+                .withEntailed(isQueryEntailed)
+                .withTimeTaken(finalTime)
+                .build();
+    }
+
+    /**
+     * The part of a query that depends only on its antecedent: the powersets,
+     * the session that finds the consistent ones and the session that checks
+     * them.
+     */
+    private final class AntecedentPlan {
+
+        private final FormulaSubsetIndex subsetIndex;
+        private final MaxSatSession session;
+        private final SubsetSatSession subsetSession;
+
+        AntecedentPlan(ModelBaseRank baseRank, PlFormula queryFormula) {
+
+            subsetIndex = new FormulaSubsetIndex(
+                    baseRank.getRanking().getRankingCollectonExceptInfinity(),
+                    baseRank.getRanking().getInfinityRank().getFormulas());
+
+            session = createSession(subsetIndex, ((Implication) queryFormula).getFirstFormula());
+            subsetSession = new SubsetSatSession(subsetIndex, _backend);
+        }
+    }
+}
@@ -3,16 +3,21 @@ package uct.cs.klm.algorithms.lexicographic;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.PrimitiveIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.tweetyproject.logics.pl.syntax.Implication;
-import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.models.*;
 import uct.cs.klm.algorithms.ranking.ModelRank;
 import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SubsetSatSession;
+import uct.cs.klm.algorithms.services.AntecedentChecks;
 import uct.cs.klm.algorithms.services.IReasonerService;
 import uct.cs.klm.algorithms.services.KlmReasonerBase;
 import uct.cs.klm.algorithms.utils.*;
@@ -29,45 +34,68 @@ public class LexicographicClosureReasonerImpl extends KlmReasonerBase implements
 
     private static final Logger _logger = LoggerFactory.getLogger(LexicographicClosureReasonerImpl.class);
 
+    // the response lists every powerset only up to this many ranked formulas
+    private static final int MAX_LISTED_FORMULAS = 12;
+
     public LexicographicClosureReasonerImpl() {
         super();
     }
 
+    public LexicographicClosureReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public LexicographicClosureReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
     @Override
-    public ModelEntailment getEntailment(ModelBaseRank baseRank, PlFormula queryFormula) {
+    public ModelEntailment getEntailment(ModelBaseRank baseRank, PlFormula queryFormula, ReasoningBudget budget) {
+        return getEntailments(baseRank, List.of(queryFormula), budget).get(0);
+    }
 
-        _logger.debug("==> Lexicographic Closure Entailment");
+    @Override
+    public List<ModelEntailment> getEntailments(ModelBaseRank baseRank, List<? extends PlFormula> queryFormulas, ReasoningBudget budget) {
+
+        // each powerset is checked against the negation of an antecedent once
+        return toEntailments(
+                baseRank,
+                queryFormulas,
+                ModelLexicographicEntailment.ModelLexicographicEntailmentBuilder::new,
+                queryFormula -> new AntecedentPlan(baseRank, queryFormula, _backend),
+                (plan, queryFormula, startTime) -> determineEntailment(plan, baseRank, queryFormula, startTime, budget));
+    }
 
-        long startTime = System.nanoTime();
+    private ModelEntailment determineEntailment(AntecedentPlan plan, ModelBaseRank baseRank, PlFormula queryFormula, long startTime, ReasoningBudget budget) {
 
-        PlFormula negationOfAntecedent = new Negation(((Implication) queryFormula).getFirstFormula());
-        PlFormula materialisedQueryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
+        _logger.debug("==> Lexicographic Closure Entailment");
 
-        ModelRankCollection baseRankCollection = new ModelRankCollection(baseRank.getRanking().clone());
-        Collections.sort(baseRankCollection, (o1, o2) -> Integer.compare(o1.getRankNumber(), o2.getRankNumber()));
+        PlFormula negationOfAntecedent = plan.negationOfAntecedent;
+        PlFormula materialisedQueryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
 
-        ModelRankCollection relevantRanking = baseRank.getRanking().getRankingCollectonExceptInfinity();
-        ModelRank nonRelevantRanking = baseRank.getRanking().getInfinityRank();
-        List<KnowledgeBase> relevantPowersets = ReasonerUtils.toPowerSetOrdered(relevantRanking);
-        relevantPowersets.add(baseRank.getRanking().getInfinityRank().getFormulas());
+        FormulaSubsetIndex subsetIndex = plan.subsetIndex;
+        SubsetSatSession subsetSession = plan.subsetSession;
 
         _logger.debug(String.format("->Query: %s", queryFormula));
         _logger.debug(String.format("->Query Antecedent Negation: %s", negationOfAntecedent));
 
-        var materialisedKb = ReasonerUtils.toMaterialisedKnowledgeBase(baseRankCollection);
+        var materialisedKb = plan.materialisedKb;
 
         _logger.debug(String.format("-> Checking if full KB is consistent with query %s", materialisedKb));
 
         int consistentRank = 1;
         boolean continueProcessing = true;
         boolean isQueryEntailed = false;
-        boolean isNegationEntailed = _reasoner.query(materialisedKb, negationOfAntecedent);
+
+        // position 0 is the full KB, position p + 1 the p-th powerset
+        boolean isNegationEntailed = plan.negationChecks.isEntailed(0,
+                () -> query(plan.materialisedKb, negationOfAntecedent, budget));
 
         if (isNegationEntailed) {
             DisplayUtils.LogDebug(_logger, String.format("=> YES - NegationOfAntecedent:Entailed; We skip and consider the relevant subsets"));
         } else {
             _logger.debug("  NOT - NegationOfAntecedent:Entailed; We checking if materialisedKB entails query");
-            isQueryEntailed = _reasoner.query(materialisedKb, materialisedQueryFormula);
+            isQueryEntailed = query(materialisedKb, materialisedQueryFormula, budget);
 
             if (isQueryEntailed) {
                 continueProcessing = false;
@@ -82,15 +110,29 @@ public class LexicographicClosureReasonerImpl extends KlmReasonerBase implements
                     baseRank,
                     queryFormula,
                     materialisedKb,
-                    relevantPowersets,
+                    subsetIndex,
+                    0,
                     consistentRank,
                     isQueryEntailed,
-                    startTime);
+                    startTime,
+                    budget);
         }
 
         consistentRank = 0;
         int nonEntailmentRank = -1;
-        for (KnowledgeBase powerKb : relevantPowersets) {
+        long lastSubset = 0L;
+        int lastPosition = 0;
+
+        // the subsets are made as they are reached, so stopping early skips the rest
+        PrimitiveIterator.OfLong orderedSubsets = subsetIndex.orderedSubsets();
+
+        // after the last subset, the infinity rank alone
+        boolean isInfinityRankReached = false;
+
+        for (int position = 0; !isInfinityRankReached; position++) {
+
+            isInfinityRankReached = !orderedSubsets.hasNext();
+            long subset = isInfinityRankReached ? 0L : orderedSubsets.nextLong();
 
             consistentRank++;
 
@@ -98,21 +140,23 @@ public class LexicographicClosureReasonerImpl extends KlmReasonerBase implements
                 break;
             }
 
-            DisplayUtils.LogDebug(_logger, String.format("=> Powerset %s := %s", consistentRank, powerKb));
-
-            var combinedKb = ReasonerUtils.toCombinedKnowledgeBases(nonRelevantRanking.getFormulas(), powerKb);
+            budget.check();
 
-            materialisedKb = ReasonerUtils.toMaterialisedKnowledgeBase(combinedKb);
+            lastSubset = subset;
+            lastPosition = position;
 
-            DisplayUtils.LogDebug(_logger, String.format("=> Materialised KB: %s := %s", consistentRank, materialisedKb));
+            if (_logger.isDebugEnabled()) {
+                _logger.debug(String.format("=> Powerset %s := %s", consistentRank, subsetIndex.toFormulas(subset)));
+            }
 
-            isNegationEntailed = _reasoner.query(materialisedKb, negationOfAntecedent);
+            isNegationEntailed = plan.negationChecks.isEntailed(position + 1,
+                    () -> query(subsetSession, subset, negationOfAntecedent, budget));
 
             if (isNegationEntailed) {
-                DisplayUtils.LogDebug(_logger, String.format("=> YES - NegationOfAntecedent:Entailed; We skip and move next subset: %s := %s", consistentRank, powerKb));
+                DisplayUtils.LogDebug(_logger, String.format("=> YES - NegationOfAntecedent:Entailed; We skip and move next subset: %s", consistentRank));
             } else {
                 _logger.debug("  NOT - NegationOfAntecedent:Entailed; We checking if materialisedKB entails query");
-                isQueryEntailed = _reasoner.query(materialisedKb, materialisedQueryFormula);
+                isQueryEntailed = query(subsetSession, subset, materialisedQueryFormula, budget);
                 if (isQueryEntailed) {
                     continueProcessing = false;
                 } else {
@@ -130,38 +174,92 @@ public class LexicographicClosureReasonerImpl extends KlmReasonerBase implements
             consistentRank = nonEntailmentRank;
         }
 
+        // only the last subset tried is turned back into a knowledge base
+        materialisedKb = subsetIndex.toMaterialisedKnowledgeBase(lastSubset);
+
         return CreateResponse(
                 baseRank,
                 queryFormula,
                 materialisedKb,
-                relevantPowersets,
+                subsetIndex,
+                lastPosition,
                 consistentRank,
                 isQueryEntailed,
-                startTime);
+                startTime,
+                budget);
+
+    }
+
+    /**
+     * The part of a query that depends only on its antecedent: the powersets
+     * to try and the checks of the negated antecedent against them.
+     */
+    private static final class AntecedentPlan {
+
+        private final PlFormula negationOfAntecedent;
+        private final FormulaSubsetIndex subsetIndex;
+        private final SubsetSatSession subsetSession;
+        private final KnowledgeBase materialisedKb;
+        private final AntecedentChecks negationChecks = new AntecedentChecks();
+
+        AntecedentPlan(ModelBaseRank baseRank, PlFormula queryFormula, ISatBackend backend) {
+
+            negationOfAntecedent = ReasonerUtils.toNegatedFormula(((Implication) queryFormula).getFirstFormula());
+
+            ModelRankCollection baseRankCollection = new ModelRankCollection(baseRank.getRanking().clone());
+            Collections.sort(baseRankCollection, (o1, o2) -> Integer.compare(o1.getRankNumber(), o2.getRankNumber()));
+
+            ModelRankCollection relevantRanking = baseRank.getRanking().getRankingCollectonExceptInfinity();
+            ModelRank nonRelevantRanking = baseRank.getRanking().getInfinityRank();
 
+            // every subset of the finite ranks with the infinity rank, ending with the infinity rank alone
+            subsetIndex = new FormulaSubsetIndex(relevantRanking, nonRelevantRanking.getFormulas());
+            subsetSession = new SubsetSatSession(subsetIndex, backend);
+
+            materialisedKb = ReasonerUtils.toMaterialisedKnowledgeBase(baseRankCollection);
+        }
+    }
+
+    // every powerset of a small ranking; of a larger one those up to the last one tried
+    private static long[] toListedPowersets(FormulaSubsetIndex subsetIndex, int lastPosition) {
+
+        int listedCount = subsetIndex.size() <= MAX_LISTED_FORMULAS ? subsetIndex.getSubsetCount() + 1 : lastPosition + 1;
+
+        // a zero after the last subset is the infinity rank alone
+        long[] powersets = new long[listedCount];
+
+        PrimitiveIterator.OfLong orderedSubsets = subsetIndex.orderedSubsets();
+        for (int position = 0; position < listedCount && orderedSubsets.hasNext(); position++) {
+            powersets[position] = orderedSubsets.nextLong();
+        }
+
+        return powersets;
     }
 
     private ModelEntailment CreateResponse(
             ModelBaseRank baseRank,
             PlFormula queryFormula,
             KnowledgeBase materialisedKb,
-            List<KnowledgeBase> powersets,
+            FormulaSubsetIndex subsetIndex,
+            int lastPosition,
             int consistentRank,
             boolean isQueryEntailed,
-            long startTime) {
+            long startTime,
+            ReasoningBudget budget) {
 
         ModelRankCollection remainingRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, materialisedKb, false);
         ModelRankCollection removedRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, remainingRanking.getKnowledgeBase(), true);
 
         if (!isQueryEntailed) {
             var infinityRank = baseRank.getRanking().clone().getInfinityRank();
-            isQueryEntailed = doesInfinityRankEntailQuery(infinityRank, queryFormula);
+            isQueryEntailed = doesInfinityRankEntailQuery(infinityRank, queryFormula, budget);
 
             DisplayUtils.LogDebug(_logger, String.format("=> Checking the Infinity Rank entails the query"));
             DisplayUtils.LogDebug(_logger, String.format("=> Infinity KB := %s", infinityRank.getFormulas()));
 
+            // a query left unentailed tried every powerset, the infinity rank alone last
             if (isQueryEntailed) {
-                consistentRank = powersets.size();
+                consistentRank = lastPosition + 1;
                 remainingRanking = new ModelRankCollection(infinityRank);
                 removedRanking = baseRank.getRanking().getRankingCollectonExcept(Symbols.INFINITY_RANK_NUMBER);
                 
@@ -171,7 +269,7 @@ public class LexicographicClosureReasonerImpl extends KlmReasonerBase implements
                 DisplayUtils.LogDebug(_logger, String.format("=> RemainingRanking := %s", remainingRanking.getKnowledgeBase()));
                 DisplayUtils.LogDebug(_logger, String.format("=> RemovedRanking := %s", removedRanking.getKnowledgeBase()));
             } else {
-                if (consistentRank == powersets.size()) {
+                if (consistentRank == lastPosition + 1) {
                     consistentRank = 0;
                 }
             }
@@ -183,7 +281,10 @@ public class LexicographicClosureReasonerImpl extends KlmReasonerBase implements
             _logger.debug(String.format("-> Entailment:NO : %s does not entail %s", materialisedKb, queryFormula));
         }
 
-        ArrayList<ModelRankResponse> powersetRanking = ReasonerUtils.toResponseRanks(baseRank, powersets);
+        ArrayList<ModelRankResponse> powersetRanking = ReasonerUtils.toResponseRanks(
+                baseRank,
+                subsetIndex,
+                toListedPowersets(subsetIndex, lastPosition));
 
         var finalTime = ReasonerUtils.ToTimeDifference(startTime, System.nanoTime());
 
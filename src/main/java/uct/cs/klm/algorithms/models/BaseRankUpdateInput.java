@@ -0,0 +1,48 @@
+package uct.cs.klm.algorithms.models;
+
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+
+/**
+ * This class models a base rank update input: a previous base rank and the
+ * formulas added to and removed from its knowledge base.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class BaseRankUpdateInput {
+    private ModelBaseRank baseRank;
+    private KnowledgeBase added;
+    private KnowledgeBase removed;
+
+    public BaseRankUpdateInput() {}
+
+    public BaseRankUpdateInput(ModelBaseRank baseRank, KnowledgeBase added, KnowledgeBase removed) {
+        this.baseRank = baseRank;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    public ModelBaseRank getBaseRank() {
+        return baseRank;
+    }
+
+    public void setBaseRank(ModelBaseRank baseRank) {
+        this.baseRank = baseRank;
+    }
+
+    public KnowledgeBase getAdded() {
+        return added;
+    }
+
+    public void setAdded(KnowledgeBase added) {
+        this.added = added;
+    }
+
+    public KnowledgeBase getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(KnowledgeBase removed) {
+        this.removed = removed;
+    }
+}
@@ -0,0 +1,41 @@
+package uct.cs.klm.algorithms.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+
+/**
+ * This class models an entailments input: a base rank and the queries to
+ * determine against it.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class EntailmentsInput {
+    private ModelBaseRank baseRank;
+    private List<String> queryFormulas = new ArrayList<>();
+
+    public EntailmentsInput() {}
+
+    public EntailmentsInput(ModelBaseRank baseRank, List<String> queryFormulas) {
+        this.baseRank = baseRank;
+        this.queryFormulas = queryFormulas;
+    }
+
+    public ModelBaseRank getBaseRank() {
+        return baseRank;
+    }
+
+    public void setBaseRank(ModelBaseRank baseRank) {
+        this.baseRank = baseRank;
+    }
+
+    public List<String> getQueryFormulas() {
+        return queryFormulas;
+    }
+
+    public void setQueryFormulas(List<String> queryFormulas) {
+        this.queryFormulas = queryFormulas;
+    }
+}
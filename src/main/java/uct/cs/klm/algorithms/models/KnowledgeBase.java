@@ -1,6 +1,9 @@
 package uct.cs.klm.algorithms.models;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -8,7 +11,10 @@ import org.tweetyproject.logics.pl.syntax.Implication;
 import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.utils.Fingerprint;
+import uct.cs.klm.algorithms.utils.FormulaTwins;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
+import uct.cs.klm.algorithms.utils.SignatureIndex;
 
 /**
  * This class represents a defeasible knowledge base of propositional formulae.
@@ -19,6 +25,13 @@ import uct.cs.klm.algorithms.utils.ReasonerUtils;
  */
 public class KnowledgeBase extends PlBeliefSet {
 
+    // built on first use and dropped by every change made through this class
+    private volatile SignatureIndex _signatureIndex;
+    private volatile Set<PlFormula> _materialisedView;
+
+    // kept up to date by single adds and removes; rebuilt on first use after any other change
+    private volatile Fingerprint _fingerprint;
+
     /**
      * Creates new (empty) knowledge base.
      */
@@ -39,25 +52,184 @@ public class KnowledgeBase extends PlBeliefSet {
         this(knowledgeBase.formulas);
     }
 
+    /**
+     * Gets a read-only view of the formulas of this knowledge base. Every
+     * change goes through the methods of this class, which keep the cached
+     * index, view and fingerprint up to date.
+     *
+     * @return The formulas.
+     */
     public Set<PlFormula> getFormulas() {
-        return this.formulas;
+        return Collections.unmodifiableSet(this.formulas);
+    }
+
+    /**
+     * Gets the atom to formula index of this knowledge base, building it on
+     * first use after a change.
+     *
+     * @return The signature index.
+     */
+    public SignatureIndex getSignatureIndex() {
+
+        SignatureIndex index = _signatureIndex;
+
+        if (index == null) {
+            index = new SignatureIndex(this.formulas);
+            _signatureIndex = index;
+        }
+
+        return index;
+    }
+
+    /**
+     * Gets the materialisation of this knowledge base as a read-only set,
+     * building it on first use after a change. The formulas are the memoised
+     * twins of FormulaTwins, so views of knowledge bases holding the same
+     * formula instances share their materialised instances.
+     *
+     * @return The materialised view.
+     */
+    public Set<PlFormula> getMaterialisedView() {
+
+        Set<PlFormula> view = _materialisedView;
+
+        if (view == null) {
+
+            Set<PlFormula> materialised = new LinkedHashSet<>();
+
+            for (PlFormula formula : this.formulas) {
+                materialised.add(FormulaTwins.materialise(formula));
+            }
+
+            view = Collections.unmodifiableSet(materialised);
+            _materialisedView = view;
+        }
+
+        return view;
+    }
+
+    /**
+     * Gets the canonical fingerprint of this knowledge base, which does not
+     * depend on the order, whitespace or parenthesisation of its formulas.
+     * Two knowledge bases with the same formulas have the same fingerprint.
+     *
+     * @return The fingerprint.
+     */
+    public Fingerprint getFingerprint() {
+
+        Fingerprint fingerprint = _fingerprint;
+
+        if (fingerprint == null) {
+            fingerprint = Fingerprint.of(this.formulas);
+            _fingerprint = fingerprint;
+        }
+
+        return fingerprint;
+    }
+
+    @Override
+    public Iterator<PlFormula> iterator() {
+
+        Iterator<PlFormula> iterator = super.iterator();
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public PlFormula next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                invalidate();
+                _fingerprint = null;
+                iterator.remove();
+            }
+        };
+    }
+
+    @Override
+    public boolean add(PlFormula formula) {
+        invalidate();
+
+        boolean isAdded = super.add(formula);
+        if (isAdded) {
+            added(formula);
+        }
+
+        return isAdded;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends PlFormula> formulas) {
+        invalidate();
+        _fingerprint = null;
+        return super.addAll(formulas);
+    }
+
+    @Override
+    public boolean remove(Object formula) {
+        invalidate();
+
+        boolean isRemoved = super.remove(formula);
+        if (isRemoved) {
+            removed(formula);
+        }
+
+        return isRemoved;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> formulas) {
+        invalidate();
+        _fingerprint = null;
+        return super.removeAll(formulas);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> formulas) {
+        invalidate();
+        _fingerprint = null;
+        return super.retainAll(formulas);
+    }
+
+    @Override
+    public void clear() {
+        invalidate();
+        _fingerprint = null;
+        super.clear();
     }
 
     public boolean removeFormula(PlFormula formula) {
 
+        invalidate();
+
         if (this.formulas.isEmpty()) {
             return true;
         }
 
         if (this.formulas.remove(formula)) {
+            removed(formula);
+            return true;
+        }
+
+        PlFormula materialised = ReasonerUtils.toMaterialisedFormula(formula);
+        if (this.formulas.remove(materialised)) {
+            removed(materialised);
             return true;
         }
 
-        if (this.formulas.remove(ReasonerUtils.toMaterialisedFormula(formula))) {
+        PlFormula dematerialised = ReasonerUtils.toDematerialisedFormula(formula);
+        if (this.formulas.remove(dematerialised)) {
+            removed(dematerialised);
             return true;
         }
 
-        return this.formulas.remove(ReasonerUtils.toDematerialisedFormula(formula));
+        return false;
     }
 
     public void addKnowledgeBase(KnowledgeBase knowledgeBase) {
@@ -137,15 +309,7 @@ public class KnowledgeBase extends PlBeliefSet {
     }
 
     public KnowledgeBase materialisedKnowledgeBase() {
-        KnowledgeBase result = new KnowledgeBase();
-        this.forEach(formula -> {
-            if (formula instanceof DefeasibleImplication defeasibleImplication) {
-                result.add(new Implication(defeasibleImplication.getFormulas()));
-            } else {
-                result.add(formula);
-            }
-        });
-        return result;
+        return new KnowledgeBase(getMaterialisedView());
     }
 
     /**
@@ -203,19 +367,45 @@ public class KnowledgeBase extends PlBeliefSet {
     }
 
     public boolean remove(PlFormula formula) {
-        return this.formulas.remove(formula);
+        invalidate();
+
+        boolean isRemoved = this.formulas.remove(formula);
+        if (isRemoved) {
+            removed(formula);
+        }
+
+        return isRemoved;
     }
 
     public void removeAll(KnowledgeBase knowledgeBase) {
 
-        KnowledgeBase result = new KnowledgeBase(this);
+        invalidate();
 
         for (PlFormula formula : knowledgeBase) {
-            this.formulas.remove(formula);
+            if (this.formulas.remove(formula)) {
+                removed(formula);
+            }
         }
     }
 
     public void removeAll(ModelRank rank) {
         removeAll(rank.getFormulas());
     }
+
+    private void invalidate() {
+        _signatureIndex = null;
+        _materialisedView = null;
+    }
+
+    private void added(PlFormula formula) {
+        if (_fingerprint != null) {
+            _fingerprint = _fingerprint.plus(Fingerprint.of(formula));
+        }
+    }
+
+    private void removed(Object formula) {
+        if (_fingerprint != null) {
+            _fingerprint = _fingerprint.minus(Fingerprint.of((PlFormula) formula));
+        }
+    }
 }
@@ -0,0 +1,3 @@
+package uct.cs.klm.algorithms.models;
+
+public record ModelCacheStatistics(long hits, long misses, long evictions, double hitRate, int size) {}
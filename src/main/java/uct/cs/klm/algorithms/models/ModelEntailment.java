@@ -7,6 +7,7 @@ import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 
 import java.util.*;
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
 
 /**
@@ -37,6 +38,10 @@ public abstract class ModelEntailment {
     protected ArrayList<KnowledgeBase> _relevantJustification;
     protected int _consistentRank;
 
+    protected ReasoningStatus _status = ReasoningStatus.Completed;
+    protected String _statusMessage;
+    protected Double _modelSupport;
+
     public ModelEntailment() {
     }
 
@@ -56,6 +61,9 @@ public abstract class ModelEntailment {
         _consistentRank = builder._consistentRank;
         _relevantKnowledgeBase = builder._relevantKnowledgeBase;
         _relevantJustification = builder._relevantJustification;
+        _status = builder._status;
+        _statusMessage = builder._statusMessage;
+        _modelSupport = builder._modelSupport;
     }
 
     public ArrayList<String> getKnowledgeBase() {
@@ -264,6 +272,32 @@ public abstract class ModelEntailment {
         return _timeTaken;
     }
 
+    public ReasoningStatus getStatus() {
+        return _status;
+    }
+
+    public void setStatus(ReasoningStatus status) {
+        _status = status;
+    }
+
+    public String getStatusMessage() {
+        return _statusMessage;
+    }
+
+    public void setStatusMessage(String statusMessage) {
+        _statusMessage = statusMessage;
+    }
+
+    /**
+     * Gets the share of the models of the deciding knowledge base that satisfy
+     * the query, when a model counting compiler was used.
+     *
+     * @return The share in [0, 1], or null if it was not computed.
+     */
+    public Double getModelSupport() {
+        return _modelSupport;
+    }
+
     // Builder for ModelEntailment
     public static abstract class EntailmentBuilder<T extends EntailmentBuilder<T>> {
 
@@ -282,6 +316,9 @@ public abstract class ModelEntailment {
         private ArrayList<ModelRankResponse> _powersetRanking;
         private KnowledgeBase _relevantKnowledgeBase;
         private ArrayList<KnowledgeBase> _relevantJustification;
+        private ReasoningStatus _status = ReasoningStatus.Completed;
+        private String _statusMessage;
+        private Double _modelSupport;
 
         public T withRemovedRanking(ModelRankCollection removedRanking) {
 
@@ -373,6 +410,21 @@ public abstract class ModelEntailment {
             return self();
         }
 
+        public T withStatus(ReasoningStatus status) {
+            _status = status;
+            return self();
+        }
+
+        public T withStatusMessage(String statusMessage) {
+            _statusMessage = statusMessage;
+            return self();
+        }
+
+        public T withModelSupport(Double modelSupport) {
+            _modelSupport = modelSupport;
+            return self();
+        }
+
         protected abstract T self();
 
         public abstract ModelEntailment build();
@@ -0,0 +1,12 @@
+package uct.cs.klm.algorithms.models;
+
+import java.util.Map;
+
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
+
+/**
+ * This record represents the response of a pre-ranking request: the rank
+ * number of the lowest rank kept by each antecedent ranked, with the status of
+ * the request as on an entailment.
+ */
+public record ModelPreRank(Map<String, Integer> rankNumbers, ReasoningStatus status, String statusMessage) {}
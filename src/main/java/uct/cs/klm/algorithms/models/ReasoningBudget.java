@@ -0,0 +1,190 @@
+package uct.cs.klm.algorithms.models;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class represents the resource budget of a single reasoning request: a
+ * wall-clock deadline, a maximum number of SAT calls and a maximum number of
+ * solver conflicts.
+ *
+ * SAT calls and enumeration loops charge the budget cooperatively. Once a
+ * limit is hit the budget stays exceeded and the next charge unwinds with an
+ * ExceededException, which the services turn into a result with status
+ * BudgetExceeded. The counters are atomic, so one budget can be shared by
+ * parallel workers of the same request.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class ReasoningBudget {
+
+    private final long _deadlineNanos;
+    private final long _maxSatCalls;
+    private final long _maxConflicts;
+
+    private final AtomicLong _satCalls = new AtomicLong();
+    private final AtomicLong _conflicts = new AtomicLong();
+
+    private volatile String _exceededReason = null;
+
+    /**
+     * Creates a budget; a limit of zero or less means no limit.
+     *
+     * @param timeoutMillis The wall-clock time allowed from now.
+     * @param maxSatCalls The maximum number of SAT calls.
+     * @param maxConflicts The maximum number of solver conflicts.
+     */
+    public ReasoningBudget(long timeoutMillis, long maxSatCalls, long maxConflicts) {
+        _deadlineNanos = timeoutMillis > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis)
+                : Long.MAX_VALUE;
+        _maxSatCalls = maxSatCalls > 0 ? maxSatCalls : Long.MAX_VALUE;
+        _maxConflicts = maxConflicts > 0 ? maxConflicts : Long.MAX_VALUE;
+    }
+
+    public static ReasoningBudget unlimited() {
+        return new ReasoningBudget(0, 0, 0);
+    }
+
+    /**
+     * Creates a budget from optional request parameters.
+     *
+     * @param timeoutMillis The time limit in milliseconds, or null.
+     * @param maxSatCalls The SAT call limit, or null.
+     * @param maxConflicts The conflict limit, or null.
+     * @return The budget.
+     * @throws IllegalArgumentException If a limit is not a whole number of
+     * zero or more.
+     */
+    public static ReasoningBudget parse(String timeoutMillis, String maxSatCalls, String maxConflicts) {
+        return new ReasoningBudget(
+                toLimit("timeoutMs", timeoutMillis),
+                toLimit("maxSatCalls", maxSatCalls),
+                toLimit("maxConflicts", maxConflicts));
+    }
+
+    /**
+     * Records one SAT call, failing if a limit has been reached.
+     */
+    public void chargeSatCall() {
+        check();
+        if (_satCalls.incrementAndGet() > _maxSatCalls) {
+            exceed(String.format("SAT call limit of %d reached", _maxSatCalls));
+        }
+    }
+
+    /**
+     * Records one solver conflict, failing if a limit has been reached.
+     */
+    public void chargeConflict() {
+        if (_conflicts.incrementAndGet() > _maxConflicts) {
+            exceed(String.format("Conflict limit of %d reached", _maxConflicts));
+        }
+        check();
+    }
+
+    /**
+     * Records the conflicts of a solver that reports them per call, failing
+     * if a limit has been reached.
+     *
+     * @param count The number of conflicts.
+     */
+    public void chargeConflicts(long count) {
+        if (_conflicts.addAndGet(count) > _maxConflicts) {
+            exceed(String.format("Conflict limit of %d reached", _maxConflicts));
+        }
+        check();
+    }
+
+    /**
+     * Fails if the budget is exceeded or the deadline has passed.
+     */
+    public void check() {
+
+        String reason = _exceededReason;
+        if (reason != null) {
+            throw new ExceededException(reason);
+        }
+
+        if (_deadlineNanos != Long.MAX_VALUE && System.nanoTime() > _deadlineNanos) {
+            exceed("Time limit reached");
+        }
+    }
+
+    /**
+     * Marks the budget as exceeded and unwinds.
+     *
+     * @param reason The limit that was hit.
+     */
+    public void exceed(String reason) {
+        if (_exceededReason == null) {
+            _exceededReason = reason;
+        }
+        throw new ExceededException(_exceededReason);
+    }
+
+    public boolean isExceeded() {
+        return _exceededReason != null;
+    }
+
+    public String getExceededReason() {
+        return _exceededReason;
+    }
+
+    public boolean hasConflictLimit() {
+        return _maxConflicts != Long.MAX_VALUE;
+    }
+
+    public boolean hasDeadline() {
+        return _deadlineNanos != Long.MAX_VALUE;
+    }
+
+    public long getRemainingConflicts() {
+        return Math.max(0, _maxConflicts - _conflicts.get());
+    }
+
+    public long getRemainingMillis() {
+        return hasDeadline()
+                ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(_deadlineNanos - System.nanoTime()))
+                : Long.MAX_VALUE;
+    }
+
+    public long getSatCalls() {
+        return _satCalls.get();
+    }
+
+    public long getConflicts() {
+        return _conflicts.get();
+    }
+
+    private static long toLimit(String name, String value) {
+
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+
+        try {
+            long limit = Long.parseLong(value.trim());
+            if (limit >= 0) {
+                return limit;
+            }
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+
+        throw new IllegalArgumentException(String.format("%s must be a whole number of zero or more, not '%s'", name, value));
+    }
+
+    /**
+     * Thrown by a charge once the budget is exceeded; caught at the service
+     * boundary and never surfaced to clients.
+     */
+    public static final class ExceededException extends RuntimeException {
+
+        public ExceededException(String reason) {
+            // no stack trace: this is control flow, not an error
+            super(reason, null, false, false);
+        }
+    }
+}
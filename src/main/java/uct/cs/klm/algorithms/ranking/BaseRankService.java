@@ -1,6 +1,11 @@
 package uct.cs.klm.algorithms.ranking;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -9,16 +14,22 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.tweetyproject.logics.pl.reasoner.SatReasoner;
-import org.tweetyproject.logics.pl.sat.Sat4jSolver;
-import org.tweetyproject.logics.pl.sat.SatSolver;
+import org.tweetyproject.logics.pl.syntax.Contradiction;
 import org.tweetyproject.logics.pl.syntax.Implication;
-import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 
+import uct.cs.klm.algorithms.enums.ExceptionalityCheck;
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.sat.CnfSatReasoner;
+import uct.cs.klm.algorithms.sat.ExceptionalitySatSession;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
 import uct.cs.klm.algorithms.utils.DisplayUtils;
+import uct.cs.klm.algorithms.utils.Fingerprint;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
+import uct.cs.klm.algorithms.utils.SignatureIndex;
 import uct.cs.klm.algorithms.utils.Symbols;
 
 
@@ -26,7 +37,8 @@ import uct.cs.klm.algorithms.utils.Symbols;
  * Key optimizations: - Reduced logging (remove or gate debug prints for
  * production). - Use of stream collectors to partition formulas. - Pre-caching
  * exceptional formulas in a HashSet for fast membership tests. - Submission of
- * parallel tasks to a custom ForkJoinPool.
+ * parallel tasks to a custom ForkJoinPool. - Exceptionality checks under
+ * assumptions on one incremental SAT session per construction.
  * 
  * @author Chipo Hamayobe (chipo@cs.uct.ac.za)
  * @version 1.0.1
@@ -36,15 +48,37 @@ public final class BaseRankService implements IBaseRankService {
 
     private static final Logger _logger = LoggerFactory.getLogger(BaseRankService.class);
 
-    // the SatReasoner holder
-    private final SatReasoner _satReasoner;
+    private static final int COMPLETED_CAPACITY = 4_096;
+
+    // the SAT reasoner; each check borrows its own solver from the backend pool,
+    // so the parallel antecedent checks below share no solver state
+    private final CnfSatReasoner _satReasoner;
+
+    // one independent SAT call per antecedent, or assumptions on one session per construction
+    private final ExceptionalityCheck _exceptionalityCheck;
 
     // Use a custom thread pool with optimal size
     private final ForkJoinPool _customThreadPool;
 
+    // the fingerprints of the base ranks this service completed, by knowledge base, least recently used evicted first
+    private final Map<Fingerprint, CompletedFingerprints> _completed = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Fingerprint, CompletedFingerprints> eldest) {
+            return size() > COMPLETED_CAPACITY;
+        }
+    };
+
     public BaseRankService() {
-        SatSolver.setDefaultSolver(new Sat4jSolver());
-        _satReasoner = new SatReasoner();
+        this(SatBackendFactory.getDefault());
+    }
+
+    public BaseRankService(ISatBackend backend) {
+        this(backend, ExceptionalityCheck.Assumptions);
+    }
+
+    public BaseRankService(ISatBackend backend, ExceptionalityCheck exceptionalityCheck) {
+        _satReasoner = new CnfSatReasoner(backend);
+        _exceptionalityCheck = exceptionalityCheck;
 
         // Use number of available processors for optimal parallel processing
         int processors = Runtime.getRuntime().availableProcessors();
@@ -52,7 +86,39 @@ public final class BaseRankService implements IBaseRankService {
     }
 
     @Override
-    public ModelBaseRank construct(KnowledgeBase knowledgeBase) {
+    public ModelBaseRank construct(KnowledgeBase knowledgeBase, ReasoningBudget budget) {
+        return construct(knowledgeBase, null, budget);
+    }
+
+    @Override
+    public ModelBaseRank update(ModelBaseRank baseRank, KnowledgeBase added, KnowledgeBase removed, ReasoningBudget budget) {
+
+        var previousKnowledgeBase = baseRank.getKnowledgeBaseKb();
+        var knowledgeBase = new KnowledgeBase(previousKnowledgeBase);
+
+        if (removed != null) {
+            knowledgeBase.removeAll(removed);
+        }
+        if (added != null) {
+            knowledgeBase.addAll(added);
+        }
+
+        // the previous base rank comes from the client, so it is only reused if this service built it,
+        // and a change to the classical statements can change every exceptionality check
+        boolean isReusable = isCompleted(baseRank)
+                && previousKnowledgeBase.getClassicalFormulas().getFingerprint()
+                        .equals(knowledgeBase.getClassicalFormulas().getFingerprint());
+
+        DisplayUtils.LogDebug(_logger, String.format("==>BaseRank Update (reusing previous sequence: %s)", isReusable));
+
+        return construct(knowledgeBase, isReusable ? baseRank : null, budget);
+    }
+
+    /**
+     * Constructs the base rank, reusing the exceptionality sequence of a
+     * previous base rank with the same classical statements when one is given.
+     */
+    private ModelBaseRank construct(KnowledgeBase knowledgeBase, ModelBaseRank previous, ReasoningBudget budget) {
 
         // Start time
         var startTime = System.nanoTime();
@@ -77,9 +143,20 @@ public final class BaseRankService implements IBaseRankService {
         var previousKnowledgeBase = new KnowledgeBase();
 
         int rankNumber = 0;
+        String budgetExceededReason = null;
+
+        var previousSequence = previous != null ? previous.getSequence() : new ModelRankCollection();
+
+        // loaded on the first exceptionality check and kept, with its learned clauses, for every later one
+        ExceptionalitySatSession session = null;
 
         // Loop until the defeasible knowledge base stabilizes.
-        while (!previousKnowledgeBase.equals(currentKnowledgeBase)) {
+        while (!previousKnowledgeBase.getFingerprint().equals(currentKnowledgeBase.getFingerprint())) {
+
+            if (budget.isExceeded()) {
+                budgetExceededReason = budget.getExceededReason();
+                break;
+            }
 
             previousKnowledgeBase = currentKnowledgeBase;
             currentKnowledgeBase = new KnowledgeBase();
@@ -89,11 +166,44 @@ public final class BaseRankService implements IBaseRankService {
                 _logger.debug(String.format("Current := %s", currentKnowledgeBase));
             }
 
+            KnowledgeBase previousStep = null;
+            KnowledgeBase previousNextStep = null;
+
+            if (rankNumber < previousSequence.size()) {
+
+                previousStep = previousSequence.get(rankNumber).getFormulas();
+                previousNextStep = rankNumber + 1 < previousSequence.size()
+                        ? previousSequence.get(rankNumber + 1).getFormulas()
+                        : previousStep;
+
+                // the same step as before: the rest of the sequence and ranking carry over
+                if (previousStep.getFingerprint().equals(previousKnowledgeBase.getFingerprint())) {
+                    DisplayUtils.LogDebug(_logger, String.format("  Reusing the previous sequence from step %s", rankNumber));
+                    currentKnowledgeBase = reuseSequence(previous, rankNumber, sequence, baseRanking);
+                    break;
+                }
+            }
+
+            if (session == null && _exceptionalityCheck == ExceptionalityCheck.Assumptions) {
+                session = new ExceptionalitySatSession(defeasibleStatements, classicalStatements, _satReasoner.getBackend());
+            }
+
             // Compute the exceptional statements for this iteration.
-            var exceptionalStatements = getExceptionalStatements(
-                    previousKnowledgeBase,
-                    classicalStatements,
-                    rankNumber);
+            KnowledgeBase exceptionalStatements;
+            try {
+                exceptionalStatements = getExceptionalStatements(
+                        previousKnowledgeBase,
+                        classicalStatements,
+                        rankNumber,
+                        budget,
+                        session,
+                        previousStep,
+                        previousNextStep);
+            } catch (ReasoningBudget.ExceededException ex) {
+                // keep the ranks found so far; the remaining formulas stay unranked
+                budgetExceededReason = ex.getMessage();
+                break;
+            }
 
             // Partition the formulas into those that are exceptional (to be used in the next KB)
             // and those that are not (which form the current rank).
@@ -107,7 +217,7 @@ public final class BaseRankService implements IBaseRankService {
                 baseRanking.add(currentRank);
             }
             sequence.addRank(
-                    previousKnowledgeBase.equals(currentKnowledgeBase)
+                    previousKnowledgeBase.getFingerprint().equals(currentKnowledgeBase.getFingerprint())
                     ? Symbols.INFINITY_RANK_NUMBER
                     : rankNumber, previousKnowledgeBase);
             rankNumber++;
@@ -122,17 +232,88 @@ public final class BaseRankService implements IBaseRankService {
 
         DisplayUtils.LogDebug(_logger, String.format("FINAL BaseRank := %s\n%s", finalTime, baseRanking));
 
-        return new ModelBaseRank(
+        ModelBaseRank result = new ModelBaseRank(
                 knowledgeBase,
                 sequence,
                 baseRanking,
                 finalTime);
+
+        if (budgetExceededReason != null) {
+            DisplayUtils.LogDebug(_logger, String.format("BaseRank budget exceeded: %s", budgetExceededReason));
+            result.setStatus(ReasoningStatus.BudgetExceeded);
+            result.setStatusMessage(budgetExceededReason);
+        } else {
+            synchronized (_completed) {
+                _completed.put(knowledgeBase.getFingerprint(), toCompletedFingerprints(result));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a base rank is one this service completed for its
+     * knowledge base, with the same ranking and exceptionality sequence.
+     */
+    private boolean isCompleted(ModelBaseRank baseRank) {
+
+        if (baseRank.getStatus() != ReasoningStatus.Completed) {
+            return false;
+        }
+
+        CompletedFingerprints completed;
+        synchronized (_completed) {
+            completed = _completed.get(baseRank.getKnowledgeBaseKb().getFingerprint());
+        }
+
+        return completed != null && completed.equals(toCompletedFingerprints(baseRank));
+    }
+
+    private static CompletedFingerprints toCompletedFingerprints(ModelBaseRank baseRank) {
+
+        Fingerprint sequence = Fingerprint.EMPTY;
+        for (ModelRank step : baseRank.getSequence()) {
+            sequence = sequence.plus(step.getFingerprint());
+        }
+
+        return new CompletedFingerprints(baseRank.getFingerprint(), sequence);
+    }
+
+    /**
+     * Copies the previous sequence and ranking from the given step on, and
+     * returns the last knowledge base of the sequence.
+     */
+    private KnowledgeBase reuseSequence(
+            ModelBaseRank previous,
+            int fromStep,
+            ModelRankCollection sequence,
+            ModelRankCollection baseRanking) {
+
+        var previousSequence = previous.getSequence();
+
+        for (int step = fromStep; step < previousSequence.size(); step++) {
+            sequence.add(new ModelRank(previousSequence.get(step)));
+        }
+
+        for (ModelRank rank : previous.getRanking()) {
+            if (rank.getRankNumber() >= fromStep && rank.getRankNumber() != Symbols.INFINITY_RANK_NUMBER) {
+                baseRanking.add(new ModelRank(rank));
+            }
+        }
+
+        baseRanking.sort(Comparator.comparingInt(ModelRank::getRankNumber));
+
+        return new KnowledgeBase(previousSequence.get(previousSequence.size() - 1).getFormulas());
     }
 
     private KnowledgeBase getExceptionalStatements(
             KnowledgeBase defeasible,
             KnowledgeBase classical,
-            int rankNumber) {
+            int rankNumber,
+            ReasoningBudget budget,
+            ExceptionalitySatSession session,
+            KnowledgeBase previousDefeasible,
+            KnowledgeBase previousNextDefeasible) {
 
         DisplayUtils.LogDebug(_logger, String.format("=>Get Exceptional Statements_%s", rankNumber));
 
@@ -147,24 +328,131 @@ public final class BaseRankService implements IBaseRankService {
             _logger.debug(String.format("  Antecedents_%s := %s", rankNumber, antecedents));
         }
 
+        KnowledgeBase exceptionals = new KnowledgeBase();
+
+        if (previousDefeasible != null) {
+            antecedents = reuseExceptionality(defeasible, classical, previousDefeasible, previousNextDefeasible, antecedents, exceptionals, budget);
+        }
+
+        var uncheckedAntecedents = antecedents;
+
         // Use the custom thread pool and stream filtering to determine exceptionals.
         try {
             Set<PlFormula> exceptionalSet = _customThreadPool.submit(()
-                    -> antecedents.parallelStream()
-                            .filter(antecedent -> _satReasoner.query(materialisedKb, new Negation(antecedent)))
+                    -> uncheckedAntecedents.parallelStream()
+                            .filter(antecedent -> session != null
+                                    ? session.isExceptional(defeasible, antecedent, budget)
+                                    : _satReasoner.query(materialisedKb, ReasonerUtils.toNegatedFormula(antecedent), budget))
                             .collect(Collectors.toSet())
             ).get();
 
-            KnowledgeBase exceptionals = new KnowledgeBase();
             exceptionals.addAll(exceptionalSet);
 
             DisplayUtils.LogDebug(_logger, String.format("  Exceptionals_%s := %s", rankNumber, exceptionals.toString()));
 
             return exceptionals;
-        } catch (InterruptedException | ExecutionException ex) {
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof ReasoningBudget.ExceededException exceeded) {
+                throw exceeded;
+            }
             _logger.error("Error in getExceptionalStatements", ex);
             throw new RuntimeException("Error in getExceptionalStatements", ex);
+        } catch (InterruptedException ex) {
+            _logger.error("Error in getExceptionalStatements", ex);
+            throw new RuntimeException("Error in getExceptionalStatements", ex);
+        }
+    }
+
+    /**
+     * Carries the exceptionality of antecedents over from the same step of a
+     * previous sequence. The formulas that changed since then, and every
+     * formula connected to them through shared atoms, form the changed part;
+     * the rest of the knowledge base is the same and shares no atom with it.
+     * If the previous step had a non-exceptional formula its knowledge base
+     * was consistent, so an antecedent outside the changed part is exceptional
+     * now exactly when it was then, as long as the changed part is consistent.
+     *
+     * @return The antecedents that still need to be checked.
+     */
+    private KnowledgeBase reuseExceptionality(
+            KnowledgeBase defeasible,
+            KnowledgeBase classical,
+            KnowledgeBase previousDefeasible,
+            KnowledgeBase previousNextDefeasible,
+            KnowledgeBase antecedents,
+            KnowledgeBase exceptionals,
+            ReasoningBudget budget) {
+
+        if (previousNextDefeasible.getFingerprint().equals(previousDefeasible.getFingerprint())) {
+            return antecedents;
+        }
+
+        // the current and previous formulas, the changed ones marked
+        List<PlFormula> formulas = new ArrayList<>();
+        BitSet current = new BitSet();
+        BitSet changed = new BitSet();
+
+        for (PlFormula formula : defeasible) {
+            if (!previousDefeasible.contains(formula)) {
+                changed.set(formulas.size());
+            }
+            current.set(formulas.size());
+            formulas.add(formula);
+        }
+
+        for (PlFormula formula : previousDefeasible) {
+            if (!defeasible.contains(formula)) {
+                changed.set(formulas.size());
+                formulas.add(formula);
+            }
+        }
+
+        for (PlFormula formula : classical) {
+            current.set(formulas.size());
+            formulas.add(formula);
         }
+
+        SignatureIndex index = new SignatureIndex(formulas);
+        BitSet changedPart = changed;
+
+        while (true) {
+            BitSet expanded = index.toRelatedFormulas(index.toAtoms(changedPart));
+            expanded.or(changedPart);
+
+            if (expanded.equals(changedPart)) {
+                break;
+            }
+            changedPart = expanded;
+        }
+
+        BitSet currentChangedPart = (BitSet) changedPart.clone();
+        currentChangedPart.and(current);
+
+        var changedKb = ReasonerUtils.toMaterialisedKnowledgeBase(index.toKnowledgeBase(currentChangedPart));
+
+        // an inconsistent changed part makes every antecedent exceptional
+        if (!changedKb.isEmpty() && _satReasoner.query(changedKb, new Contradiction(), budget)) {
+            exceptionals.addAll(antecedents);
+            return new KnowledgeBase();
+        }
+
+        BitSet changedAtoms = index.toAtoms(changedPart);
+        var previousAntecedents = ReasonerUtils.getAntecedentFormulas(previousDefeasible);
+        var previousExceptionals = ReasonerUtils.getAntecedentFormulas(previousNextDefeasible);
+        KnowledgeBase unchecked = new KnowledgeBase();
+
+        for (PlFormula antecedent : antecedents) {
+
+            if (!previousAntecedents.contains(antecedent) || index.toAtoms(antecedent).intersects(changedAtoms)) {
+                unchecked.add(antecedent);
+            } else if (previousExceptionals.contains(antecedent)) {
+                exceptionals.add(antecedent);
+            }
+        }
+
+        DisplayUtils.LogDebug(_logger, String.format("  Reused %s of %s exceptionality checks", antecedents.size() - unchecked.size(), antecedents.size()));
+
+        return unchecked;
     }
 
     private ModelRank constructRank(
@@ -212,4 +500,7 @@ public final class BaseRankService implements IBaseRankService {
             _customThreadPool.shutdown();
         }
     }
+
+    private record CompletedFingerprints(Fingerprint ranking, Fingerprint sequence) {
+    }
 }
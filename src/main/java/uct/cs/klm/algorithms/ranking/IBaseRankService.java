@@ -1,6 +1,7 @@
 package uct.cs.klm.algorithms.ranking;
 
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 
 /**
  * This interface represents a base rank service for a given query.
@@ -11,6 +12,29 @@ import uct.cs.klm.algorithms.models.KnowledgeBase;
  */
 public sealed interface IBaseRankService permits BaseRankService
 {
+  public default ModelBaseRank construct(
+          KnowledgeBase knowledgeBase) {
+    return construct(knowledgeBase, ReasoningBudget.unlimited());
+  }
+
+  /**
+   * Constructs the base rank within the given budget. If the budget runs out
+   * the ranks found so far are returned with status BudgetExceeded.
+   */
   public ModelBaseRank construct(
-          KnowledgeBase knowledgeBase);
+          KnowledgeBase knowledgeBase,
+          ReasoningBudget budget);
+
+  /**
+   * Constructs the base rank of a knowledge base after adding and removing
+   * formulas, reusing the exceptionality checks of the given base rank that
+   * the change cannot affect. The given base rank is only reused if it is one
+   * this service completed for its knowledge base; any other is constructed
+   * from scratch.
+   */
+  public ModelBaseRank update(
+          ModelBaseRank baseRank,
+          KnowledgeBase added,
+          KnowledgeBase removed,
+          ReasoningBudget budget);
 }
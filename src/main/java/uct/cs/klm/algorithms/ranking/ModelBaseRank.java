@@ -1,10 +1,19 @@
 package uct.cs.klm.algorithms.ranking;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
+import uct.cs.klm.algorithms.enums.SatBackendType;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+import uct.cs.klm.algorithms.utils.Fingerprint;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
 
 /**
@@ -22,6 +31,18 @@ public class ModelBaseRank {
     private final ModelRankCollection sequence;
     private final double timeTaken;
 
+    private ReasoningStatus status = ReasoningStatus.Completed;
+    private String statusMessage;
+
+    // lazily loaded solver sessions (one per backend), shared by all queries on this base rank
+    private final transient Map<SatBackendType, RankSatSession> satSessions = new EnumMap<>(SatBackendType.class);
+
+    // lazily built index of the rank suffixes, shared by the indexed algorithms
+    private transient RankSuffixIndex suffixIndex;
+
+    // lazily computed fingerprint of the ranking, looked up by every memoised boundary
+    private transient volatile Fingerprint fingerprint;
+
     public ModelBaseRank() {
         this(new KnowledgeBase(), new ModelRankCollection(), new ModelRankCollection(), 0);
     }
@@ -35,6 +56,8 @@ public class ModelBaseRank {
 
     public ModelBaseRank(ModelBaseRank baseRank) {
         this(baseRank.getKnowledgeBaseKb(), baseRank.getSequence(), baseRank.getRanking(), baseRank.getTimeTaken());
+        this.status = baseRank.getStatus();
+        this.statusMessage = baseRank.getStatusMessage();
     }
 
     public ModelRankCollection getRanking() {
@@ -52,6 +75,100 @@ public class ModelBaseRank {
         return timeTaken;
     }
 
+    public ReasoningStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReasoningStatus status) {
+        this.status = status;
+    }
+
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    public void setStatusMessage(String statusMessage) {
+        this.statusMessage = statusMessage;
+    }
+
+    /**
+     * Gets the incremental SAT session over this ranking, loading it on first
+     * use. The ranking is not expected to change once the session exists.
+     *
+     * @param backend The SAT backend of the session.
+     * @return The SAT session.
+     */
+    @JsonIgnore
+    public synchronized RankSatSession getSatSession(ISatBackend backend) {
+        return satSessions.computeIfAbsent(backend.getType(), type -> new RankSatSession(ranking, backend));
+    }
+
+    /**
+     * Gets the canonical fingerprint of this ranking, the sum of the
+     * fingerprints of its ranks, computing it on first use. The ranking is
+     * not expected to change once the fingerprint exists.
+     *
+     * @return The fingerprint.
+     */
+    @JsonIgnore
+    public Fingerprint getFingerprint() {
+
+        Fingerprint result = fingerprint;
+
+        if (result == null) {
+
+            result = Fingerprint.EMPTY;
+            for (ModelRank rank : ranking) {
+                result = result.plus(rank.getFingerprint());
+            }
+
+            fingerprint = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the rank suffix index of this ranking, building it on first use.
+     * The ranking is not expected to change once the index exists.
+     *
+     * @return The rank suffix index.
+     */
+    @JsonIgnore
+    public synchronized RankSuffixIndex getSuffixIndex() {
+        if (suffixIndex == null) {
+            suffixIndex = new RankSuffixIndex(ranking);
+        }
+        return suffixIndex;
+    }
+
+    /**
+     * Gets the memoised rational closure removal boundary of an antecedent:
+     * the index (ascending) of the lowest rank that is kept for queries with
+     * this antecedent. Antecedents with the same canonical text share it, and
+     * so do base ranks with the same ranking, through the memo.
+     *
+     * @param memo The memo of removal boundaries, e.g. the shared one.
+     * @param antecedent The antecedent of a query.
+     * @return The removal boundary, or -1 if it is not known yet.
+     */
+    public int getRemovalBoundary(RemovalBoundaryCache memo, PlFormula antecedent) {
+        return memo.get(getFingerprint(), Fingerprint.of(antecedent));
+    }
+
+    /**
+     * Memoises the rational closure removal boundary of an antecedent. Only
+     * a boundary found in full is to be memoised, never one cut short by a
+     * budget.
+     *
+     * @param memo The memo of removal boundaries, e.g. the shared one.
+     * @param antecedent The antecedent of a query.
+     * @param removalBoundary The removal boundary.
+     */
+    public void putRemovalBoundary(RemovalBoundaryCache memo, PlFormula antecedent, int removalBoundary) {
+        memo.put(getFingerprint(), Fingerprint.of(antecedent), removalBoundary);
+    }
+
     public KnowledgeBase getKnowledgeBaseKb() {
         return new KnowledgeBase(knowledgeBase);
     }
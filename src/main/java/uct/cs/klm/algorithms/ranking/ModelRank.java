@@ -1,12 +1,15 @@
 package uct.cs.klm.algorithms.ranking;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.util.Collection;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.utils.Fingerprint;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
 
 /**
@@ -27,6 +30,9 @@ public class ModelRank implements Cloneable {
      */
     private KnowledgeBase _formulas;
 
+    // the tagged fingerprint and the formula fingerprint and rank number it was made from
+    private transient volatile TaggedFingerprint _fingerprint;
+
     /**
      * Creates a new (empty) rank 0.
      */
@@ -158,4 +164,39 @@ public class ModelRank implements Cloneable {
         return _formulas;
     }
 
+    /**
+     * Get the materialised formulas of this rank, cached on its knowledge base
+     * until the rank changes.
+     *
+     * @return The read-only materialised view.
+     */
+    @JsonIgnore
+    public Set<PlFormula> getMaterialisedView() {
+        return getFormulas().getMaterialisedView();
+    }
+
+    /**
+     * Get the canonical fingerprint of this rank: its formulas under its rank
+     * number.
+     *
+     * @return The fingerprint.
+     */
+    @JsonIgnore
+    public Fingerprint getFingerprint() {
+
+        Fingerprint source = getFormulas().getFingerprint();
+        TaggedFingerprint fingerprint = _fingerprint;
+
+        // the digest is only made again after the formulas or the rank number change
+        if (fingerprint == null || fingerprint.rankNumber() != _rankNumber || !fingerprint.source().equals(source)) {
+            fingerprint = new TaggedFingerprint(source, _rankNumber, source.tagged(_rankNumber));
+            _fingerprint = fingerprint;
+        }
+
+        return fingerprint.tagged();
+    }
+
+    private record TaggedFingerprint(Fingerprint source, int rankNumber, Fingerprint tagged) {
+    }
+
 }
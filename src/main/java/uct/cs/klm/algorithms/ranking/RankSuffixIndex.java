@@ -0,0 +1,85 @@
+package uct.cs.klm.algorithms.ranking;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.models.DefeasibleImplication;
+
+/**
+ * This class represents an index of the rank suffixes of a base ranking, in
+ * ascending rank order (the order of its SAT session).
+ *
+ * Every rank keeps the antecedents of its defeasible formulas. A base rank
+ * places a formula at the first rank whose suffix does not entail the
+ * negation of its antecedent, and all formulas with the same antecedent
+ * together, so the removal boundary of a query whose antecedent is one of
+ * them is the index of its rank, with no SAT call. The suffixes themselves
+ * stay loaded in the SAT session of the base rank.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class RankSuffixIndex {
+
+    private final Map<PlFormula, Integer> _antecedentRanks = new HashMap<>();
+    private final Set<PlFormula>[] _antecedents;
+
+    /**
+     * Indexes the ranks of a base ranking.
+     *
+     * @param ranking The base ranking.
+     */
+    @SuppressWarnings("unchecked")
+    public RankSuffixIndex(ModelRankCollection ranking) {
+
+        ModelRankCollection ascending = new ModelRankCollection(ranking);
+        ascending.sort(Comparator.comparingInt(ModelRank::getRankNumber));
+        _antecedents = new Set[ascending.size()];
+
+        for (int index = 0; index < ascending.size(); index++) {
+
+            Set<PlFormula> antecedents = new LinkedHashSet<>();
+
+            for (PlFormula formula : ascending.get(index).getFormulas()) {
+                if (formula instanceof DefeasibleImplication implication) {
+                    antecedents.add(implication.getFirstFormula());
+                    _antecedentRanks.putIfAbsent(implication.getFirstFormula(), index);
+                }
+            }
+
+            _antecedents[index] = Collections.unmodifiableSet(antecedents);
+        }
+    }
+
+    public int size() {
+        return _antecedents.length;
+    }
+
+    /**
+     * Gets the antecedents of the defeasible formulas of a rank.
+     *
+     * @param index The index (ascending) of the rank.
+     * @return The antecedents.
+     */
+    public Set<PlFormula> getAntecedents(int index) {
+        return _antecedents[index];
+    }
+
+    /**
+     * Gets the index (ascending) of the rank with a defeasible formula of the
+     * given antecedent, which is the removal boundary of a query with that
+     * antecedent.
+     *
+     * @param antecedent The antecedent.
+     * @return The rank index, or -1 if no rank has the antecedent.
+     */
+    public int getRankIndex(PlFormula antecedent) {
+        return _antecedentRanks.getOrDefault(antecedent, -1);
+    }
+}
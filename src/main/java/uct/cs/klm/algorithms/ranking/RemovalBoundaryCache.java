@@ -0,0 +1,87 @@
+package uct.cs.klm.algorithms.ranking;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import uct.cs.klm.algorithms.utils.Fingerprint;
+
+/**
+ * This class represents a bounded memo of rational closure removal
+ * boundaries keyed by ranking fingerprint and canonical antecedent.
+ *
+ * Every request deserialises its own base rank, so a memo held by the base
+ * rank would be lost with it. A shared instance keyed by the fingerprint of
+ * the ranking lets a boundary found, or pre-ranked, in one request serve the
+ * later requests on the same ranking. Entries are evicted least recently
+ * used first.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class RemovalBoundaryCache {
+
+    private static final int DEFAULT_CAPACITY = 65_536;
+
+    private static final RemovalBoundaryCache _shared = new RemovalBoundaryCache(DEFAULT_CAPACITY);
+
+    private final Map<Key, Integer> _boundaries;
+
+    /**
+     * Creates a memo holding at most the given number of boundaries.
+     *
+     * @param capacity The maximum number of boundaries.
+     */
+    public RemovalBoundaryCache(int capacity) {
+        _boundaries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the memo shared by all base ranks.
+     *
+     * @return The shared memo.
+     */
+    public static RemovalBoundaryCache getShared() {
+        return _shared;
+    }
+
+    /**
+     * Gets the memoised removal boundary of an antecedent on a ranking.
+     *
+     * @param ranking The fingerprint of the ranking.
+     * @param antecedent The fingerprint of the antecedent.
+     * @return The removal boundary, or -1 if it is not known yet.
+     */
+    public synchronized int get(Fingerprint ranking, Fingerprint antecedent) {
+        return _boundaries.getOrDefault(new Key(ranking, antecedent), -1);
+    }
+
+    /**
+     * Memoises the removal boundary of an antecedent on a ranking.
+     *
+     * @param ranking The fingerprint of the ranking.
+     * @param antecedent The fingerprint of the antecedent.
+     * @param removalBoundary The removal boundary.
+     */
+    public synchronized void put(Fingerprint ranking, Fingerprint antecedent, int removalBoundary) {
+        _boundaries.put(new Key(ranking, antecedent), removalBoundary);
+    }
+
+    public synchronized int getSize() {
+        return _boundaries.size();
+    }
+
+    /**
+     * Removes all boundaries.
+     */
+    public synchronized void clear() {
+        _boundaries.clear();
+    }
+
+    private record Key(Fingerprint ranking, Fingerprint antecedent) {
+    }
+}
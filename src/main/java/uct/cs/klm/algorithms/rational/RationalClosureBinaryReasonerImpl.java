@@ -0,0 +1,79 @@
+package uct.cs.klm.algorithms.rational;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+
+/**
+ * This class represents a rational closure reasoner implementation that finds
+ * the removal boundary by binary search.
+ *
+ * If the ranks from some index onwards entail the negation of the antecedent,
+ * so do the (larger) suffixes from every lower index. The suffixes that entail
+ * it therefore form a prefix of the indices, and its end is found in
+ * O(log n) SAT calls on the session instead of one call per removed rank.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class RationalClosureBinaryReasonerImpl extends RationalClosureReasonerImpl {
+
+    private static final Logger _logger = LoggerFactory.getLogger(RationalClosureBinaryReasonerImpl.class);
+
+    public RationalClosureBinaryReasonerImpl() {
+        super();
+    }
+
+    public RationalClosureBinaryReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public RationalClosureBinaryReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
+    public RationalClosureBinaryReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler, boolean isIndexed) {
+        super(backend, compiler, isIndexed);
+    }
+
+    @Override
+    protected int findRemovalBoundary(
+            RankSatSession session,
+            ModelRankCollection baseRankCollection,
+            PlFormula negationOfAntecedent,
+            ReasoningBudget budget) {
+
+        // the boundary is the lowest index whose suffix does not entail the negation
+        int low = 0;
+        int high = toRemovalLimit(baseRankCollection);
+
+        while (low < high) {
+
+            budget.check();
+
+            int middle = (low + high) >>> 1;
+            boolean isNegationEntailed = query(session, middle, negationOfAntecedent, budget);
+
+            if (_logger.isDebugEnabled()) {
+                _logger.debug("  Ranks [{}..{}) entail {}: {}", middle, baseRankCollection.size(), negationOfAntecedent, isNegationEntailed);
+            }
+
+            if (isNegationEntailed) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        _logger.debug("  Removal boundary: {}", low);
+
+        return low;
+    }
+}
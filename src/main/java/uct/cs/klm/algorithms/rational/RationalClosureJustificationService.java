@@ -7,7 +7,9 @@ import uct.cs.klm.algorithms.enums.ReasonerType;
 import uct.cs.klm.algorithms.explanation.IJustificationService;
 import uct.cs.klm.algorithms.explanation.JustificationServiceBase;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.sat.ISatBackend;
 
 
 /**
@@ -23,19 +25,26 @@ public class RationalClosureJustificationService extends JustificationServiceBas
     {
         super();
     }
+
+    public RationalClosureJustificationService(ISatBackend backend)
+    {
+        super(backend);
+    }
     
     @Override
     public ArrayList<KnowledgeBase> computeAllJustifications(
             ModelRank infinityRank,
             KnowledgeBase remainingKnowledgeBase, 
             PlFormula queryFormula,
-            boolean convertDefeasible) 
+            boolean convertDefeasible,
+            ReasoningBudget budget) 
     {   
         return super.computeAllJustifications(
                 infinityRank,
                 ReasonerType.RationalClosure,
                 remainingKnowledgeBase, 
                 queryFormula,
-                convertDefeasible);            
+                convertDefeasible,
+                budget);            
     }
 }
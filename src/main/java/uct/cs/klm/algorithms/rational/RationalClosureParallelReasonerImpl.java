@@ -0,0 +1,135 @@
+package uct.cs.klm.algorithms.rational;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+
+/**
+ * This class represents a rational closure reasoner implementation that finds
+ * the removal boundary by probing every rank suffix at once.
+ *
+ * One task per finite rank checks whether the suffix from that rank entails
+ * the negation of the antecedent, each on a solver of its own from the
+ * session. Suffixes are nested, so a suffix that does not entail it bounds
+ * the boundary from above and cancels the tasks of the higher suffixes, and
+ * one that does bounds it from below and cancels the lower ones. The search
+ * ends as soon as both bounds meet, which on a host with a core per rank is
+ * about the latency of one SAT call.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class RationalClosureParallelReasonerImpl extends RationalClosureReasonerImpl {
+
+    private static final Logger _logger = LoggerFactory.getLogger(RationalClosureParallelReasonerImpl.class);
+
+    // shared by every reasoner of this kind, as reasoners are created per request
+    private static final ForkJoinPool _probePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public RationalClosureParallelReasonerImpl() {
+        super();
+    }
+
+    public RationalClosureParallelReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public RationalClosureParallelReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
+    public RationalClosureParallelReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler, boolean isIndexed) {
+        super(backend, compiler, isIndexed);
+    }
+
+    @Override
+    protected int findRemovalBoundary(
+            RankSatSession session,
+            ModelRankCollection baseRankCollection,
+            PlFormula negationOfAntecedent,
+            ReasoningBudget budget) {
+
+        // the boundary is the lowest index whose suffix does not entail the negation
+        int low = 0;
+        int high = toRemovalLimit(baseRankCollection);
+
+        // a single finite rank needs no tasks
+        if (high - low == 1) {
+            return query(session, low, negationOfAntecedent, budget) ? high : low;
+        }
+
+        CompletionService<Boolean> probes = new ExecutorCompletionService<>(_probePool);
+        Map<Future<Boolean>, Integer> pending = new HashMap<>();
+
+        for (int index = low; index < high; index++) {
+            int probe = index;
+            pending.put(probes.submit(() -> query(session, probe, negationOfAntecedent, budget)), probe);
+        }
+
+        try {
+            while (low < high) {
+
+                Future<Boolean> finished = probes.take();
+                Integer probe = pending.remove(finished);
+
+                // a probe cancelled below has no result to take
+                if (probe == null || finished.isCancelled()) {
+                    continue;
+                }
+
+                boolean isEntailed = finished.get();
+
+                if (_logger.isDebugEnabled()) {
+                    _logger.debug("  Ranks [{}..) entail {}: {}", probe, negationOfAntecedent, isEntailed);
+                }
+
+                if (isEntailed) {
+                    low = Math.max(low, probe + 1);
+                } else {
+                    high = Math.min(high, probe);
+                }
+
+                // the probes outside the bounds can no longer move them
+                int lowBound = low;
+                int highBound = high;
+                pending.entrySet().removeIf(entry -> {
+                    boolean isDecided = entry.getValue() < lowBound || entry.getValue() >= highBound;
+                    if (isDecided) {
+                        entry.getKey().cancel(false);
+                    }
+                    return isDecided;
+                });
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Error in findRemovalBoundary", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error in findRemovalBoundary", ex);
+        } finally {
+            for (Future<Boolean> probe : pending.keySet()) {
+                probe.cancel(false);
+            }
+        }
+
+        _logger.debug("  Removal boundary: {}", low);
+
+        return low;
+    }
+}
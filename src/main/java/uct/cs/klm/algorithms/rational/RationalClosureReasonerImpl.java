@@ -1,18 +1,26 @@
 package uct.cs.klm.algorithms.rational;
 
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.tweetyproject.logics.pl.syntax.Implication;
-import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
 import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.ranking.ModelRank;
 import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.RankSatSession;
 import uct.cs.klm.algorithms.services.IReasonerService;
 import uct.cs.klm.algorithms.services.KlmReasonerBase;
 import uct.cs.klm.algorithms.utils.DisplayUtils;
@@ -31,87 +39,90 @@ public class RationalClosureReasonerImpl extends KlmReasonerBase implements IRea
 
     private static final Logger _logger = LoggerFactory.getLogger(RationalClosureReasonerImpl.class);
 
+    // the *Index algorithms: look the boundary up in the rank suffix index first
+    private final boolean _isIndexed;
+
     public RationalClosureReasonerImpl() {
         super();
+        _isIndexed = false;
+    }
+
+    public RationalClosureReasonerImpl(ISatBackend backend) {
+        super(backend);
+        _isIndexed = false;
+    }
+
+    public RationalClosureReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        this(backend, compiler, false);
+    }
+
+    public RationalClosureReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler, boolean isIndexed) {
+        super(backend, compiler);
+        _isIndexed = isIndexed;
     }
 
     @Override
     public ModelEntailment getEntailment(
             ModelBaseRank baseRank,
-            PlFormula queryFormula) {
+            PlFormula queryFormula,
+            ReasoningBudget budget) {
 
-        long startTime = System.nanoTime();
+        return getEntailments(baseRank, List.of(queryFormula), budget).get(0);
+    }
+
+    @Override
+    public List<ModelEntailment> getEntailments(
+            ModelBaseRank baseRank,
+            List<? extends PlFormula> queryFormulas,
+            ReasoningBudget budget) {
 
         DisplayUtils.LogDebug(_logger, "==> Rational Closure Entailment Algorithm");
 
-        // Get the negation of the antecedent from the query.
-        PlFormula negationOfAntecedent = new Negation(((Implication) queryFormula).getFirstFormula());
+        // The session holds the whole materialised ranking, one selector per rank,
+        // so each removal step is a solver call under assumptions.
+        RankSatSession session = baseRank.getSatSession(_backend);
 
-        // Create a sorted copy (ascending) of the base ranking.
-        ModelRankCollection baseRankCollection = new ModelRankCollection(baseRank.getRanking());
-        baseRankCollection.sort(Comparator.comparingInt(ModelRank::getRankNumber));
+        // Create a sorted copy (ascending) of the base ranking, aligned with the session.
+        ModelRankCollection baseRankCollection = new ModelRankCollection(session.getRanking());
 
         if (_logger.isDebugEnabled()) {
             _logger.debug("->BaseRank");
             for (ModelRank rank : baseRankCollection) {
                 _logger.debug(String.format("   %s:%s", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas()));
             }
-
-            _logger.debug(String.format("->Query, α: %s", queryFormula));
-            _logger.debug(String.format("->Antecedent Negation of α: %s", negationOfAntecedent));
         }
 
         // Instead of removing the first element repeatedly (which is inefficient on ArrayLists),
-        // we determine an index (removalBoundary) up to which ranks should be removed.
-        int removalBoundary = 0;
-        int stepNumber = 1;
-
-        while (removalBoundary < baseRankCollection.size()) {
-
-            // Create a view of the remaining ranks.
-            var currentRemaining = baseRankCollection.subList(removalBoundary, baseRankCollection.size());
-            var materialisedKnowledgeBase = ReasonerUtils.toMaterialisedKnowledgeBase(currentRemaining);
-
-            ModelRank currentRank = currentRemaining.get(0);
-
-            // Stop if the current rank is the infinity rank.
-            if (currentRank.getRankNumber() == Symbols.INFINITY_RANK_NUMBER) {
-                _logger.debug("  Because current rank is ∞; stopping with current K = {}", materialisedKnowledgeBase);
-                break;
-            }
-
-            if (_logger.isDebugEnabled()) {
-                _logger.debug("-> Checking Entailment Step {}", stepNumber++);
-                _logger.debug("  Current BaseRank:");
-                for (ModelRank rank : currentRemaining) {
-                    _logger.debug("   {}:{}", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas());
-                }
-                _logger.debug("  Current K: {}", materialisedKnowledgeBase);
-                _logger.debug("  Checking if {} is entailed by current K", negationOfAntecedent);
-            }
-
-            boolean isNegationEntailed = _reasoner.query(materialisedKnowledgeBase, negationOfAntecedent);
-
-            if (!isNegationEntailed) {
-                if (_logger.isDebugEnabled()) {
-                    _logger.debug("  NO, it's not entailed; stopping rank removal with current K = {}", materialisedKnowledgeBase);
-                }
-                break;
-            }
-
-            // Stop if the current rank is the infinity rank.
-            if (currentRank.getRankNumber() == Symbols.INFINITY_RANK_NUMBER) {
-                if (_logger.isDebugEnabled()) {
-                    _logger.debug("  YES, it is entailed but current rank is ∞; stopping with current K = {}", materialisedKnowledgeBase);
-                }
-                break;
-            }
+        // we determine an index (removalBoundary) up to which ranks should be removed, once per antecedent.
+        return toEntailments(
+                baseRank,
+                queryFormulas,
+                ModelRationalClosureEntailment.RationalClosureEntailmentBuilder::new,
+                queryFormula -> toRemovalBoundary(
+                        baseRank,
+                        session,
+                        baseRankCollection,
+                        ((Implication) queryFormula).getFirstFormula(),
+                        budget),
+                (removalBoundary, queryFormula, startTime) -> toEntailment(
+                        baseRank,
+                        session,
+                        baseRankCollection,
+                        removalBoundary,
+                        queryFormula,
+                        startTime,
+                        budget));
+    }
 
-            if (_logger.isDebugEnabled()) {
-                _logger.debug("  YES, it is entailed; marking rank {}: {} for removal", currentRank.getRankNumber(), currentRank.getFormulas());
-            }
-            removalBoundary++;
-        }
+    // the entailment of a query once the ranks below the removal boundary are removed
+    private ModelEntailment toEntailment(
+            ModelBaseRank baseRank,
+            RankSatSession session,
+            ModelRankCollection baseRankCollection,
+            int removalBoundary,
+            PlFormula queryFormula,
+            long startTime,
+            ReasoningBudget budget) {
 
         // Partition the original collection into 'removed' and 'remaining' rankings.
         ModelRankCollection removedRanking = new ModelRankCollection();
@@ -139,18 +150,17 @@ public class RationalClosureReasonerImpl extends KlmReasonerBase implements IRea
             }
         }
 
-        // Prepare for the final query: materialise the query and the knowledge base.
+        // Prepare for the final query: the remaining ranks are still active in the session.
         var materialisedQueryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
-        var finalMaterialisedKB = ReasonerUtils.toMaterialisedKnowledgeBase(remainingRanking);
 
         // The query is entailed only if the negation is not entailed and the query is entailed.
-        boolean isQueryEntailed = _reasoner.query(finalMaterialisedKB, materialisedQueryFormula);
+        boolean isQueryEntailed = query(session, removalBoundary, materialisedQueryFormula, budget);
 
         KnowledgeBase entailmentKb = new KnowledgeBase();
 
         if (!isQueryEntailed) {
             var infinityRank = baseRankCollection.getInfinityRank();
-            isQueryEntailed = doesInfinityRankEntailQuery(infinityRank, queryFormula);
+            isQueryEntailed = query(session, baseRankCollection.indexOf(infinityRank), materialisedQueryFormula, budget);
 
             DisplayUtils.LogDebug(_logger, String.format("=> Checking the Infinity Rank entails the query"));
             DisplayUtils.LogDebug(_logger, String.format("=> Infinity KB := %s", infinityRank.getFormulas()));
@@ -172,10 +182,15 @@ public class RationalClosureReasonerImpl extends KlmReasonerBase implements IRea
             hasEntailed = "YES";
         }
 
+        // how close a failed query was, for compilers that count models
+        Double modelSupport = isQueryEntailed || _compiler == null
+                ? null
+                : _compiler.getModelSupport(session, removalBoundary, materialisedQueryFormula);
+
         var finalTime = ReasonerUtils.ToTimeDifference(startTime, System.nanoTime());
 
         if (_logger.isDebugEnabled()) {
-            _logger.debug("Finally checking if {} is entailed by {}", materialisedQueryFormula, finalMaterialisedKB);
+            _logger.debug("Finally checking if {} is entailed by {}", materialisedQueryFormula, remainingRanking.getKnowledgeBase());
             _logger.debug("Is Entailed: {} in {}", hasEntailed, finalTime);
         }
 
@@ -187,7 +202,173 @@ public class RationalClosureReasonerImpl extends KlmReasonerBase implements IRea
                 .withRemainingRanking(remainingRanking)
                 .withEntailmentKnowledgeBase(entailmentKb)
                 .withEntailed(isQueryEntailed)
+                .withModelSupport(modelSupport)
                 .withTimeTaken(finalTime)
                 .build();
     }
+
+    /**
+     * Ranks the given antecedents ahead of their queries, e.g. from a query
+     * log, so that later queries with these antecedents only need the final
+     * check of their consequent.
+     *
+     * @param baseRank The base rank.
+     * @param antecedents The antecedents to rank.
+     * @param budget The budget of the request.
+     * @return The rank number of the lowest rank kept, by antecedent.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    @Override
+    public Map<PlFormula, Integer> preRank(
+            ModelBaseRank baseRank,
+            Collection<? extends PlFormula> antecedents,
+            ReasoningBudget budget) {
+
+        RankSatSession session = baseRank.getSatSession(_backend);
+        ModelRankCollection baseRankCollection = new ModelRankCollection(session.getRanking());
+
+        Map<PlFormula, Integer> rankNumbers = new LinkedHashMap<>();
+
+        for (PlFormula antecedent : antecedents) {
+
+            int removalBoundary = toRemovalBoundary(baseRank, session, baseRankCollection, antecedent, budget);
+
+            rankNumbers.put(antecedent, removalBoundary < baseRankCollection.size()
+                    ? baseRankCollection.get(removalBoundary).getRankNumber()
+                    : Symbols.INFINITY_RANK_NUMBER);
+        }
+
+        DisplayUtils.LogDebug(_logger, String.format("=> Pre-ranked antecedents: %s", rankNumbers));
+
+        return rankNumbers;
+    }
+
+    /**
+     * Gets the removal boundary of an antecedent: from the memo of the base
+     * rank, else from the rank suffix index (the *Index algorithms), else by
+     * searching the ranking. A boundary that had to be found is memoised.
+     *
+     * @param baseRank The base rank.
+     * @param session The SAT session over the ranking.
+     * @param baseRankCollection The ranking in ascending order.
+     * @param antecedent The antecedent of the query.
+     * @param budget The budget of the request.
+     * @return The removal boundary.
+     */
+    private int toRemovalBoundary(
+            ModelBaseRank baseRank,
+            RankSatSession session,
+            ModelRankCollection baseRankCollection,
+            PlFormula antecedent,
+            ReasoningBudget budget) {
+
+        int removalBoundary = baseRank.getRemovalBoundary(_removalBoundaryCache, antecedent);
+
+        if (removalBoundary >= 0) {
+            DisplayUtils.LogDebug(_logger, String.format("=> Memoised removal boundary: %s", removalBoundary));
+            return removalBoundary;
+        }
+
+        // a ranking cut short by its budget does not place antecedents where they belong
+        if (_isIndexed && baseRank.getStatus() == ReasoningStatus.Completed) {
+            removalBoundary = baseRank.getSuffixIndex().getRankIndex(antecedent);
+            DisplayUtils.LogDebug(_logger, String.format("=> Indexed removal boundary: %s", removalBoundary));
+        }
+
+        if (removalBoundary < 0) {
+            // a search cut short by the budget throws, so only a full search is memoised
+            removalBoundary = findRemovalBoundary(
+                    session,
+                    baseRankCollection,
+                    ReasonerUtils.toNegatedFormula(antecedent),
+                    budget);
+        }
+
+        baseRank.putRemovalBoundary(_removalBoundaryCache, antecedent, removalBoundary);
+
+        return removalBoundary;
+    }
+
+    /**
+     * Finds the index (ascending) of the lowest rank that is kept: every rank
+     * below it is removed because the ranks from it onwards entail the
+     * negation of the antecedent. The infinity rank is never removed.
+     *
+     * This scans the ranks from the bottom, one SAT call per removed rank.
+     *
+     * @param session The SAT session over the ranking.
+     * @param baseRankCollection The ranking in ascending order.
+     * @param negationOfAntecedent The negation of the antecedent of the query.
+     * @param budget The budget of the request.
+     * @return The removal boundary.
+     */
+    protected int findRemovalBoundary(
+            RankSatSession session,
+            ModelRankCollection baseRankCollection,
+            PlFormula negationOfAntecedent,
+            ReasoningBudget budget) {
+
+        int removalBoundary = 0;
+        int stepNumber = 1;
+
+        while (removalBoundary < baseRankCollection.size()) {
+
+            budget.check();
+
+            // Create a view of the remaining ranks.
+            var currentRemaining = baseRankCollection.subList(removalBoundary, baseRankCollection.size());
+
+            ModelRank currentRank = currentRemaining.get(0);
+
+            // Stop if the current rank is the infinity rank.
+            if (currentRank.getRankNumber() == Symbols.INFINITY_RANK_NUMBER) {
+                if (_logger.isDebugEnabled()) {
+                    _logger.debug("  Because current rank is ∞; stopping with current K = {}", ReasonerUtils.toMaterialisedKnowledgeBase(currentRemaining));
+                }
+                break;
+            }
+
+            if (_logger.isDebugEnabled()) {
+                _logger.debug("-> Checking Entailment Step {}", stepNumber++);
+                _logger.debug("  Current BaseRank:");
+                for (ModelRank rank : currentRemaining) {
+                    _logger.debug("   {}:{}", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas());
+                }
+                _logger.debug("  Current K: {}", ReasonerUtils.toMaterialisedKnowledgeBase(currentRemaining));
+                _logger.debug("  Checking if {} is entailed by current K", negationOfAntecedent);
+            }
+
+            boolean isNegationEntailed = query(session, removalBoundary, negationOfAntecedent, budget);
+
+            if (!isNegationEntailed) {
+                _logger.debug("  NO, it's not entailed; stopping rank removal");
+                break;
+            }
+
+            if (_logger.isDebugEnabled()) {
+                _logger.debug("  YES, it is entailed; marking rank {}: {} for removal", currentRank.getRankNumber(), currentRank.getFormulas());
+            }
+            removalBoundary++;
+        }
+
+        return removalBoundary;
+    }
+
+    /**
+     * Gets the index (ascending) of the infinity rank, or the number of ranks
+     * if there is none: no removal boundary lies beyond it.
+     *
+     * @param baseRankCollection The ranking in ascending order.
+     * @return The highest possible removal boundary.
+     */
+    protected static int toRemovalLimit(ModelRankCollection baseRankCollection) {
+
+        for (int index = 0; index < baseRankCollection.size(); index++) {
+            if (baseRankCollection.get(index).getRankNumber() == Symbols.INFINITY_RANK_NUMBER) {
+                return index;
+            }
+        }
+
+        return baseRankCollection.size();
+    }
 }
@@ -0,0 +1,106 @@
+package uct.cs.klm.algorithms.rational;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+
+/**
+ * This class represents a rational closure reasoner implementation that finds
+ * the removal boundary by ternary search.
+ *
+ * Every round probes the suffixes at one and two thirds of the remaining
+ * interval at the same time, each on a solver of its own from the session,
+ * and keeps the third that holds the boundary. That is more SAT calls than a
+ * binary search but fewer rounds one after the other, which is what counts
+ * on a host with idle cores.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class RationalClosureTernaryReasonerImpl extends RationalClosureReasonerImpl {
+
+    private static final Logger _logger = LoggerFactory.getLogger(RationalClosureTernaryReasonerImpl.class);
+
+    public RationalClosureTernaryReasonerImpl() {
+        super();
+    }
+
+    public RationalClosureTernaryReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public RationalClosureTernaryReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
+    public RationalClosureTernaryReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler, boolean isIndexed) {
+        super(backend, compiler, isIndexed);
+    }
+
+    @Override
+    protected int findRemovalBoundary(
+            RankSatSession session,
+            ModelRankCollection baseRankCollection,
+            PlFormula negationOfAntecedent,
+            ReasoningBudget budget) {
+
+        // the boundary is the lowest index whose suffix does not entail the negation
+        int low = 0;
+        int high = toRemovalLimit(baseRankCollection);
+
+        while (low < high) {
+
+            budget.check();
+
+            int lowerProbe = low + (high - low) / 3;
+            int upperProbe = low + 2 * (high - low) / 3;
+
+            boolean isLowerEntailed;
+            boolean isUpperEntailed;
+
+            if (lowerProbe == upperProbe) {
+                isLowerEntailed = query(session, lowerProbe, negationOfAntecedent, budget);
+                isUpperEntailed = isLowerEntailed;
+            } else {
+                ForkJoinTask<Boolean> upper = ForkJoinPool.commonPool().submit(
+                        () -> query(session, upperProbe, negationOfAntecedent, budget));
+
+                try {
+                    isLowerEntailed = query(session, lowerProbe, negationOfAntecedent, budget);
+                } catch (RuntimeException ex) {
+                    upper.cancel(true);
+                    throw ex;
+                }
+
+                isUpperEntailed = upper.join();
+            }
+
+            if (_logger.isDebugEnabled()) {
+                _logger.debug("  Ranks [{}..) entail {}: {}, ranks [{}..): {}",
+                        lowerProbe, negationOfAntecedent, isLowerEntailed, upperProbe, isUpperEntailed);
+            }
+
+            if (!isLowerEntailed) {
+                high = lowerProbe;
+            } else if (!isUpperEntailed) {
+                low = lowerProbe + 1;
+                high = upperProbe;
+            } else {
+                low = upperProbe + 1;
+            }
+        }
+
+        _logger.debug("  Removal boundary: {}", low);
+
+        return low;
+    }
+}
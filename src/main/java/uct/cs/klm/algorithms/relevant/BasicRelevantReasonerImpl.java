@@ -1,11 +1,15 @@
 package uct.cs.klm.algorithms.relevant;
 
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
 import uct.cs.klm.algorithms.enums.ReasonerType;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.sat.ISatBackend;
 import uct.cs.klm.algorithms.services.IReasonerService;
 
 /**
@@ -24,14 +28,34 @@ public class BasicRelevantReasonerImpl extends RelevantClosureEntailmentBase imp
         super();
     }
 
+    public BasicRelevantReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public BasicRelevantReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
     @Override
     public ModelEntailment getEntailment(
             ModelBaseRank baseRank,
-            PlFormula queryFormula) {
+            PlFormula queryFormula,
+            ReasoningBudget budget) {
 
         _logger.debug("==>Basic Relevant Closure Entailment");
       
-        return super.determineEntailment(ReasonerType.BasicRelevantClosure, baseRank, queryFormula);
+        return super.determineEntailment(ReasonerType.BasicRelevantClosure, baseRank, queryFormula, budget);
       
-    }    
+    }
+
+    @Override
+    public List<ModelEntailment> getEntailments(
+            ModelBaseRank baseRank,
+            List<? extends PlFormula> queryFormulas,
+            ReasoningBudget budget) {
+
+        _logger.debug("==>Basic Relevant Closure Entailments");
+
+        return super.determineEntailments(ReasonerType.BasicRelevantClosure, baseRank, queryFormulas, budget);
+    }
 }
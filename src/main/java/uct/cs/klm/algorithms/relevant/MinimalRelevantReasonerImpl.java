@@ -1,11 +1,15 @@
 package uct.cs.klm.algorithms.relevant;
 
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
 import uct.cs.klm.algorithms.enums.ReasonerType;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.sat.ISatBackend;
 import uct.cs.klm.algorithms.services.IReasonerService;
 
 /**
@@ -24,14 +28,34 @@ public class MinimalRelevantReasonerImpl extends RelevantClosureEntailmentBase i
         super();
     }
 
+    public MinimalRelevantReasonerImpl(ISatBackend backend) {
+        super(backend);
+    }
+
+    public MinimalRelevantReasonerImpl(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
     @Override
     public ModelEntailment getEntailment(
             ModelBaseRank baseRank,
-            PlFormula queryFormula) {
+            PlFormula queryFormula,
+            ReasoningBudget budget) {
 
         _logger.debug("==>Minimal Relevant Closure Entailment");
       
-        return super.determineEntailment(ReasonerType.MinimalRelevantClosure,baseRank, queryFormula);
+        return super.determineEntailment(ReasonerType.MinimalRelevantClosure,baseRank, queryFormula, budget);
       
-    }       
+    }
+
+    @Override
+    public List<ModelEntailment> getEntailments(
+            ModelBaseRank baseRank,
+            List<? extends PlFormula> queryFormulas,
+            ReasoningBudget budget) {
+
+        _logger.debug("==>Minimal Relevant Closure Entailments");
+
+        return super.determineEntailments(ReasonerType.MinimalRelevantClosure, baseRank, queryFormulas, budget);
+    }
 }
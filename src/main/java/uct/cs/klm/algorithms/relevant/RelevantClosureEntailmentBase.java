@@ -1,16 +1,21 @@
 package uct.cs.klm.algorithms.relevant;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tweetyproject.logics.pl.syntax.Implication;
-import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
 import uct.cs.klm.algorithms.enums.ReasonerType;
 import uct.cs.klm.algorithms.explanation.IJustificationService;
 
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.models.ModelEntailment;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
@@ -18,8 +23,12 @@ import uct.cs.klm.algorithms.models.ModelRankResponse;
 import uct.cs.klm.algorithms.models.ModelRelevantClosureEntailment;
 import uct.cs.klm.algorithms.ranking.ModelRankCollection;
 import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SubsetSatSession;
+import uct.cs.klm.algorithms.services.AntecedentChecks;
 import uct.cs.klm.algorithms.services.KlmReasonerBase;
 import uct.cs.klm.algorithms.utils.DisplayUtils;
+import uct.cs.klm.algorithms.utils.FormulaSubsetIndex;
 import uct.cs.klm.algorithms.utils.ReasonerFactory;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
 import uct.cs.klm.algorithms.utils.Symbols;
@@ -39,75 +48,80 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
         super();
     }
 
+    public RelevantClosureEntailmentBase(ISatBackend backend) {
+        super(backend);
+    }
+
+    public RelevantClosureEntailmentBase(ISatBackend backend, IKnowledgeCompiler compiler) {
+        super(backend, compiler);
+    }
+
     protected ModelEntailment determineEntailment(
             ReasonerType reasonerType,
             ModelBaseRank baseRank,
-            PlFormula queryFormula) {
-
-        long startTime = System.nanoTime();
-
-        PlFormula negationOfAntecedent = new Negation(((Implication) queryFormula).getFirstFormula());
-        PlFormula materialisedQueryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
-
-        ModelRankCollection baseRankCollection = new ModelRankCollection(baseRank.getRanking().clone());
-        Collections.sort(baseRankCollection, (o1, o2) -> Integer.compare(o1.getRankNumber(), o2.getRankNumber()));
-
-        _logger.debug(String.format("->Query: %s", queryFormula));
-        _logger.debug(String.format("->Query Antecedent Negation: %s", negationOfAntecedent));
+            PlFormula queryFormula,
+            ReasoningBudget budget) {
 
-        int consistentRank = 1;
-        ModelRelevanceResult relevanceResult = GetRelevantRanks(reasonerType, baseRankCollection, negationOfAntecedent);
-        ModelRankCollection relevantRanking = relevanceResult.getCorrectRelevantRanking();
-        ModelRankCollection relevantRankingAll = relevanceResult.getRelevantRanking();
-        ModelRankCollection irrelevantRanking = relevanceResult.getCorrectIrrelevantRanking();
-        ModelRankCollection irrelevantRankingAll = relevanceResult.getIrrelevantRanking();
+        return determineEntailments(reasonerType, baseRank, List.of(queryFormula), budget).get(0);
+    }
 
-        ModelRankCollection nonRelevantRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, relevantRanking.getKnowledgeBase(), true);
-        List<KnowledgeBase> powersets = ReasonerUtils.toPowerSetOrdered(relevantRanking);
+    protected List<ModelEntailment> determineEntailments(
+            ReasonerType reasonerType,
+            ModelBaseRank baseRank,
+            List<? extends PlFormula> queryFormulas,
+            ReasoningBudget budget) {
 
-        List<KnowledgeBase> relevantPowersets = new ArrayList<>();
+        // the relevance and powerset checks of an antecedent are computed once
+        return toEntailments(
+                baseRank,
+                queryFormulas,
+                ModelRelevantClosureEntailment.ModelRelevantClosureEntailmentBuilder::new,
+                queryFormula -> new AntecedentPlan(reasonerType, baseRank, queryFormula, budget),
+                (plan, queryFormula, startTime) -> computeEntailment(plan, baseRank, queryFormula, startTime, budget));
+    }
 
-        for (KnowledgeBase powerKb : powersets) {
-            var combinedKb = ReasonerUtils.toCombinedKnowledgeBases(nonRelevantRanking.getKnowledgeBase(), powerKb);
-            relevantPowersets.add(combinedKb);
-        }
-        relevantPowersets.add(nonRelevantRanking.getKnowledgeBase());
-        relevantPowersets.add(baseRank.getRanking().getInfinityRank().getFormulas());
+    private ModelEntailment computeEntailment(
+            AntecedentPlan plan,
+            ModelBaseRank baseRank,
+            PlFormula queryFormula,
+            long startTime,
+            ReasoningBudget budget) {
 
-        _logger.debug("R+All: {}", relevantRankingAll.getKnowledgeBase());
-        _logger.debug("R+: {}", relevantRanking.getKnowledgeBase());
+        PlFormula negationOfAntecedent = plan.negationOfAntecedent;
+        PlFormula materialisedQueryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
 
-        _logger.debug("->R+ Ranking");
-        for (ModelRank rank : relevantRanking) {
-            _logger.debug(String.format("   %s:%s", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas()));
-        }
+        // copies, as each entailment keeps its own rankings
+        ModelRankCollection baseRankCollection = new ModelRankCollection(plan.baseRankCollection);
+        ModelRelevanceResult relevanceResult = plan.relevanceResult;
+        ModelRankCollection relevantRanking = new ModelRankCollection(plan.relevantRanking);
+        ModelRankCollection irrelevantRankingAll = new ModelRankCollection(relevanceResult.getIrrelevantRanking());
 
-        _logger.debug("R-All: {}", irrelevantRankingAll.getKnowledgeBase());
-        _logger.debug("R-: {}", irrelevantRanking.getKnowledgeBase());
+        FormulaSubsetIndex subsetIndex = plan.subsetIndex;
+        long[] relevantPowersets = plan.relevantPowersets;
+        SubsetSatSession subsetSession = plan.subsetSession;
+        KnowledgeBase infinityKb = plan.infinityKb;
 
-        _logger.debug("->R- Ranking");
-        for (ModelRank rank : irrelevantRanking) {
-            _logger.debug(String.format("   %s:%s", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas()));
-        }
+        _logger.debug(String.format("->Query: %s", queryFormula));
+        _logger.debug(String.format("->Query Antecedent Negation: %s", negationOfAntecedent));
 
-        _logger.debug("->Non RelevantRanking All");
-        for (ModelRank rank : nonRelevantRanking) {
-            _logger.debug(String.format("   %s:%s", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas()));
-        }
+        int consistentRank = 1;
 
-        var materialisedKb = ReasonerUtils.toMaterialisedKnowledgeBase(baseRankCollection);
+        var materialisedKb = plan.materialisedKb;
 
         _logger.debug(String.format("-> Checking if full KB is consistent with query %s", materialisedKb));
 
         boolean continueProcessing = true;
         boolean isQueryEntailed = false;
-        boolean isNegationEntailed = _reasoner.query(materialisedKb, negationOfAntecedent);
+
+        // position 0 is the full KB, position p + 1 the p-th powerset
+        boolean isNegationEntailed = plan.negationChecks.isEntailed(0,
+                () -> query(plan.materialisedKb, negationOfAntecedent, budget));
 
         if (isNegationEntailed) {
             DisplayUtils.LogDebug(_logger, String.format("=> YES - NegationOfAntecedent:Entailed; We skip and consider the relevant subsets"));
         } else {
             _logger.debug("  NOT - NegationOfAntecedent:Entailed; We checking if materialisedKB entails query");
-            isQueryEntailed = _reasoner.query(materialisedKb, materialisedQueryFormula);
+            isQueryEntailed = query(materialisedKb, materialisedQueryFormula, budget);
 
             if (isQueryEntailed) {
                 continueProcessing = false;
@@ -124,17 +138,20 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
                     materialisedKb,
                     relevantRanking,
                     baseRankCollection,
+                    subsetIndex,
                     relevantPowersets,
                     consistentRank,
                     relevanceResult.getRelevantKnowledgeBase(),
                     relevanceResult.getJustification(),
                     isQueryEntailed,
-                    startTime);
+                    startTime,
+                    budget);
         }
 
         consistentRank = 0;
         int nonEntailmentRank = -1;
-        for (KnowledgeBase powerKb : relevantPowersets) {
+        int lastPosition = 0;
+        for (int position = 0; position <= relevantPowersets.length; position++) {
 
             consistentRank++;
 
@@ -142,19 +159,23 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
                 break;
             }
 
-            DisplayUtils.LogDebug(_logger, String.format("=> Powerset %s := %s", consistentRank, powerKb));
+            budget.check();
 
-            materialisedKb = ReasonerUtils.toMaterialisedKnowledgeBase(powerKb);
+            lastPosition = position;
 
-            DisplayUtils.LogDebug(_logger, String.format("=> Materialised KB: %s := %s", consistentRank, materialisedKb));
+            if (_logger.isDebugEnabled()) {
+                _logger.debug(String.format("=> Powerset %s := %s", consistentRank, toPowersetKnowledgeBase(subsetIndex, relevantPowersets, position, infinityKb)));
+            }
 
-            isNegationEntailed = _reasoner.query(materialisedKb, negationOfAntecedent);
+            int checkedPosition = position;
+            isNegationEntailed = plan.negationChecks.isEntailed(position + 1,
+                    () -> queryPowerset(subsetSession, relevantPowersets, checkedPosition, infinityKb, negationOfAntecedent, budget));
 
             if (isNegationEntailed) {
-                DisplayUtils.LogDebug(_logger, String.format("=> YES - NegationOfAntecedent:Entailed; We skip and move next subset: %s := %s", consistentRank, powerKb));
+                DisplayUtils.LogDebug(_logger, String.format("=> YES - NegationOfAntecedent:Entailed; We skip and move next subset: %s", consistentRank));
             } else {
                 _logger.debug("  NOT - NegationOfAntecedent:Entailed; We checking if materialisedKB entails query");
-                isQueryEntailed = _reasoner.query(materialisedKb, materialisedQueryFormula);
+                isQueryEntailed = queryPowerset(subsetSession, relevantPowersets, position, infinityKb, materialisedQueryFormula, budget);
                 if (isQueryEntailed) {
                     continueProcessing = false;
                 } else {
@@ -169,19 +190,118 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
             consistentRank = nonEntailmentRank;
         }
 
+        // only the last powerset tried is turned back into a knowledge base
+        materialisedKb = toPowersetKnowledgeBase(subsetIndex, relevantPowersets, lastPosition, infinityKb);
+
         return CreateResponse(
                 baseRank,
                 queryFormula,
                 materialisedKb,
                 relevantRanking,
                 irrelevantRankingAll,
+                subsetIndex,
                 relevantPowersets,
                 consistentRank,
                 relevanceResult.getRelevantKnowledgeBase(),
                 relevanceResult.getJustification(),
                 isQueryEntailed,
-                startTime);
+                startTime,
+                budget);
+
+    }
+
+    /**
+     * The part of a query that depends only on its antecedent: the relevance
+     * of the ranked formulas, the powersets to try and the checks of the
+     * negated antecedent against them.
+     */
+    private final class AntecedentPlan {
+
+        private final PlFormula negationOfAntecedent;
+        private final ModelRankCollection baseRankCollection;
+        private final ModelRelevanceResult relevanceResult;
+        private final ModelRankCollection relevantRanking;
+        private final FormulaSubsetIndex subsetIndex;
+        private final long[] relevantPowersets;
+        private final SubsetSatSession subsetSession;
+        private final KnowledgeBase infinityKb;
+        private final KnowledgeBase materialisedKb;
+        private final AntecedentChecks negationChecks = new AntecedentChecks();
+
+        AntecedentPlan(
+                ReasonerType reasonerType,
+                ModelBaseRank baseRank,
+                PlFormula queryFormula,
+                ReasoningBudget budget) {
+
+            negationOfAntecedent = ReasonerUtils.toNegatedFormula(((Implication) queryFormula).getFirstFormula());
+
+            baseRankCollection = new ModelRankCollection(baseRank.getRanking().clone());
+            Collections.sort(baseRankCollection, (o1, o2) -> Integer.compare(o1.getRankNumber(), o2.getRankNumber()));
+
+            relevanceResult = GetRelevantRanks(reasonerType, baseRankCollection, negationOfAntecedent, budget);
+            relevantRanking = relevanceResult.getCorrectRelevantRanking();
+            ModelRankCollection relevantRankingAll = relevanceResult.getRelevantRanking();
+            ModelRankCollection irrelevantRanking = relevanceResult.getCorrectIrrelevantRanking();
+            ModelRankCollection irrelevantRankingAll = relevanceResult.getIrrelevantRanking();
+
+            ModelRankCollection nonRelevantRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, relevantRanking.getKnowledgeBase(), true);
+
+            // every subset of R+ with the non relevant formulas, then those alone, then the infinity rank alone
+            subsetIndex = new FormulaSubsetIndex(relevantRanking, nonRelevantRanking.getKnowledgeBase());
+            long[] orderedSubsets = subsetIndex.toOrderedSubsets();
+            relevantPowersets = Arrays.copyOf(orderedSubsets, orderedSubsets.length + 1);
+            subsetSession = new SubsetSatSession(subsetIndex, _backend);
+            infinityKb = ReasonerUtils.toMaterialisedKnowledgeBase(baseRank.getRanking().getInfinityRank().getFormulas());
+
+            _logger.debug("R+All: {}", relevantRankingAll.getKnowledgeBase());
+            _logger.debug("R+: {}", relevantRanking.getKnowledgeBase());
+
+            _logger.debug("->R+ Ranking");
+            for (ModelRank rank : relevantRanking) {
+                _logger.debug(String.format("   %s:%s", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas()));
+            }
 
+            _logger.debug("R-All: {}", irrelevantRankingAll.getKnowledgeBase());
+            _logger.debug("R-: {}", irrelevantRanking.getKnowledgeBase());
+
+            _logger.debug("->R- Ranking");
+            for (ModelRank rank : irrelevantRanking) {
+                _logger.debug(String.format("   %s:%s", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas()));
+            }
+
+            _logger.debug("->Non RelevantRanking All");
+            for (ModelRank rank : nonRelevantRanking) {
+                _logger.debug(String.format("   %s:%s", DisplayUtils.toRankNumberString(rank.getRankNumber()), rank.getFormulas()));
+            }
+
+            materialisedKb = ReasonerUtils.toMaterialisedKnowledgeBase(baseRankCollection);
+        }
+    }
+
+    // the powerset at a position: a subset with the non relevant formulas, or after the last subset the infinity rank alone
+    private boolean queryPowerset(
+            SubsetSatSession subsetSession,
+            long[] powersets,
+            int position,
+            KnowledgeBase infinityKb,
+            PlFormula formula,
+            ReasoningBudget budget) {
+
+        return position < powersets.length
+                ? query(subsetSession, powersets[position], formula, budget)
+                : query(infinityKb, formula, budget);
+    }
+
+    private static KnowledgeBase toPowersetKnowledgeBase(
+            FormulaSubsetIndex subsetIndex,
+            long[] powersets,
+            int position,
+            KnowledgeBase infinityKb) {
+
+        return position < powersets.length
+                ? subsetIndex.toMaterialisedKnowledgeBase(powersets[position])
+                : infinityKb;
     }
 
     private ModelEntailment CreateResponse(
@@ -190,25 +310,27 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
             KnowledgeBase materialisedKb,
             ModelRankCollection relevantRanking,
             ModelRankCollection irrelevantRanking,
-            List<KnowledgeBase> powersets,
+            FormulaSubsetIndex subsetIndex,
+            long[] powersets,
             int consistentRank,
             KnowledgeBase relevantKnowledgeBase,
             ArrayList<KnowledgeBase> relevantJustification,
             boolean isQueryEntailed,
-            long startTime) {
+            long startTime,
+            ReasoningBudget budget) {
 
         ModelRankCollection remainingRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, materialisedKb, false);
         ModelRankCollection removedRanking = ReasonerUtils.toRanksFromKnowledgeBase(baseRank, remainingRanking.getKnowledgeBase(), true);
 
         if (!isQueryEntailed) {
             var infinityRank = baseRank.getRanking().clone().getInfinityRank();
-            isQueryEntailed = doesInfinityRankEntailQuery(infinityRank, queryFormula);
+            isQueryEntailed = doesInfinityRankEntailQuery(infinityRank, queryFormula, budget);
 
             DisplayUtils.LogDebug(_logger, String.format("=> Checking the Infinity Rank entails the query"));
             DisplayUtils.LogDebug(_logger, String.format("=> Infinity KB := %s", infinityRank.getFormulas()));
 
             if (isQueryEntailed) {
-                consistentRank = powersets.size();
+                consistentRank = powersets.length + 1;
                 remainingRanking = new ModelRankCollection(infinityRank);
                 removedRanking = baseRank.getRanking().getRankingCollectonExcept(Symbols.INFINITY_RANK_NUMBER);
 
@@ -218,7 +340,7 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
                 DisplayUtils.LogDebug(_logger, String.format("=> RemainingRanking := %s", remainingRanking.getKnowledgeBase()));
                 DisplayUtils.LogDebug(_logger, String.format("=> RemovedRanking := %s", removedRanking.getKnowledgeBase()));
             } else {
-                if (consistentRank == powersets.size()) {
+                if (consistentRank == powersets.length + 1) {
                     consistentRank = 0;
                 }
             }
@@ -230,7 +352,8 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
             _logger.debug(String.format("-> Entailment:NO : %s does not entail %s", materialisedKb, queryFormula));
         }
 
-        ArrayList<ModelRankResponse> powersetRanking = ReasonerUtils.toResponseRanks(baseRank, powersets);
+        ArrayList<ModelRankResponse> powersetRanking = ReasonerUtils.toResponseRanks(baseRank, subsetIndex, powersets);
+        powersetRanking.add(ReasonerUtils.toResponseKnowledgebase(baseRank, baseRank.getRanking().getInfinityRank().getFormulas(), powersets.length + 1));
        // ArrayList<ModelRankResponse> powersetRanking = ReasonerUtils.toResponseRanks(baseRank, irrelevantRanking, powersets);
 
         _logger.debug(String.format("-> Powerset Ranking"));
@@ -292,41 +415,40 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
     private ModelRelevanceResult GetRelevantRanks(
             ReasonerType reasonerType,
             ModelRankCollection baseRankCollection,
-            PlFormula negationOfAntecedent) {
+            PlFormula negationOfAntecedent,
+            ReasoningBudget budget) {
 
         var originalKb = baseRankCollection.getKnowledgeBase();
 
-        IJustificationService justificationService = ReasonerFactory.createJustification(reasonerType);
+        IJustificationService justificationService = ReasonerFactory.createJustification(reasonerType, _backend);
         var justificationCollection = justificationService.computeAllJustifications(
                 baseRankCollection.getInfinityRank(),
                 originalKb,
                 negationOfAntecedent,
-                false);
+                false,
+                budget);
 
-        KnowledgeBase incosistentKb = new KnowledgeBase();
+        // partial justifications would misclassify relevance, so stop here if the budget ran out
+        budget.check();
+
+        // membership tests below work on sets built once instead of knowledge bases rebuilt per rank
+        Set<PlFormula> incosistentFormulas = new HashSet<>();
 
         KnowledgeBase relevantKb = new KnowledgeBase();
 
         for (var justificationEntry : justificationCollection) {
 
             relevantKb.addKnowledgeBase(justificationEntry);
-
-            for (var formula : justificationEntry) {
-
-                var formulaMaterialised = ReasonerUtils.toMaterialisedFormula(formula);
-
-                if (!incosistentKb.contains(formulaMaterialised)) {
-                    incosistentKb.add(formulaMaterialised);
-                }
-            }
+            incosistentFormulas.addAll(justificationEntry.getMaterialisedView());
         }
 
         KnowledgeBase miniKb = new KnowledgeBase();
+        Set<PlFormula> miniFormulas = new HashSet<>();
 
         if (reasonerType == ReasonerType.MinimalRelevantClosure) {
 
             var allRanks = baseRankCollection.getRankingCollectonExceptInfinity();
-            List<Integer> justList = new ArrayList<>();
+            BitSet justList = new BitSet();
 
             for (ModelRank rank : allRanks) {
 
@@ -337,7 +459,7 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
                 int justCounter = 0;
                 for (var just : justificationCollection) {
 
-                    if (justList.contains(justCounter)) {
+                    if (justList.get(justCounter)) {
                         continue;
                     }
 
@@ -347,16 +469,20 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
                     for (var formula : just.getFormulas()) {
 
                         var deMaterialised = ReasonerUtils.toDematerialisedFormula(formula);
-                        _logger.debug(String.format("=> Rel Formula %s: %s IN %s", justCounter, deMaterialised, rankFomulas));
+
+                        if (_logger.isDebugEnabled()) {
+                            _logger.debug(String.format("=> Rel Formula %s: %s IN %s", justCounter, deMaterialised, rankFomulas));
+                        }
 
                         if (rankFomulas.contains(deMaterialised)) {
                             if (rankNumber == -1) {
                                 rankNumber = rank.getRankNumber();
-                                justList.add(justCounter);
+                                justList.set(justCounter);
                             }
 
                             if (rank.getRankNumber() == rankNumber) {
                                 miniKb.add(formula);
+                                miniFormulas.add(ReasonerUtils.toMaterialisedFormula(formula));
                             }
                         }
                     }
@@ -429,13 +555,13 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
 
                 var formulaMaterialised = ReasonerUtils.toMaterialisedFormula(formula);
 
-                if (incosistentKb.contains(formulaMaterialised)) {
+                if (incosistentFormulas.contains(formulaMaterialised)) {
                     addIncosistentRank = true;
                     incosistentRank.addFormula(formula);
                 }
 
                 if (reasonerType == ReasonerType.MinimalRelevantClosure) {
-                    if (ReasonerUtils.toMaterialisedKnowledgeBase(miniKb).contains(formulaMaterialised)) {
+                    if (miniFormulas.contains(formulaMaterialised)) {
                         addRelevantRank = true;
                         relevantRank.addFormula(formula);
                     } else {
@@ -444,7 +570,7 @@ public abstract class RelevantClosureEntailmentBase extends KlmReasonerBase {
                     }
 
                 } else {
-                    if (incosistentKb.contains(formulaMaterialised)) {
+                    if (incosistentFormulas.contains(formulaMaterialised)) {
                         addRelevantRank = true;
                         relevantRank.addFormula(formula);
                     } else {
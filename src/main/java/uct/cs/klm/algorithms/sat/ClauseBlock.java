@@ -0,0 +1,284 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Contradiction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Equivalence;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.syntax.Tautology;
+
+/**
+ * This class represents the compiled CNF of a single asserted formula.
+ *
+ * Clauses are stored over block-local variables 1..n. A local variable is
+ * either bound to an atom, which is shared with other blocks, or is an
+ * auxiliary Tseitin variable that is renumbered freshly whenever the block is
+ * combined into a clause set.
+ *
+ * Small formulas are converted to CNF directly, without auxiliary variables,
+ * so literal-to-literal statements keep their Horn or 2-CNF shape. Whether the
+ * clauses are Horn or 2-CNF is recorded once when the block is compiled.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class ClauseBlock {
+
+    // direct conversion is abandoned beyond this many clauses in favour of Tseitin
+    private static final int MAX_DIRECT_CLAUSES = 32;
+
+    // local variable -> atom, null for auxiliary variables (index 0 unused)
+    private final Proposition[] _atoms;
+    private final int[][] _clauses;
+    private final boolean _isHorn;
+    private final boolean _isTwoCnf;
+
+    private ClauseBlock(Proposition[] atoms, int[][] clauses) {
+        _atoms = atoms;
+        _clauses = clauses;
+
+        boolean isHorn = true;
+        boolean isTwoCnf = true;
+
+        for (int[] clause : clauses) {
+            int positive = 0;
+            for (int literal : clause) {
+                if (literal > 0) {
+                    positive++;
+                }
+            }
+            isHorn &= positive <= 1;
+            isTwoCnf &= clause.length <= 2;
+        }
+
+        _isHorn = isHorn;
+        _isTwoCnf = isTwoCnf;
+    }
+
+    /**
+     * Compiles the given formula into a block asserting it.
+     *
+     * @param formula The formula to assert.
+     * @return The compiled block.
+     */
+    public static ClauseBlock compile(PlFormula formula) {
+
+        Map<Proposition, Integer> variables = new LinkedHashMap<>();
+        List<int[]> direct = toClauses(formula, true, variables);
+
+        if (direct != null) {
+            Proposition[] atoms = new Proposition[variables.size() + 1];
+            variables.forEach((atom, variable) -> atoms[variable] = atom);
+            return new ClauseBlock(atoms, direct.toArray(int[][]::new));
+        }
+
+        CnfEncoder encoder = new CnfEncoder();
+        List<int[]> clauses = new ArrayList<>();
+
+        int root = encoder.encode(formula, clauses);
+        clauses.add(new int[]{root});
+
+        Proposition[] atoms = new Proposition[encoder.getMaxVariable() + 1];
+        encoder.getAtomVariables().forEach((atom, variable) -> atoms[variable] = atom);
+
+        return new ClauseBlock(atoms, clauses.toArray(int[][]::new));
+    }
+
+    /**
+     * Converts a formula (or its negation) to CNF by distribution.
+     *
+     * @return The clauses, or null if there would be too many.
+     */
+    private static List<int[]> toClauses(PlFormula formula, boolean isPositive, Map<Proposition, Integer> variables) {
+
+        if (formula instanceof Proposition atom) {
+            int variable = variables.computeIfAbsent(atom, a -> variables.size() + 1);
+            List<int[]> clauses = new ArrayList<>();
+            clauses.add(new int[]{isPositive ? variable : -variable});
+            return clauses;
+        }
+
+        if (formula instanceof Negation negation) {
+            return toClauses(negation.getFormula(), !isPositive, variables);
+        }
+
+        if (formula instanceof Tautology || formula instanceof Contradiction) {
+            // true has no clauses, false has the empty clause
+            List<int[]> clauses = new ArrayList<>();
+            if ((formula instanceof Tautology) != isPositive) {
+                clauses.add(new int[0]);
+            }
+            return clauses;
+        }
+
+        List<PlFormula> operands = new ArrayList<>();
+        List<Boolean> polarities = new ArrayList<>();
+        boolean isConjunctive;
+
+        if (formula instanceof Conjunction conjunction) {
+            conjunction.forEach(operand -> {
+                operands.add(operand);
+                polarities.add(isPositive);
+            });
+            isConjunctive = isPositive;
+        } else if (formula instanceof Disjunction disjunction) {
+            disjunction.forEach(operand -> {
+                operands.add(operand);
+                polarities.add(isPositive);
+            });
+            isConjunctive = !isPositive;
+        } else if (formula instanceof Implication implication) {
+            operands.add(implication.getFirstFormula());
+            polarities.add(!isPositive);
+            operands.add(implication.getSecondFormula());
+            polarities.add(isPositive);
+            isConjunctive = !isPositive;
+        } else if (formula instanceof Equivalence equivalence) {
+            PlFormula a = equivalence.getFormulas().getFirst();
+            PlFormula b = equivalence.getFormulas().getSecond();
+            // a <-> b is (~a | b) & (a | ~b); its negation is (a | b) & (~a | ~b)
+            List<int[]> first = product(toClauses(a, !isPositive, variables), toClauses(b, true, variables));
+            List<int[]> second = product(toClauses(a, isPositive, variables), toClauses(b, false, variables));
+            return concatenate(first, second);
+        } else {
+            return null;
+        }
+
+        List<int[]> result = null;
+
+        for (int i = 0; i < operands.size(); i++) {
+            List<int[]> clauses = toClauses(operands.get(i), polarities.get(i), variables);
+            if (result == null || clauses == null) {
+                result = clauses;
+            } else {
+                result = isConjunctive ? concatenate(result, clauses) : product(result, clauses);
+            }
+            if (result == null) {
+                return null;
+            }
+        }
+
+        if (result == null) {
+            // empty conjunction or disjunction
+            result = new ArrayList<>();
+            if (!isConjunctive) {
+                result.add(new int[0]);
+            }
+        }
+
+        return result;
+    }
+
+    private static List<int[]> concatenate(List<int[]> left, List<int[]> right) {
+
+        if (left == null || right == null || left.size() + right.size() > MAX_DIRECT_CLAUSES) {
+            return null;
+        }
+
+        left.addAll(right);
+        return left;
+    }
+
+    private static List<int[]> product(List<int[]> left, List<int[]> right) {
+
+        if (left == null || right == null || (long) left.size() * right.size() > MAX_DIRECT_CLAUSES) {
+            return null;
+        }
+
+        List<int[]> result = new ArrayList<>();
+
+        for (int[] a : left) {
+            for (int[] b : right) {
+                int[] merged = merge(a, b);
+                if (merged != null) {
+                    result.add(merged);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges two clauses, dropping duplicate literals.
+     *
+     * @return The merged clause, or null if it is a tautology.
+     */
+    private static int[] merge(int[] a, int[] b) {
+
+        int[] merged = new int[a.length + b.length];
+        int size = 0;
+
+        for (int[] clause : new int[][]{a, b}) {
+            next:
+            for (int literal : clause) {
+                for (int i = 0; i < size; i++) {
+                    if (merged[i] == literal) {
+                        continue next;
+                    }
+                    if (merged[i] == -literal) {
+                        return null;
+                    }
+                }
+                merged[size++] = literal;
+            }
+        }
+
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * Gets the number of local variables of this block.
+     *
+     * @return The number of variables.
+     */
+    public int getVariableCount() {
+        return _atoms.length - 1;
+    }
+
+    /**
+     * Gets the atom bound to a local variable.
+     *
+     * @param variable The local variable.
+     * @return The atom, or null for an auxiliary variable.
+     */
+    public Proposition getAtom(int variable) {
+        return _atoms[variable];
+    }
+
+    /**
+     * Checks whether every clause has at most one positive literal.
+     *
+     * @return True if the block is Horn.
+     */
+    public boolean isHorn() {
+        return _isHorn;
+    }
+
+    /**
+     * Checks whether every clause has at most two literals.
+     *
+     * @return True if the block is 2-CNF.
+     */
+    public boolean isTwoCnf() {
+        return _isTwoCnf;
+    }
+
+    /**
+     * Gets the clauses over local variables. The arrays must not be modified.
+     *
+     * @return The clauses.
+     */
+    public int[][] getClauses() {
+        return _clauses;
+    }
+}
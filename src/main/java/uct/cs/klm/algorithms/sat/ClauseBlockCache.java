@@ -0,0 +1,51 @@
+package uct.cs.klm.algorithms.sat;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.utils.IdentityCache;
+
+/**
+ * This class represents a process-wide cache of compiled clause blocks, keyed
+ * by formula instance. The interned formulas the reasoners work on are shared
+ * instances, so they hit the cache; the least recently used blocks are
+ * evicted once it is full.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class ClauseBlockCache {
+
+    // upper bound on cached blocks
+    private static final int MAX_ENTRIES = 200_000;
+
+    private static final IdentityCache<PlFormula, ClauseBlock> _blocks = new IdentityCache<>(MAX_ENTRIES);
+
+    private ClauseBlockCache() {
+    }
+
+    /**
+     * Gets the block asserting the given formula, compiling it on first use.
+     *
+     * @param formula The formula.
+     * @return The compiled block.
+     */
+    public static ClauseBlock get(PlFormula formula) {
+        return _blocks.get(formula, ClauseBlock::compile);
+    }
+
+    /**
+     * Gets the number of cached blocks.
+     *
+     * @return The number of blocks.
+     */
+    public static int size() {
+        return _blocks.size();
+    }
+
+    /**
+     * Removes all cached blocks.
+     */
+    public static void clear() {
+        _blocks.clear();
+    }
+}
@@ -0,0 +1,184 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+import uct.cs.klm.algorithms.enums.CnfFragment;
+
+/**
+ * This class represents a clause set assembled from cached clause blocks.
+ *
+ * Atoms are numbered once per clause set; the auxiliary variables of each
+ * block are shifted to a fresh range, so blocks never interfere. The set keeps
+ * track of whether all its blocks are Horn or 2-CNF, so the tractable
+ * fragment is known as soon as the formulas are loaded.
+ *
+ * A set can be marked and later copied as it was at the mark, so a set built
+ * once, e.g. over every rank suffix, is extended per query without adding its
+ * blocks again.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class ClauseSet {
+
+    // the atoms numbered by the set this one is copied from, read only
+    private final Map<Proposition, Integer> _sharedAtomVariables;
+    private final Map<Proposition, Integer> _atomVariables = new HashMap<>();
+    private final List<int[]> _clauses;
+
+    private int _maxVariable = 0;
+    private boolean _isHorn = true;
+    private boolean _isTwoCnf = true;
+
+    public ClauseSet() {
+        _sharedAtomVariables = Map.of();
+        _clauses = new ArrayList<>();
+    }
+
+    /**
+     * Creates a clause set holding the clauses of another set at a mark, with
+     * the atoms numbered as there. The atoms of the other set are shared, not
+     * copied, so it must not be added to afterwards.
+     *
+     * @param clauseSet The clause set to copy.
+     * @param mark The mark of the clause set.
+     */
+    public ClauseSet(ClauseSet clauseSet, Mark mark) {
+
+        if (clauseSet._sharedAtomVariables.isEmpty()) {
+            _sharedAtomVariables = clauseSet._atomVariables;
+        } else {
+            Map<Proposition, Integer> atomVariables = new HashMap<>(clauseSet._sharedAtomVariables);
+            atomVariables.putAll(clauseSet._atomVariables);
+            _sharedAtomVariables = atomVariables;
+        }
+
+        _clauses = new ArrayList<>(clauseSet._clauses.subList(0, mark.clauseCount()));
+        _maxVariable = clauseSet._maxVariable;
+        _isHorn = mark.isHorn();
+        _isTwoCnf = mark.isTwoCnf();
+    }
+
+    /**
+     * Marks the clauses added so far.
+     *
+     * @return The mark.
+     */
+    public Mark mark() {
+        return new Mark(_clauses.size(), _isHorn, _isTwoCnf);
+    }
+
+    /**
+     * Asserts the given formula.
+     *
+     * @param formula The formula.
+     */
+    public void add(PlFormula formula) {
+        add(ClauseBlockCache.get(formula));
+    }
+
+    /**
+     * Asserts all the given formulas.
+     *
+     * @param formulas The formulas.
+     */
+    public void addAll(Iterable<? extends PlFormula> formulas) {
+        for (PlFormula formula : formulas) {
+            add(formula);
+        }
+    }
+
+    /**
+     * Appends the clauses of a block, renumbering its variables.
+     *
+     * @param block The block.
+     */
+    public void add(ClauseBlock block) {
+
+        _isHorn &= block.isHorn();
+        _isTwoCnf &= block.isTwoCnf();
+
+        int count = block.getVariableCount();
+        int[] mapping = new int[count + 1];
+
+        for (int variable = 1; variable <= count; variable++) {
+            Proposition atom = block.getAtom(variable);
+            mapping[variable] = atom == null ? ++_maxVariable : toVariable(atom);
+        }
+
+        for (int[] clause : block.getClauses()) {
+            int[] mapped = new int[clause.length];
+            for (int i = 0; i < clause.length; i++) {
+                int literal = clause[i];
+                mapped[i] = literal > 0 ? mapping[literal] : -mapping[-literal];
+            }
+            _clauses.add(mapped);
+        }
+    }
+
+    /**
+     * Gets the variable of an atom in this clause set.
+     *
+     * @param atom The atom.
+     * @return The variable, or 0 if the atom does not occur.
+     */
+    public int getVariable(Proposition atom) {
+        Integer variable = _sharedAtomVariables.get(atom);
+        return variable != null ? variable : _atomVariables.getOrDefault(atom, 0);
+    }
+
+    /**
+     * Gets the tractable fragment of the clauses added so far, preferring
+     * Horn when the clauses are both Horn and 2-CNF.
+     *
+     * @return The fragment.
+     */
+    public CnfFragment getFragment() {
+        return mark().getFragment();
+    }
+
+    public int getMaxVariable() {
+        return _maxVariable;
+    }
+
+    public List<int[]> getClauses() {
+        return _clauses;
+    }
+
+    private int toVariable(Proposition atom) {
+        Integer variable = _sharedAtomVariables.get(atom);
+        return variable != null ? variable : _atomVariables.computeIfAbsent(atom, a -> ++_maxVariable);
+    }
+
+    /**
+     * The clauses of a clause set at some point, and whether they were all
+     * Horn or 2-CNF.
+     *
+     * @param clauseCount The number of clauses.
+     * @param isHorn Whether the clauses are Horn.
+     * @param isTwoCnf Whether the clauses are 2-CNF.
+     */
+    public record Mark(int clauseCount, boolean isHorn, boolean isTwoCnf) {
+
+        /**
+         * Gets the tractable fragment of the clauses, preferring Horn when
+         * they are both Horn and 2-CNF.
+         *
+         * @return The fragment.
+         */
+        public CnfFragment getFragment() {
+
+            if (isHorn) {
+                return CnfFragment.Horn;
+            }
+
+            return isTwoCnf ? CnfFragment.TwoCnf : CnfFragment.General;
+        }
+    }
+}
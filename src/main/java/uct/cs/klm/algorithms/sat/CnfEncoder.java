@@ -0,0 +1,188 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Contradiction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Equivalence;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.syntax.Tautology;
+
+/**
+ * This class represents a Tseitin encoder of propositional formulas into
+ * DIMACS style clauses.
+ *
+ * Every (sub)formula is mapped to a literal whose truth value is equivalent to
+ * the formula, so the same literal can be asserted or negated. Defeasible
+ * implications are encoded as their materialised (classical) counterpart.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class CnfEncoder {
+
+    // variable 1 is reserved for the constant TRUE
+    private static final int TRUE_VARIABLE = 1;
+
+    private final Map<Proposition, Integer> _atomVariables = new HashMap<>();
+    private final Map<PlFormula, Integer> _formulaLiterals = new HashMap<>();
+
+    private int _lastVariable = TRUE_VARIABLE;
+    private boolean _isTrueAsserted = false;
+
+    /**
+     * Allocates a fresh variable that is not bound to any formula.
+     *
+     * @return The new variable.
+     */
+    public int newVariable() {
+        return ++_lastVariable;
+    }
+
+    /**
+     * Gets the highest variable allocated so far.
+     *
+     * @return The highest variable.
+     */
+    public int getMaxVariable() {
+        return _lastVariable;
+    }
+
+    /**
+     * Gets the atoms encoded so far and their variables.
+     *
+     * @return The atom variables.
+     */
+    public Map<Proposition, Integer> getAtomVariables() {
+        return _atomVariables;
+    }
+
+    /**
+     * Gets the literal equivalent to the given formula, adding the defining
+     * clauses of any subformula that has not been encoded before.
+     *
+     * @param formula The formula to encode.
+     * @param clauses The clause sink for new defining clauses.
+     * @return The literal equivalent to the formula.
+     */
+    public int encode(PlFormula formula, List<int[]> clauses) {
+
+        if (formula instanceof Proposition atom) {
+            return _atomVariables.computeIfAbsent(atom, a -> newVariable());
+        }
+
+        if (formula instanceof Negation negation) {
+            return -encode(negation.getFormula(), clauses);
+        }
+
+        if (formula instanceof Tautology) {
+            return trueLiteral(clauses);
+        }
+
+        if (formula instanceof Contradiction) {
+            return -trueLiteral(clauses);
+        }
+
+        Integer known = _formulaLiterals.get(formula);
+        if (known != null) {
+            return known;
+        }
+
+        int literal;
+
+        if (formula instanceof Conjunction conjunction) {
+            literal = encodeConjunction(conjunction, clauses);
+        } else if (formula instanceof Disjunction disjunction) {
+            literal = encodeDisjunction(disjunction, clauses);
+        } else if (formula instanceof Implication implication) {
+            int a = encode(implication.getFirstFormula(), clauses);
+            int b = encode(implication.getSecondFormula(), clauses);
+            literal = newVariable();
+            clauses.add(new int[]{-literal, -a, b});
+            clauses.add(new int[]{literal, a});
+            clauses.add(new int[]{literal, -b});
+        } else if (formula instanceof Equivalence equivalence) {
+            int a = encode(equivalence.getFormulas().getFirst(), clauses);
+            int b = encode(equivalence.getFormulas().getSecond(), clauses);
+            literal = newVariable();
+            clauses.add(new int[]{-literal, -a, b});
+            clauses.add(new int[]{-literal, a, -b});
+            clauses.add(new int[]{literal, a, b});
+            clauses.add(new int[]{literal, -a, -b});
+        } else {
+            throw new IllegalArgumentException("Unsupported formula: " + formula);
+        }
+
+        _formulaLiterals.put(formula, literal);
+        return literal;
+    }
+
+    private int trueLiteral(List<int[]> clauses) {
+
+        if (!_isTrueAsserted) {
+            clauses.add(new int[]{TRUE_VARIABLE});
+            _isTrueAsserted = true;
+        }
+
+        return TRUE_VARIABLE;
+    }
+
+    private int encodeConjunction(Conjunction conjunction, List<int[]> clauses) {
+
+        if (conjunction.isEmpty()) {
+            return trueLiteral(clauses);
+        }
+
+        int[] operands = encodeAll(conjunction, clauses);
+        int literal = newVariable();
+
+        int[] longClause = new int[operands.length + 1];
+        longClause[0] = literal;
+        for (int i = 0; i < operands.length; i++) {
+            clauses.add(new int[]{-literal, operands[i]});
+            longClause[i + 1] = -operands[i];
+        }
+        clauses.add(longClause);
+
+        return literal;
+    }
+
+    private int encodeDisjunction(Disjunction disjunction, List<int[]> clauses) {
+
+        if (disjunction.isEmpty()) {
+            return -trueLiteral(clauses);
+        }
+
+        int[] operands = encodeAll(disjunction, clauses);
+        int literal = newVariable();
+
+        int[] longClause = new int[operands.length + 1];
+        longClause[0] = -literal;
+        for (int i = 0; i < operands.length; i++) {
+            clauses.add(new int[]{literal, -operands[i]});
+            longClause[i + 1] = operands[i];
+        }
+        clauses.add(longClause);
+
+        return literal;
+    }
+
+    private int[] encodeAll(Collection<PlFormula> formulas, List<int[]> clauses) {
+
+        int[] literals = new int[formulas.size()];
+        int index = 0;
+
+        for (PlFormula formula : formulas) {
+            literals[index++] = encode(formula, clauses);
+        }
+
+        return literals;
+    }
+}
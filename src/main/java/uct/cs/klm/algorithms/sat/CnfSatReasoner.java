@@ -0,0 +1,134 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.Collection;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.enums.CnfFragment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.utils.ReasonerUtils;
+
+/**
+ * This class represents a classical SAT reasoner over cached clause blocks.
+ *
+ * It answers the same queries as TweetyProject's SatReasoner, but the CNF of a
+ * knowledge base is assembled from per-formula blocks that are compiled once,
+ * instead of converting the whole knowledge base on every call. Each call
+ * borrows its own solver from the pool of the configured backend, so
+ * instances may be shared between threads.
+ *
+ * Clause sets that are Horn or 2-CNF (e.g. knowledge bases of literal-to-literal
+ * statements) are decided in linear time by unit propagation or on the
+ * implication graph, without calling the backend.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public class CnfSatReasoner {
+
+    private final ISatBackend _backend;
+    private final SolverPool _pool;
+
+    public CnfSatReasoner() {
+        this(SatBackendFactory.getDefault());
+    }
+
+    public CnfSatReasoner(ISatBackend backend) {
+        _backend = backend;
+        _pool = SolverPool.of(backend);
+    }
+
+    public ISatBackend getBackend() {
+        return _backend;
+    }
+
+    /**
+     * Checks whether the knowledge base classically entails the query.
+     *
+     * @param knowledgeBase The knowledge base.
+     * @param query The query formula.
+     * @return True if the query is entailed.
+     */
+    public boolean query(Collection<? extends PlFormula> knowledgeBase, PlFormula query) {
+        return query(knowledgeBase, query, ReasoningBudget.unlimited());
+    }
+
+    /**
+     * Checks whether the knowledge base classically entails the query,
+     * charging the call to the budget.
+     *
+     * @param knowledgeBase The knowledge base.
+     * @param query The query formula.
+     * @param budget The budget of the request.
+     * @return True if the query is entailed.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    public boolean query(Collection<? extends PlFormula> knowledgeBase, PlFormula query, ReasoningBudget budget) {
+
+        budget.chargeSatCall();
+
+        ClauseSet clauseSet = new ClauseSet();
+        clauseSet.addAll(knowledgeBase);
+        clauseSet.add(ReasonerUtils.toNegatedFormula(query));
+
+        return !isSatisfiable(clauseSet, budget);
+    }
+
+    /**
+     * Checks whether the given formulas are classically consistent.
+     *
+     * @param formulas The formulas.
+     * @return True if the formulas are satisfiable.
+     */
+    public boolean isConsistent(Collection<? extends PlFormula> formulas) {
+        return isConsistent(formulas, ReasoningBudget.unlimited());
+    }
+
+    public boolean isConsistent(Collection<? extends PlFormula> formulas, ReasoningBudget budget) {
+
+        budget.chargeSatCall();
+
+        ClauseSet clauseSet = new ClauseSet();
+        clauseSet.addAll(formulas);
+
+        return isSatisfiable(clauseSet, budget);
+    }
+
+    protected boolean isSatisfiable(ClauseSet clauseSet, ReasoningBudget budget) {
+
+        CnfFragment fragment = clauseSet.getFragment();
+
+        if (fragment != CnfFragment.General) {
+            return isSatisfiable(createFragmentSolver(fragment), clauseSet, budget);
+        }
+
+        ISatSolver solver = _pool.borrow();
+
+        try {
+            return isSatisfiable(solver, clauseSet, budget);
+        } finally {
+            _pool.release(solver);
+        }
+    }
+
+    /**
+     * Creates the linear-time solver of a tractable fragment.
+     *
+     * @param fragment The Horn or 2-CNF fragment.
+     * @return The solver.
+     */
+    static ISatSolver createFragmentSolver(CnfFragment fragment) {
+        return fragment == CnfFragment.Horn ? new HornSatSolver() : new TwoSatSolver();
+    }
+
+    static boolean isSatisfiable(ISatSolver solver, ClauseSet clauseSet, ReasoningBudget budget) {
+
+        solver.newVariables(clauseSet.getMaxVariable());
+
+        for (int[] clause : clauseSet.getClauses()) {
+            solver.addClause(clause);
+        }
+
+        return solver.isSatisfiable(new int[0], budget);
+    }
+}
@@ -0,0 +1,22 @@
+package uct.cs.klm.algorithms.sat;
+
+import uct.cs.klm.algorithms.enums.SatBackendType;
+
+/**
+ * This class represents the in-process DPLL (CDCL) SAT backend.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class DpllBackend implements ISatBackend {
+
+    @Override
+    public SatBackendType getType() {
+        return SatBackendType.Dpll;
+    }
+
+    @Override
+    public ISatSolver createSolver() {
+        return new DpllSatSolver();
+    }
+}
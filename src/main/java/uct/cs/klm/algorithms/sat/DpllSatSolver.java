@@ -0,0 +1,589 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.Arrays;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+
+/**
+ * This class represents a small conflict-driven (CDCL) DPLL solver.
+ *
+ * It is tuned for the instances produced by the KLM reasoners, which have tens
+ * to a few hundred variables: the whole state lives in primitive arrays, unit
+ * propagation uses two watched literals, conflicts are analysed to the first
+ * unique implication point, and decisions pick the most active free variable
+ * by a linear scan instead of maintaining a heap. Learned clauses are kept
+ * between calls, so the solver works incrementally under assumptions, and
+ * reset keeps the allocated arrays so pooled instances do not reallocate.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class DpllSatSolver implements ISatSolver {
+
+    private static final byte UNASSIGNED = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+
+    private static final int NO_REASON = -1;
+
+    private static final double ACTIVITY_DECAY = 0.95;
+    private static final double ACTIVITY_LIMIT = 1e100;
+
+    private static final int FIRST_RESTART = 100;
+    private static final double RESTART_GROWTH = 1.5;
+
+    private static final int MAX_LEARNED_CLAUSES = 4096;
+
+    // clause c occupies _literals[_starts[c] .. _starts[c] + _sizes[c])
+    private int[] _literals = new int[256];
+    private int _literalCount = 0;
+    private int[] _starts = new int[64];
+    private int[] _sizes = new int[64];
+    private boolean[] _isLearned = new boolean[64];
+    private int _clauseCount = 0;
+    private int _learnedCount = 0;
+
+    // watch lists indexed by literal code, see code(int)
+    private int[][] _watches = new int[0][];
+    private int[] _watchCounts = new int[0];
+
+    // per variable state
+    private int _variableCount = 0;
+    private byte[] _values = new byte[1];
+    private int[] _levels = new int[1];
+    private int[] _reasons = new int[1];
+    private double[] _activity = new double[1];
+    private boolean[] _phase = new boolean[1];
+    private boolean[] _seen = new boolean[1];
+
+    private int[] _trail = new int[1];
+    private int _trailSize = 0;
+    private int _propagationHead = 0;
+    private int[] _levelStarts = new int[1];
+    private int _decisionLevel = 0;
+
+    private double _activityIncrement = 1.0;
+    private int[] _learnedBuffer = new int[16];
+    private int _learnedBacktrackLevel = 0;
+    private boolean _isContradictory = false;
+
+    @Override
+    public void newVariables(int maxVariable) {
+
+        if (maxVariable <= _variableCount) {
+            return;
+        }
+
+        if (maxVariable >= _values.length) {
+            grow(Math.max(maxVariable + 1, 2 * _values.length));
+        }
+
+        _variableCount = maxVariable;
+    }
+
+    @Override
+    public void reset() {
+
+        int end = _variableCount + 1;
+        Arrays.fill(_values, 0, end, UNASSIGNED);
+        Arrays.fill(_activity, 0, end, 0.0);
+        Arrays.fill(_phase, 0, end, false);
+        Arrays.fill(_watchCounts, 0);
+
+        _variableCount = 0;
+        _literalCount = 0;
+        _clauseCount = 0;
+        _learnedCount = 0;
+        _trailSize = 0;
+        _propagationHead = 0;
+        _decisionLevel = 0;
+        _activityIncrement = 1.0;
+        _isContradictory = false;
+    }
+
+    private void grow(int capacity) {
+
+        _values = Arrays.copyOf(_values, capacity);
+        _levels = Arrays.copyOf(_levels, capacity);
+        _reasons = Arrays.copyOf(_reasons, capacity);
+        _activity = Arrays.copyOf(_activity, capacity);
+        _phase = Arrays.copyOf(_phase, capacity);
+        _seen = Arrays.copyOf(_seen, capacity);
+        _trail = Arrays.copyOf(_trail, capacity);
+        _levelStarts = Arrays.copyOf(_levelStarts, Math.max(_levelStarts.length, capacity + 1));
+
+        int oldCodes = _watches.length;
+        _watches = Arrays.copyOf(_watches, 2 * capacity);
+        _watchCounts = Arrays.copyOf(_watchCounts, 2 * capacity);
+        for (int i = oldCodes; i < _watches.length; i++) {
+            _watches[i] = new int[4];
+        }
+    }
+
+    @Override
+    public void addClause(int[] clause) {
+
+        if (_isContradictory) {
+            return;
+        }
+
+        int[] literals = new int[clause.length];
+        int size = 0;
+
+        for (int literal : clause) {
+            newVariables(Math.abs(literal));
+
+            byte value = rootValue(literal);
+            if (value == TRUE) {
+                return;
+            }
+            if (value == FALSE) {
+                continue;
+            }
+
+            boolean isDuplicate = false;
+            for (int i = 0; i < size; i++) {
+                if (literals[i] == literal) {
+                    isDuplicate = true;
+                    break;
+                }
+                if (literals[i] == -literal) {
+                    // tautology
+                    return;
+                }
+            }
+
+            if (!isDuplicate) {
+                literals[size++] = literal;
+            }
+        }
+
+        if (size == 0) {
+            _isContradictory = true;
+            return;
+        }
+
+        if (size == 1) {
+            enqueue(literals[0], NO_REASON);
+            return;
+        }
+
+        storeClause(literals, size, false);
+    }
+
+    @Override
+    public boolean isSatisfiable(int[] assumptions, ReasoningBudget budget) {
+
+        if (_isContradictory) {
+            return false;
+        }
+
+        for (int assumption : assumptions) {
+            newVariables(Math.abs(assumption));
+        }
+
+        if (_learnedCount > MAX_LEARNED_CLAUSES) {
+            reduceLearnedClauses();
+        }
+
+        try {
+            return search(assumptions, budget);
+        } finally {
+            backtrack(0);
+        }
+    }
+
+    private boolean search(int[] assumptions, ReasoningBudget budget) {
+
+        int conflicts = 0;
+        double restartLimit = FIRST_RESTART;
+
+        while (true) {
+
+            int conflict = propagate();
+
+            if (conflict != NO_REASON) {
+
+                if (_decisionLevel == 0) {
+                    _isContradictory = true;
+                    return false;
+                }
+
+                conflicts++;
+                budget.chargeConflict();
+
+                int learnedSize = analyse(conflict);
+                backtrack(_learnedBacktrackLevel);
+
+                if (learnedSize == 1) {
+                    enqueue(_learnedBuffer[0], NO_REASON);
+                } else {
+                    int learned = storeClause(_learnedBuffer, learnedSize, true);
+                    enqueue(_learnedBuffer[0], learned);
+                }
+
+                decayActivity();
+                continue;
+            }
+
+            if (conflicts >= restartLimit) {
+                conflicts = 0;
+                restartLimit *= RESTART_GROWTH;
+                backtrack(0);
+                continue;
+            }
+
+            if (_decisionLevel < assumptions.length) {
+
+                int assumption = assumptions[_decisionLevel];
+                byte value = value(assumption);
+
+                if (value == FALSE) {
+                    return false;
+                }
+
+                newDecisionLevel();
+                if (value == UNASSIGNED) {
+                    enqueue(assumption, NO_REASON);
+                }
+                continue;
+            }
+
+            int variable = pickBranchVariable();
+            if (variable == 0) {
+                return true;
+            }
+
+            newDecisionLevel();
+            enqueue(_phase[variable] ? variable : -variable, NO_REASON);
+        }
+    }
+
+    /**
+     * Propagates the pending assignments on the trail.
+     *
+     * @return The conflicting clause, or NO_REASON.
+     */
+    private int propagate() {
+
+        while (_propagationHead < _trailSize) {
+
+            int falseLiteral = -_trail[_propagationHead++];
+            int falseCode = code(falseLiteral);
+            int[] watches = _watches[falseCode];
+            int count = _watchCounts[falseCode];
+            int i = 0;
+            int j = 0;
+
+            while (i < count) {
+
+                int clause = watches[i++];
+                int start = _starts[clause];
+                int size = _sizes[clause];
+
+                // keep the false literal in the second watch position
+                if (_literals[start] == falseLiteral) {
+                    _literals[start] = _literals[start + 1];
+                    _literals[start + 1] = falseLiteral;
+                }
+
+                int first = _literals[start];
+                if (value(first) == TRUE) {
+                    watches[j++] = clause;
+                    continue;
+                }
+
+                boolean isMoved = false;
+                for (int k = 2; k < size; k++) {
+                    int literal = _literals[start + k];
+                    if (value(literal) != FALSE) {
+                        _literals[start + 1] = literal;
+                        _literals[start + k] = falseLiteral;
+                        addWatch(literal, clause);
+                        isMoved = true;
+                        break;
+                    }
+                }
+
+                if (isMoved) {
+                    continue;
+                }
+
+                watches[j++] = clause;
+
+                if (value(first) == FALSE) {
+                    while (i < count) {
+                        watches[j++] = watches[i++];
+                    }
+                    _watchCounts[falseCode] = j;
+                    _propagationHead = _trailSize;
+                    return clause;
+                }
+
+                enqueue(first, clause);
+            }
+
+            _watchCounts[falseCode] = j;
+        }
+
+        return NO_REASON;
+    }
+
+    /**
+     * Derives the first-UIP clause of the conflict into _learnedBuffer, with
+     * the asserting literal first and a literal of the backtrack level second.
+     *
+     * @param conflict The conflicting clause.
+     * @return The size of the learned clause.
+     */
+    private int analyse(int conflict) {
+
+        int size = 1;
+        int pathCount = 0;
+        int literal = 0;
+        int index = _trailSize - 1;
+        int clause = conflict;
+
+        do {
+            int start = _starts[clause];
+            int end = start + _sizes[clause];
+
+            // the implied literal of a reason clause sits first
+            for (int k = (literal == 0 ? start : start + 1); k < end; k++) {
+
+                int other = _literals[k];
+                int variable = Math.abs(other);
+
+                if (_seen[variable] || _levels[variable] == 0) {
+                    continue;
+                }
+
+                _seen[variable] = true;
+                bumpActivity(variable);
+
+                if (_levels[variable] >= _decisionLevel) {
+                    pathCount++;
+                } else {
+                    if (size == _learnedBuffer.length) {
+                        _learnedBuffer = Arrays.copyOf(_learnedBuffer, size * 2);
+                    }
+                    _learnedBuffer[size++] = other;
+                }
+            }
+
+            while (!_seen[Math.abs(_trail[index])]) {
+                index--;
+            }
+
+            literal = _trail[index--];
+            clause = _reasons[Math.abs(literal)];
+            _seen[Math.abs(literal)] = false;
+            pathCount--;
+
+        } while (pathCount > 0);
+
+        _learnedBuffer[0] = -literal;
+
+        int backtrackLevel = 0;
+        int backtrackIndex = 1;
+
+        for (int i = 1; i < size; i++) {
+            int variable = Math.abs(_learnedBuffer[i]);
+            _seen[variable] = false;
+
+            if (_levels[variable] > backtrackLevel) {
+                backtrackLevel = _levels[variable];
+                backtrackIndex = i;
+            }
+        }
+
+        if (size > 1) {
+            int swap = _learnedBuffer[1];
+            _learnedBuffer[1] = _learnedBuffer[backtrackIndex];
+            _learnedBuffer[backtrackIndex] = swap;
+        }
+
+        _learnedBacktrackLevel = backtrackLevel;
+        return size;
+    }
+
+    private int pickBranchVariable() {
+
+        int best = 0;
+        double bestActivity = -1.0;
+
+        for (int variable = 1; variable <= _variableCount; variable++) {
+            if (_values[variable] == UNASSIGNED && _activity[variable] > bestActivity) {
+                best = variable;
+                bestActivity = _activity[variable];
+            }
+        }
+
+        return best;
+    }
+
+    private void newDecisionLevel() {
+        if (_decisionLevel + 1 == _levelStarts.length) {
+            _levelStarts = Arrays.copyOf(_levelStarts, _levelStarts.length * 2);
+        }
+        _levelStarts[++_decisionLevel] = _trailSize;
+    }
+
+    private void backtrack(int level) {
+
+        if (_decisionLevel <= level) {
+            return;
+        }
+
+        int limit = _levelStarts[level + 1];
+
+        for (int i = _trailSize - 1; i >= limit; i--) {
+            int variable = Math.abs(_trail[i]);
+            _phase[variable] = _values[variable] == TRUE;
+            _values[variable] = UNASSIGNED;
+            _reasons[variable] = NO_REASON;
+        }
+
+        _trailSize = limit;
+        _propagationHead = limit;
+        _decisionLevel = level;
+    }
+
+    private void enqueue(int literal, int reason) {
+
+        int variable = Math.abs(literal);
+        _values[variable] = literal > 0 ? TRUE : FALSE;
+        _levels[variable] = _decisionLevel;
+        _reasons[variable] = reason;
+        _trail[_trailSize++] = literal;
+    }
+
+    private int storeClause(int[] literals, int size, boolean isLearned) {
+
+        if (_clauseCount == _starts.length) {
+            int capacity = _clauseCount * 2;
+            _starts = Arrays.copyOf(_starts, capacity);
+            _sizes = Arrays.copyOf(_sizes, capacity);
+            _isLearned = Arrays.copyOf(_isLearned, capacity);
+        }
+
+        if (_literalCount + size > _literals.length) {
+            _literals = Arrays.copyOf(_literals, Math.max(_literals.length * 2, _literalCount + size));
+        }
+
+        int clause = _clauseCount++;
+        _starts[clause] = _literalCount;
+        _sizes[clause] = size;
+        _isLearned[clause] = isLearned;
+        System.arraycopy(literals, 0, _literals, _literalCount, size);
+        _literalCount += size;
+
+        if (isLearned) {
+            _learnedCount++;
+        }
+
+        addWatch(literals[0], clause);
+        addWatch(literals[1], clause);
+
+        return clause;
+    }
+
+    /**
+     * Drops all learned clauses. Only called at decision level 0, where no
+     * assignment depends on a learned clause as its reason (level 0 reasons
+     * are never inspected), and rebuilds the watch lists.
+     */
+    private void reduceLearnedClauses() {
+
+        int clauses = 0;
+        int literals = 0;
+
+        for (int clause = 0; clause < _clauseCount; clause++) {
+
+            if (_isLearned[clause]) {
+                continue;
+            }
+
+            int start = _starts[clause];
+            int size = _sizes[clause];
+            System.arraycopy(_literals, start, _literals, literals, size);
+            _starts[clauses] = literals;
+            _sizes[clauses] = size;
+            _isLearned[clauses] = false;
+            literals += size;
+            clauses++;
+        }
+
+        _clauseCount = clauses;
+        _literalCount = literals;
+        _learnedCount = 0;
+
+        Arrays.fill(_watchCounts, 0);
+        for (int clause = 0; clause < _clauseCount; clause++) {
+            addWatch(_literals[_starts[clause]], clause);
+            addWatch(_literals[_starts[clause] + 1], clause);
+        }
+
+        for (int i = 0; i < _trailSize; i++) {
+            _reasons[Math.abs(_trail[i])] = NO_REASON;
+        }
+    }
+
+    private void addWatch(int literal, int clause) {
+
+        int code = code(literal);
+        int count = _watchCounts[code];
+
+        if (count == _watches[code].length) {
+            _watches[code] = Arrays.copyOf(_watches[code], count * 2);
+        }
+
+        _watches[code][count] = clause;
+        _watchCounts[code] = count + 1;
+    }
+
+    private void bumpActivity(int variable) {
+
+        _activity[variable] += _activityIncrement;
+
+        if (_activity[variable] > ACTIVITY_LIMIT) {
+            for (int i = 1; i <= _variableCount; i++) {
+                _activity[i] /= ACTIVITY_LIMIT;
+            }
+            _activityIncrement /= ACTIVITY_LIMIT;
+        }
+    }
+
+    private void decayActivity() {
+        _activityIncrement /= ACTIVITY_DECAY;
+    }
+
+    @Override
+    public boolean getModelValue(int variable) {
+
+        // the search backtracks to level zero, saving the model as the phases
+        if (_values[variable] != UNASSIGNED) {
+            return _values[variable] == TRUE;
+        }
+
+        return _phase[variable];
+    }
+
+    private byte value(int literal) {
+        byte value = _values[Math.abs(literal)];
+        return literal > 0 ? value : (byte) -value;
+    }
+
+    private byte rootValue(int literal) {
+        int variable = Math.abs(literal);
+        // only assignments made at level 0 are permanent
+        if (_values[variable] == UNASSIGNED || _levels[variable] > 0) {
+            return UNASSIGNED;
+        }
+        return value(literal);
+    }
+
+    private static int code(int literal) {
+        return literal > 0 ? 2 * literal : -2 * literal + 1;
+    }
+}
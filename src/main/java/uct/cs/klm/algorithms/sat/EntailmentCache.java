@@ -0,0 +1,154 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.utils.Fingerprint;
+
+/**
+ * This class represents a bounded cache of classical entailment results keyed
+ * by knowledge base fingerprint and query formula.
+ *
+ * Entries are kept in access-ordered (LRU) segments so that concurrent
+ * reasoners do not contend on a single lock. A shared instance sits in front
+ * of the SAT calls of every KLM reasoner, across requests.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class EntailmentCache {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int DEFAULT_CAPACITY = 65_536;
+
+    private static final EntailmentCache _shared = new EntailmentCache(DEFAULT_CAPACITY);
+
+    private final Segment[] _segments;
+
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most (roughly) the given number of entries.
+     *
+     * @param capacity The maximum number of entries.
+     */
+    public EntailmentCache(int capacity) {
+        int segmentCapacity = Math.max(1, capacity / SEGMENT_COUNT);
+        _segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            _segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Gets the cache shared by all reasoners.
+     *
+     * @return The shared cache.
+     */
+    public static EntailmentCache getShared() {
+        return _shared;
+    }
+
+    /**
+     * Gets the cached result for the query or computes and stores it.
+     *
+     * @param knowledgeBase The fingerprint of the (materialised) knowledge base.
+     * @param query The query formula.
+     * @param reasoner Computes the entailment on a miss.
+     * @return True if the knowledge base entails the query.
+     */
+    public boolean getOrCompute(Fingerprint knowledgeBase, PlFormula query, BooleanSupplier reasoner) {
+
+        Key key = new Key(knowledgeBase, query);
+        Segment segment = _segments[Math.floorMod(key.hashCode(), SEGMENT_COUNT)];
+
+        Boolean result;
+        synchronized (segment) {
+            result = segment.get(key);
+        }
+
+        if (result != null) {
+            _hits.increment();
+            return result;
+        }
+
+        _misses.increment();
+        boolean isEntailed = reasoner.getAsBoolean();
+
+        synchronized (segment) {
+            segment.put(key, isEntailed);
+        }
+
+        return isEntailed;
+    }
+
+    public long getHits() {
+        return _hits.sum();
+    }
+
+    public long getMisses() {
+        return _misses.sum();
+    }
+
+    public long getEvictions() {
+        return _evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : _segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        for (Segment segment : _segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        _hits.reset();
+        _misses.reset();
+        _evictions.reset();
+    }
+
+    private record Key(Fingerprint knowledgeBase, PlFormula query) {
+    }
+
+    private final class Segment extends LinkedHashMap<Key, Boolean> {
+
+        private final int _capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            _capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            if (size() > _capacity) {
+                _evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
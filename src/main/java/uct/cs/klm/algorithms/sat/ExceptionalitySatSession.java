@@ -0,0 +1,199 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.enums.CnfFragment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.utils.ReasonerUtils;
+
+/**
+ * This class represents an incremental SAT session for the exceptionality
+ * checks of a base rank construction.
+ *
+ * The materialised classical formulas are loaded unguarded and every
+ * materialised defeasible formula is guarded by a selector literal of its
+ * own. An antecedent is checked against the formulas still in play by
+ * assuming their selectors and the antecedent: it is exceptional when that is
+ * unsatisfiable. Each iteration of the construction only drops formulas, so
+ * the learned clauses stay valid from one iteration to the next. Workers
+ * borrow solvers from the shared clause log of the session, as in a rank
+ * session.
+ *
+ * When the formulas are all Horn or 2-CNF the check is decided directly by
+ * the linear-time solver of that fragment instead. The block of each formula
+ * is then looked up once, and the clause set of the formulas in play is built
+ * once per collection of them, i.e. once per rank, and copied for each
+ * antecedent.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class ExceptionalitySatSession {
+
+    private static final Logger _logger = LoggerFactory.getLogger(ExceptionalitySatSession.class);
+
+    private final List<ClauseBlock> _classicalBlocks = new ArrayList<>();
+    private final Map<PlFormula, ClauseBlock> _defeasibleBlocks = new HashMap<>();
+    private final Map<PlFormula, Integer> _selectors = new HashMap<>();
+    private final boolean _isTractable;
+
+    // the clause set of the last collection of defeasible formulas in play
+    private final AtomicReference<InPlayClauses> _inPlayClauses = new AtomicReference<>();
+
+    private final SharedClauseLog _clauseLog;
+    private final LongAdder _satCalls = new LongAdder();
+
+    /**
+     * Loads the defeasible and classical formulas of a knowledge base into a
+     * new session.
+     *
+     * @param defeasible The defeasible formulas.
+     * @param classical The classical formulas.
+     * @param backend The SAT backend of the session solver.
+     */
+    public ExceptionalitySatSession(
+            Collection<? extends PlFormula> defeasible,
+            Collection<? extends PlFormula> classical,
+            ISatBackend backend) {
+
+        _clauseLog = new SharedClauseLog(backend);
+
+        boolean isHorn = true;
+        boolean isTwoCnf = true;
+
+        for (PlFormula formula : classical) {
+            PlFormula materialised = ReasonerUtils.toMaterialisedFormula(formula);
+            _clauseLog.addClause(_clauseLog.encode(materialised));
+
+            ClauseBlock block = ClauseBlockCache.get(materialised);
+            _classicalBlocks.add(block);
+            isHorn &= block.isHorn();
+            isTwoCnf &= block.isTwoCnf();
+        }
+
+        for (PlFormula formula : defeasible) {
+
+            int selector = _clauseLog.newVariable();
+            _selectors.put(formula, selector);
+
+            PlFormula materialised = ReasonerUtils.toMaterialisedFormula(formula);
+            int literal = _clauseLog.encode(materialised);
+            _clauseLog.addClause(literal, -selector);
+
+            ClauseBlock block = ClauseBlockCache.get(materialised);
+            _defeasibleBlocks.put(formula, block);
+            isHorn &= block.isHorn();
+            isTwoCnf &= block.isTwoCnf();
+        }
+
+        _isTractable = isHorn || isTwoCnf;
+    }
+
+    /**
+     * Gets the number of SAT calls made by this session.
+     *
+     * @return The number of SAT calls.
+     */
+    public long getSatCalls() {
+        return _satCalls.sum();
+    }
+
+    /**
+     * Checks whether the classical formulas and the given defeasible formulas
+     * of this session, materialised, entail the negation of the antecedent,
+     * charging the call to the budget.
+     *
+     * @param defeasible The defeasible formulas in play, loaded into this
+     * session; a collection is not to change once it has been checked
+     * against.
+     * @param antecedent The antecedent to check.
+     * @param budget The budget of the request.
+     * @return True if the antecedent is exceptional.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    public boolean isExceptional(Collection<? extends PlFormula> defeasible, PlFormula antecedent, ReasoningBudget budget) {
+
+        budget.chargeSatCall();
+
+        if (_isTractable) {
+
+            ClauseSet inPlayClauses = toInPlayClauses(defeasible);
+            ClauseSet clauseSet = new ClauseSet(inPlayClauses, inPlayClauses.mark());
+            clauseSet.add(antecedent);
+
+            CnfFragment fragment = clauseSet.getFragment();
+
+            if (fragment != CnfFragment.General) {
+                _satCalls.increment();
+                return !CnfSatReasoner.isSatisfiable(CnfSatReasoner.createFragmentSolver(fragment), clauseSet, budget);
+            }
+        }
+
+        int[] assumptions = new int[defeasible.size() + 1];
+        int count = 0;
+
+        for (PlFormula formula : defeasible) {
+            Integer selector = _selectors.get(formula);
+            if (selector == null) {
+                throw new IllegalArgumentException(String.format("The formula %s is not loaded into the session", formula));
+            }
+            assumptions[count++] = selector;
+        }
+        assumptions[count] = _clauseLog.encode(antecedent);
+
+        _satCalls.increment();
+        boolean isExceptional = !_clauseLog.isSatisfiable(assumptions, budget);
+
+        if (_logger.isDebugEnabled()) {
+            _logger.debug("  Session[{} formulas] exceptional {}: {}", defeasible.size(), antecedent, isExceptional);
+        }
+
+        return isExceptional;
+    }
+
+    private ClauseSet toInPlayClauses(Collection<? extends PlFormula> defeasible) {
+
+        InPlayClauses inPlayClauses = _inPlayClauses.get();
+
+        if (inPlayClauses == null || inPlayClauses.defeasible() != defeasible) {
+
+            // the first check against a collection builds its clause set, the others wait for it
+            synchronized (_inPlayClauses) {
+
+                inPlayClauses = _inPlayClauses.get();
+
+                if (inPlayClauses == null || inPlayClauses.defeasible() != defeasible) {
+
+                    ClauseSet clauseSet = new ClauseSet();
+                    _classicalBlocks.forEach(clauseSet::add);
+
+                    for (PlFormula formula : defeasible) {
+                        ClauseBlock block = _defeasibleBlocks.get(formula);
+                        if (block == null) {
+                            throw new IllegalArgumentException(String.format("The formula %s is not loaded into the session", formula));
+                        }
+                        clauseSet.add(block);
+                    }
+
+                    inPlayClauses = new InPlayClauses(defeasible, clauseSet);
+                    _inPlayClauses.set(inPlayClauses);
+                }
+            }
+        }
+
+        return inPlayClauses.clauseSet();
+    }
+
+    private record InPlayClauses(Collection<? extends PlFormula> defeasible, ClauseSet clauseSet) {
+    }
+}
@@ -0,0 +1,143 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+
+/**
+ * This class represents a linear-time satisfiability check for Horn clauses
+ * (at most one positive literal per clause).
+ *
+ * Every variable starts false and is only set true when forced by a clause
+ * whose negative literals are all true, counting down the open negative
+ * literals of each clause (Dowling and Gallier). The clauses are unsatisfiable
+ * exactly when a clause without a positive literal loses all its literals.
+ * Assumptions are added as unit clauses, which keeps the set Horn.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class HornSatSolver implements ISatSolver {
+
+    private final List<int[]> _clauses = new ArrayList<>();
+    private int _maxVariable = 0;
+
+    // the least model of the last satisfiable call
+    private boolean[] _model = new boolean[1];
+
+    @Override
+    public void newVariables(int maxVariable) {
+        _maxVariable = Math.max(_maxVariable, maxVariable);
+    }
+
+    @Override
+    public void addClause(int[] clause) {
+        for (int literal : clause) {
+            _maxVariable = Math.max(_maxVariable, Math.abs(literal));
+        }
+        _clauses.add(clause);
+    }
+
+    @Override
+    public void reset() {
+        _clauses.clear();
+        _maxVariable = 0;
+    }
+
+    @Override
+    public boolean isSatisfiable(int[] assumptions, ReasoningBudget budget) {
+
+        budget.check();
+
+        int clauseCount = _clauses.size() + assumptions.length;
+        int[] heads = new int[clauseCount];
+        int[] open = new int[clauseCount];
+
+        // occurrence lists of negative literals, in compressed row form
+        int[] occurrenceStarts = new int[_maxVariable + 2];
+
+        for (int c = 0; c < clauseCount; c++) {
+            for (int literal : clause(c, assumptions)) {
+                if (literal < 0) {
+                    occurrenceStarts[-literal + 1]++;
+                }
+            }
+        }
+
+        for (int variable = 1; variable <= _maxVariable; variable++) {
+            occurrenceStarts[variable + 1] += occurrenceStarts[variable];
+        }
+
+        int[] occurrences = new int[occurrenceStarts[_maxVariable + 1]];
+        int[] fill = occurrenceStarts.clone();
+
+        boolean[] isTrue = new boolean[_maxVariable + 1];
+        int[] queue = new int[_maxVariable];
+        int queueTail = 0;
+
+        for (int c = 0; c < clauseCount; c++) {
+
+            int head = 0;
+
+            for (int literal : clause(c, assumptions)) {
+                if (literal > 0) {
+                    if (head != 0 && head != literal) {
+                        throw new IllegalArgumentException("Not a Horn clause");
+                    }
+                    head = literal;
+                } else {
+                    occurrences[fill[-literal]++] = c;
+                    open[c]++;
+                }
+            }
+
+            heads[c] = head;
+
+            if (open[c] == 0) {
+                if (head == 0) {
+                    return false;
+                }
+                if (!isTrue[head]) {
+                    isTrue[head] = true;
+                    queue[queueTail++] = head;
+                }
+            }
+        }
+
+        for (int queueHead = 0; queueHead < queueTail; queueHead++) {
+
+            int variable = queue[queueHead];
+
+            for (int i = occurrenceStarts[variable]; i < occurrenceStarts[variable + 1]; i++) {
+
+                int c = occurrences[i];
+
+                if (--open[c] == 0) {
+                    int head = heads[c];
+                    if (head == 0) {
+                        return false;
+                    }
+                    if (!isTrue[head]) {
+                        isTrue[head] = true;
+                        queue[queueTail++] = head;
+                    }
+                }
+            }
+        }
+
+        _model = isTrue;
+        return true;
+    }
+
+    @Override
+    public boolean getModelValue(int variable) {
+        return variable < _model.length && _model[variable];
+    }
+
+    private int[] clause(int index, int[] assumptions) {
+        return index < _clauses.size()
+                ? _clauses.get(index)
+                : new int[]{assumptions[index - _clauses.size()]};
+    }
+}
@@ -0,0 +1,22 @@
+package uct.cs.klm.algorithms.sat;
+
+import uct.cs.klm.algorithms.enums.SatBackendType;
+
+/**
+ * This interface represents a SAT backend, the factory of the solver
+ * instances a reasoner works with.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public interface ISatBackend {
+
+    SatBackendType getType();
+
+    /**
+     * Creates a new, empty solver.
+     *
+     * @return The solver.
+     */
+    ISatSolver createSolver();
+}
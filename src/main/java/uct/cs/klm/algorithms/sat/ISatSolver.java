@@ -0,0 +1,71 @@
+package uct.cs.klm.algorithms.sat;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+
+/**
+ * This interface represents an incremental SAT solver over DIMACS style
+ * clauses.
+ *
+ * Clauses can be added between calls, and each call may be made under a set
+ * of assumption literals. Instances are not thread-safe; concurrent callers
+ * borrow their own instance from a SolverPool.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public interface ISatSolver {
+
+    /**
+     * Declares the variables 1..maxVariable.
+     *
+     * @param maxVariable The highest variable in use.
+     */
+    void newVariables(int maxVariable);
+
+    /**
+     * Adds a clause. An empty clause makes the solver unsatisfiable.
+     *
+     * @param clause The literals of the clause.
+     */
+    void addClause(int[] clause);
+
+    /**
+     * Checks whether the clauses are satisfiable with the given literals
+     * assumed true.
+     *
+     * @param assumptions The assumption literals.
+     * @return True if satisfiable.
+     */
+    default boolean isSatisfiable(int[] assumptions) {
+        return isSatisfiable(assumptions, ReasoningBudget.unlimited());
+    }
+
+    default boolean isSatisfiable() {
+        return isSatisfiable(new int[0]);
+    }
+
+    /**
+     * Checks satisfiability under assumptions, charging conflicts and
+     * wall-clock time to the budget.
+     *
+     * @param assumptions The assumption literals.
+     * @param budget The budget of the request.
+     * @return True if satisfiable.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    boolean isSatisfiable(int[] assumptions, ReasoningBudget budget);
+
+    /**
+     * Gets the value of a variable in the model found by the last call, which
+     * must have been satisfiable. The model is only kept until the next call.
+     *
+     * @param variable The variable.
+     * @return True if the variable is true in the model.
+     */
+    boolean getModelValue(int variable);
+
+    /**
+     * Removes all variables and clauses so the instance can be reused.
+     */
+    void reset();
+}
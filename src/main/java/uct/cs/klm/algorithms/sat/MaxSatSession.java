@@ -0,0 +1,350 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.utils.FormulaSubsetIndex;
+
+/**
+ * This class represents a MaxSAT session over the subsets of a formula subset
+ * index, for the powersets of lexicographic closure.
+ *
+ * The fixed formulas of the index and an antecedent are hard, and every
+ * indexed formula is guarded by a selector of its own. The session finds the
+ * first subset, in the order of orderedSubsets, that is consistent with the
+ * hard formulas, without trying the subsets before it: the order is
+ * lexicographic over the size of a subset, then its count of each rank from
+ * the highest down, then its count of each run of one text, then the subset
+ * as a long, so each of these is maximised in turn with the earlier ones
+ * fixed. Counts are bounded by totalisers over the selectors and raised past
+ * each model found until the solver finds no model; a session may instead
+ * binary search each count, which bounds the calls by the logarithm of the
+ * count rather than the count.
+ *
+ * A walk blocks the subsets of the subsets it has tried, with clauses that
+ * hold only while its literal is assumed, so the next subset it finds is the
+ * first consistent one that is not within a tried subset.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class MaxSatSession {
+
+    private static final Logger _logger = LoggerFactory.getLogger(MaxSatSession.class);
+
+    // returned when no subset is consistent with the hard formulas
+    public static final long NO_SUBSET = -1L;
+
+    private final FormulaSubsetIndex _index;
+    private final boolean _isBinarySearch;
+
+    private final int[] _selectors;
+    private final int[] _formulaLiterals;
+    private final int[] _rankStarts;
+    private final int[] _textStarts;
+
+    // over every formula, each rank and each run of one text that is not a whole rank
+    private final Totaliser _sizeTotaliser;
+    private final Totaliser[] _rankTotalisers;
+    private final Totaliser[] _textTotalisers;
+
+    // the formulas whose run holds other formulas, told apart by bit
+    private final long _tiedSubset;
+
+    private final CnfEncoder _encoder = new CnfEncoder();
+    private final List<int[]> _clauseLog = new ArrayList<>();
+    private final ISatSolver _solver;
+    private int _loadedClauses = 0;
+    private long _satCalls = 0;
+
+    // the formulas satisfied by the last model found
+    private long _model;
+
+    private Long _firstSubset;
+
+    /**
+     * Loads the hard and indexed formulas into a new session.
+     *
+     * @param index The formula subset index.
+     * @param antecedent The antecedent, hard with the fixed formulas.
+     * @param backend The SAT backend of the session solver.
+     */
+    public MaxSatSession(FormulaSubsetIndex index, PlFormula antecedent, ISatBackend backend) {
+        this(index, antecedent, backend, false);
+    }
+
+    /**
+     * Loads the hard and indexed formulas into a new session.
+     *
+     * @param index The formula subset index.
+     * @param antecedent The antecedent, hard with the fixed formulas.
+     * @param backend The SAT backend of the session solver.
+     * @param isBinarySearch Whether each count is binary searched.
+     */
+    public MaxSatSession(FormulaSubsetIndex index, PlFormula antecedent, ISatBackend backend, boolean isBinarySearch) {
+
+        _index = index;
+        _isBinarySearch = isBinarySearch;
+        _solver = backend.createSolver();
+
+        for (PlFormula formula : index.getFixedFormulas()) {
+            _clauseLog.add(new int[]{_encoder.encode(formula, _clauseLog)});
+        }
+        _clauseLog.add(new int[]{_encoder.encode(antecedent, _clauseLog)});
+
+        _selectors = new int[index.size()];
+        _formulaLiterals = new int[index.size()];
+
+        for (int bit = 0; bit < index.size(); bit++) {
+            _selectors[bit] = _encoder.newVariable();
+            _formulaLiterals[bit] = _encoder.encode(index.getFormula(bit), _clauseLog);
+            _clauseLog.add(new int[]{_formulaLiterals[bit], -_selectors[bit]});
+        }
+
+        _rankStarts = index.getRankStarts();
+        _textStarts = index.getTextStarts();
+
+        _sizeTotaliser = toTotaliser(0, index.size());
+
+        _rankTotalisers = new Totaliser[_rankStarts.length - 1];
+        for (int rank = 0; rank < _rankTotalisers.length; rank++) {
+            _rankTotalisers[rank] = toTotaliser(_rankStarts[rank], _rankStarts[rank + 1]);
+        }
+
+        long tiedSubset = 0L;
+        _textTotalisers = new Totaliser[_textStarts.length - 1];
+
+        for (int run = 0; run < _textTotalisers.length; run++) {
+
+            int from = _textStarts[run];
+            int to = _textStarts[run + 1];
+
+            if (!isRank(from, to)) {
+                _textTotalisers[run] = toTotaliser(from, to);
+            }
+
+            if (to - from > 1) {
+                tiedSubset |= toMask(from, to);
+            }
+        }
+
+        _tiedSubset = tiedSubset;
+    }
+
+    public FormulaSubsetIndex getIndex() {
+        return _index;
+    }
+
+    /**
+     * Gets the number of SAT calls made by this session.
+     *
+     * @return The number of SAT calls.
+     */
+    public long getSatCalls() {
+        return _satCalls;
+    }
+
+    /**
+     * Starts a walk over the consistent subsets.
+     *
+     * @return The literal of the walk, whose blocking clauses hold while it is
+     * assumed.
+     */
+    public int newWalk() {
+        return _encoder.newVariable();
+    }
+
+    /**
+     * Blocks a subset and every subset of it on a walk.
+     *
+     * @param walk The literal of the walk.
+     * @param subset The subset.
+     */
+    public void block(int walk, long subset) {
+
+        List<Integer> clause = new ArrayList<>();
+        clause.add(-walk);
+
+        for (int bit = 0; bit < _selectors.length; bit++) {
+            if ((subset & (1L << bit)) == 0) {
+                clause.add(_selectors[bit]);
+            }
+        }
+
+        _clauseLog.add(clause.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Finds the first subset in the order of orderedSubsets that is
+     * consistent with the hard formulas, the empty subset last.
+     *
+     * @param budget The budget of the request.
+     * @return The subset, or NO_SUBSET if the hard formulas are inconsistent.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    public long toFirstSubset(ReasoningBudget budget) {
+
+        if (_firstSubset == null) {
+            _firstSubset = toFirstSubset(0, budget);
+        }
+
+        return _firstSubset;
+    }
+
+    /**
+     * Finds the first subset in the order of orderedSubsets that is
+     * consistent with the hard formulas and not blocked on a walk.
+     *
+     * @param walk The literal of the walk, or 0 for none.
+     * @param budget The budget of the request.
+     * @return The subset, or NO_SUBSET if there is none.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    public long toFirstSubset(int walk, ReasoningBudget budget) {
+
+        List<Integer> assumptions = new ArrayList<>();
+        if (walk != 0) {
+            assumptions.add(walk);
+        }
+
+        if (!solve(assumptions, 0, budget)) {
+            return NO_SUBSET;
+        }
+
+        // larger subsets first, then more formulas of the higher ranks
+        fixCount(_sizeTotaliser, 0, _selectors.length, assumptions, budget);
+
+        for (int rank = 0; rank < _rankTotalisers.length; rank++) {
+            fixCount(_rankTotalisers[rank], _rankStarts[rank], _rankStarts[rank + 1], assumptions, budget);
+        }
+
+        // then more formulas of the earlier texts
+        for (int run = 0; run < _textTotalisers.length; run++) {
+            if (_textTotalisers[run] != null) {
+                fixCount(_textTotalisers[run], _textStarts[run], _textStarts[run + 1], assumptions, budget);
+            }
+        }
+
+        // then the smaller long, leaving out the highest bits of one text that can be
+        for (int bit = _selectors.length - 1; bit >= 0; bit--) {
+            if ((_tiedSubset & (1L << bit)) != 0) {
+
+                boolean isLeftOut = (_model & (1L << bit)) == 0 || solve(assumptions, -_selectors[bit], budget);
+                assumptions.add(isLeftOut ? -_selectors[bit] : _selectors[bit]);
+            }
+        }
+
+        if (_logger.isDebugEnabled()) {
+            _logger.debug("  First consistent subset: {}", _index.toFormulas(_model));
+        }
+
+        // the last model keeps the subset, as no model keeps more formulas
+        return _model;
+    }
+
+    private void fixCount(Totaliser totaliser, int from, int to, List<Integer> assumptions, ReasoningBudget budget) {
+
+        int count = _isBinarySearch
+                ? toBinarySearchCount(totaliser, from, to, assumptions, budget)
+                : toLinearSearchCount(totaliser, from, to, assumptions, budget);
+
+        if (count > 0) {
+            assumptions.add(totaliser.atLeast(count));
+        }
+    }
+
+    // raises the count past each model found until there is none
+    private int toLinearSearchCount(Totaliser totaliser, int from, int to, List<Integer> assumptions, ReasoningBudget budget) {
+
+        int count = toKeptCount(from, to);
+
+        while (count < totaliser.size() && solve(assumptions, totaliser.atLeast(count + 1), budget)) {
+            count = toKeptCount(from, to);
+        }
+
+        return count;
+    }
+
+    // binary searches the count, from that of the last model found up
+    private int toBinarySearchCount(Totaliser totaliser, int from, int to, List<Integer> assumptions, ReasoningBudget budget) {
+
+        int low = toKeptCount(from, to);
+        int high = totaliser.size();
+
+        while (low < high) {
+
+            int middle = (low + high + 1) >>> 1;
+
+            if (solve(assumptions, totaliser.atLeast(middle), budget)) {
+                low = toKeptCount(from, to);
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    private boolean solve(List<Integer> literals, int extra, ReasoningBudget budget) {
+
+        budget.chargeSatCall();
+
+        _solver.newVariables(_encoder.getMaxVariable());
+
+        for (; _loadedClauses < _clauseLog.size(); _loadedClauses++) {
+            _solver.addClause(_clauseLog.get(_loadedClauses));
+        }
+
+        int[] assumptions = new int[literals.size() + (extra != 0 ? 1 : 0)];
+        for (int index = 0; index < literals.size(); index++) {
+            assumptions[index] = literals.get(index);
+        }
+        if (extra != 0) {
+            assumptions[literals.size()] = extra;
+        }
+
+        _satCalls++;
+        boolean isSatisfiable = _solver.isSatisfiable(assumptions, budget);
+
+        // the model is only kept until the next call
+        if (isSatisfiable) {
+            _model = 0L;
+            for (int bit = 0; bit < _formulaLiterals.length; bit++) {
+                int literal = _formulaLiterals[bit];
+                if (_solver.getModelValue(Math.abs(literal)) == (literal > 0)) {
+                    _model |= 1L << bit;
+                }
+            }
+        }
+
+        return isSatisfiable;
+    }
+
+    private Totaliser toTotaliser(int from, int to) {
+        int[] inputs = new int[to - from];
+        System.arraycopy(_selectors, from, inputs, 0, inputs.length);
+        return new Totaliser(inputs, _encoder, _clauseLog);
+    }
+
+    private boolean isRank(int from, int to) {
+        for (int rank = 0; rank < _rankStarts.length - 1; rank++) {
+            if (_rankStarts[rank] == from && _rankStarts[rank + 1] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int toKeptCount(int from, int to) {
+        return Long.bitCount(_model & toMask(from, to));
+    }
+
+    private static long toMask(int from, int to) {
+        return to - from == 64 ? -1L : ((1L << (to - from)) - 1) << from;
+    }
+}
@@ -0,0 +1,196 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.enums.CnfFragment;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.utils.Fingerprint;
+import uct.cs.klm.algorithms.utils.ReasonerUtils;
+
+/**
+ * This class represents an incremental SAT session over a base ranking.
+ *
+ * The materialised formulas of every rank are loaded into a single
+ * incremental solver once, each clause guarded by a selector literal of its rank. A rank
+ * suffix is then activated by solving under assumptions, so learned clauses
+ * carry over between removal steps and between queries on the same ranking.
+ *
+ * Concurrent queries do not queue on one solver: every worker borrows its own
+ * incremental solver from the shared clause log of the session, which first
+ * replays the part of the log it has not seen yet.
+ *
+ * When every rank is Horn or 2-CNF the suffix and the negated query are
+ * decided directly by the linear-time solver of that fragment instead. The
+ * ranks are then kept as one clause set, added from the top rank down and
+ * marked after each rank, so a suffix is copied from it rather than rebuilt.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class RankSatSession {
+
+    private static final Logger _logger = LoggerFactory.getLogger(RankSatSession.class);
+
+    private final ModelRankCollection _ranking;
+    private final int[] _selectors;
+    private final Fingerprint[] _suffixFingerprints;
+    private final boolean _isTractable;
+
+    // null unless tractable
+    private final ClauseSet _suffixClauses;
+    private final ClauseSet.Mark[] _suffixMarks;
+
+    private final SharedClauseLog _clauseLog;
+    private final LongAdder _satCalls = new LongAdder();
+
+    /**
+     * Loads the given ranking into a new session.
+     *
+     * @param ranking The base ranking.
+     * @param backend The SAT backend of the session solver.
+     */
+    public RankSatSession(ModelRankCollection ranking, ISatBackend backend) {
+
+        _ranking = new ModelRankCollection(ranking);
+        _ranking.sort(Comparator.comparingInt(ModelRank::getRankNumber));
+
+        _clauseLog = new SharedClauseLog(backend);
+        _selectors = new int[_ranking.size()];
+
+        for (int index = 0; index < _ranking.size(); index++) {
+
+            int selector = _clauseLog.newVariable();
+            _selectors[index] = selector;
+
+            for (PlFormula formula : _ranking.get(index).getFormulas()) {
+                int literal = _clauseLog.encode(formula);
+                _clauseLog.addClause(literal, -selector);
+            }
+        }
+
+        ClauseSet suffixClauses = new ClauseSet();
+        ClauseSet.Mark[] suffixMarks = new ClauseSet.Mark[_ranking.size() + 1];
+        suffixMarks[_ranking.size()] = suffixClauses.mark();
+
+        for (int index = _ranking.size() - 1; index >= 0; index--) {
+            suffixClauses.addAll(_ranking.get(index).getFormulas());
+            suffixMarks[index] = suffixClauses.mark();
+        }
+
+        _isTractable = suffixClauses.getFragment() != CnfFragment.General;
+        _suffixClauses = _isTractable ? suffixClauses : null;
+        _suffixMarks = _isTractable ? suffixMarks : null;
+
+        // fingerprints of the materialised suffixes, built from the top rank down
+        _suffixFingerprints = new Fingerprint[_ranking.size() + 1];
+        _suffixFingerprints[_ranking.size()] = Fingerprint.EMPTY;
+        Set<PlFormula> seen = new HashSet<>();
+
+        for (int index = _ranking.size() - 1; index >= 0; index--) {
+            Fingerprint fingerprint = _suffixFingerprints[index + 1];
+            for (PlFormula formula : _ranking.get(index).getFormulas()) {
+                PlFormula materialised = ReasonerUtils.toMaterialisedFormula(formula);
+                if (seen.add(materialised)) {
+                    fingerprint = fingerprint.plus(Fingerprint.of(materialised));
+                }
+            }
+            _suffixFingerprints[index] = fingerprint;
+        }
+    }
+
+    /**
+     * Gets the fingerprint of the materialised ranks from the given index
+     * (ascending) onwards.
+     *
+     * @param fromIndex The index of the lowest active rank.
+     * @return The fingerprint of the rank suffix.
+     */
+    public Fingerprint getSuffixFingerprint(int fromIndex) {
+        return _suffixFingerprints[fromIndex];
+    }
+
+    /**
+     * Gets the ranks of this session in ascending order.
+     *
+     * @return The ranking.
+     */
+    public ModelRankCollection getRanking() {
+        return _ranking;
+    }
+
+    /**
+     * Gets the number of SAT calls made by this session.
+     *
+     * @return The number of SAT calls.
+     */
+    public long getSatCalls() {
+        return _satCalls.sum();
+    }
+
+    /**
+     * Checks whether the materialised ranks from the given index (ascending)
+     * onwards classically entail the formula.
+     *
+     * @param fromIndex The index of the lowest active rank.
+     * @param formula The formula to check.
+     * @return True if the formula is entailed.
+     */
+    public boolean entails(int fromIndex, PlFormula formula) {
+        return entails(fromIndex, formula, ReasoningBudget.unlimited());
+    }
+
+    /**
+     * Checks whether the materialised ranks from the given index (ascending)
+     * onwards classically entail the formula, charging the call to the budget.
+     *
+     * @param fromIndex The index of the lowest active rank.
+     * @param formula The formula to check.
+     * @param budget The budget of the request.
+     * @return True if the formula is entailed.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    public boolean entails(int fromIndex, PlFormula formula, ReasoningBudget budget) {
+
+        budget.chargeSatCall();
+
+        if (_isTractable) {
+
+            ClauseSet clauseSet = new ClauseSet(_suffixClauses, _suffixMarks[fromIndex]);
+            clauseSet.add(ReasonerUtils.toNegatedFormula(formula));
+
+            CnfFragment fragment = clauseSet.getFragment();
+
+            if (fragment != CnfFragment.General) {
+                _satCalls.increment();
+                return !CnfSatReasoner.isSatisfiable(CnfSatReasoner.createFragmentSolver(fragment), clauseSet, budget);
+            }
+        }
+
+        int literal = _clauseLog.encode(formula);
+
+        int[] assumptions = new int[_selectors.length + 1];
+        for (int index = 0; index < _selectors.length; index++) {
+            assumptions[index] = index < fromIndex ? -_selectors[index] : _selectors[index];
+        }
+        assumptions[_selectors.length] = -literal;
+
+        _satCalls.increment();
+        boolean isEntailed = !_clauseLog.isSatisfiable(assumptions, budget);
+
+        if (_logger.isDebugEnabled()) {
+            _logger.debug("  Session[{}..{}] entails {}: {}", fromIndex, _selectors.length, formula, isEntailed);
+        }
+
+        return isEntailed;
+    }
+}
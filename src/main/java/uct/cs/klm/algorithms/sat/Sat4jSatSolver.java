@@ -0,0 +1,137 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+
+/**
+ * This class represents a SAT solver backed by Sat4j.
+ *
+ * Sat4j accepts either a conflict or a time limit per call, not both. The
+ * remaining conflicts of the budget are applied as the limit of a call when
+ * there is a conflict budget, and a deadline then expires the call from a
+ * timer; otherwise the remaining time is the limit. The conflicts of each call
+ * are read from the solver statistics and charged to the budget.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class Sat4jSatSolver implements ISatSolver {
+
+    // Sat4j's own default is 180 seconds; without a deadline we do not cut calls short
+    private static final long NO_TIMEOUT_MS = Integer.MAX_VALUE;
+
+    // expires the calls that have both a conflict limit and a deadline, shared by every solver
+    private static final Timer _deadlineTimer = new Timer("sat4j-deadlines", true);
+
+    private final ISolver _solver;
+    private boolean _isContradictory = false;
+
+    public Sat4jSatSolver() {
+        _solver = SolverFactory.newDefault();
+    }
+
+    @Override
+    public void newVariables(int maxVariable) {
+        _solver.newVar(maxVariable);
+    }
+
+    @Override
+    public void addClause(int[] clause) {
+
+        if (_isContradictory) {
+            return;
+        }
+
+        try {
+            _solver.addClause(new VecInt(clause));
+        } catch (ContradictionException ex) {
+            _isContradictory = true;
+        }
+    }
+
+    @Override
+    public void reset() {
+        _solver.reset();
+        _isContradictory = false;
+    }
+
+    @Override
+    public boolean isSatisfiable(int[] assumptions, ReasoningBudget budget) {
+
+        if (_isContradictory) {
+            return false;
+        }
+
+        TimerTask deadline = null;
+
+        if (budget.hasConflictLimit()) {
+            _solver.setTimeoutOnConflicts((int) Math.min(Integer.MAX_VALUE, Math.max(1, budget.getRemainingConflicts())));
+
+            // the conflict limit takes the solver's own timeout, so the deadline expires it from outside
+            if (budget.hasDeadline()) {
+                deadline = scheduleDeadline(budget.getRemainingMillis());
+            }
+        } else if (budget.hasDeadline()) {
+            _solver.setTimeoutMs(Math.max(1, budget.getRemainingMillis()));
+        } else {
+            _solver.setTimeoutMs(NO_TIMEOUT_MS);
+        }
+
+        long conflicts = getConflicts();
+        boolean isSatisfiable = false;
+        boolean isTimedOut = false;
+
+        try {
+            isSatisfiable = _solver.isSatisfiable(new VecInt(assumptions));
+        } catch (TimeoutException ex) {
+            isTimedOut = true;
+        } finally {
+            if (deadline != null) {
+                deadline.cancel();
+            }
+        }
+
+        // a conflict limit that was hit fails here, as does a deadline that has passed
+        budget.chargeConflicts(getConflicts() - conflicts);
+
+        if (isTimedOut) {
+            budget.check();
+            budget.exceed(budget.hasConflictLimit() ? "Conflict limit reached" : "Time limit reached");
+        }
+
+        return isSatisfiable;
+    }
+
+    private TimerTask scheduleDeadline(long remainingMillis) {
+
+        TimerTask deadline = new TimerTask() {
+            @Override
+            public void run() {
+                _solver.expireTimeout();
+            }
+        };
+
+        // a millisecond late, so the budget sees the deadline as passed
+        _deadlineTimer.schedule(deadline, remainingMillis + 1);
+
+        return deadline;
+    }
+
+    // the conflicts of every call so far, as counted by Sat4j
+    private long getConflicts() {
+        Number conflicts = _solver.getStat().get("conflicts");
+        return conflicts != null ? conflicts.longValue() : 0;
+    }
+
+    @Override
+    public boolean getModelValue(int variable) {
+        return _solver.model(variable);
+    }
+}
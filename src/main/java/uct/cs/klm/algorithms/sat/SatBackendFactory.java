@@ -0,0 +1,55 @@
+package uct.cs.klm.algorithms.sat;
+
+import uct.cs.klm.algorithms.enums.SatBackendType;
+
+/**
+ * This class represents a SAT backend factory.
+ * 
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+
+public class SatBackendFactory {
+
+    private static final ISatBackend _sat4j = new Sat4jBackend();
+    private static final ISatBackend _dpll = new DpllBackend();
+
+    public static SatBackendType createBackendType(String type) {
+
+        if (type == null || type.isBlank()) {
+            return SatBackendType.Sat4j;
+        }
+
+        return switch (type.toLowerCase()) {
+            case "sat4j" ->
+                SatBackendType.Sat4j;
+            case "dpll" ->
+                SatBackendType.Dpll;
+            case "cdcl" ->
+                SatBackendType.Dpll;
+
+            default ->
+                throw new IllegalArgumentException("Unknown SAT backend: " + type);
+        };
+    }
+
+    public static ISatBackend create(SatBackendType backendType) {
+        return switch (backendType) {
+            case SatBackendType.Sat4j ->
+                _sat4j;
+            case SatBackendType.Dpll ->
+                _dpll;
+
+            default ->
+                throw new IllegalArgumentException("Unknown SAT backend: " + backendType);
+        };
+    }
+
+    public static ISatBackend create(String type) {
+        return create(createBackendType(type));
+    }
+
+    public static ISatBackend getDefault() {
+        return _sat4j;
+    }
+}
@@ -0,0 +1,138 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+
+/**
+ * This class represents the clause log of an incremental SAT session, shared
+ * by the workers that solve on it.
+ *
+ * Every clause the session emits is appended to the log under its lock. A
+ * worker borrows an incremental solver of its own, which first replays the
+ * part of the log it has not seen yet, so concurrent checks do not queue on
+ * one solver and only the (cheap) encoding step is serialised.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+final class SharedClauseLog {
+
+    private final ISatBackend _backend;
+
+    // guarded by this: the encoder and the log of every clause emitted so far
+    private final CnfEncoder _encoder = new CnfEncoder();
+    private final List<int[]> _clauses = new ArrayList<>();
+
+    private final ConcurrentLinkedQueue<Worker> _idleWorkers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates an empty log whose workers solve with the given backend.
+     *
+     * @param backend The SAT backend of the worker solvers.
+     */
+    SharedClauseLog(ISatBackend backend) {
+        _backend = backend;
+    }
+
+    /**
+     * Creates a fresh variable.
+     *
+     * @return The variable.
+     */
+    synchronized int newVariable() {
+        return _encoder.newVariable();
+    }
+
+    /**
+     * Encodes a formula, appending its defining clauses to the log.
+     *
+     * @param formula The formula.
+     * @return The literal of the formula.
+     */
+    synchronized int encode(PlFormula formula) {
+        return _encoder.encode(formula, _clauses);
+    }
+
+    /**
+     * Appends a clause to the log.
+     *
+     * @param clause The literals of the clause.
+     */
+    synchronized void addClause(int... clause) {
+        _clauses.add(clause);
+    }
+
+    /**
+     * Checks whether the clauses logged so far are satisfiable under the
+     * assumptions, on a solver borrowed for the call.
+     *
+     * @param assumptions The assumed literals.
+     * @param budget The budget of the request.
+     * @return True if a model exists.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    boolean isSatisfiable(int[] assumptions, ReasoningBudget budget) {
+
+        int logSize;
+        int maxVariable;
+
+        synchronized (this) {
+            logSize = _clauses.size();
+            maxVariable = _encoder.getMaxVariable();
+        }
+
+        Worker worker = borrowWorker();
+
+        try {
+            worker.load(logSize, maxVariable);
+            return worker.solver.isSatisfiable(assumptions, budget);
+        } finally {
+            _idleWorkers.offer(worker);
+        }
+    }
+
+    private Worker borrowWorker() {
+        Worker worker = _idleWorkers.poll();
+        return worker != null ? worker : new Worker(_backend.createSolver());
+    }
+
+    /**
+     * A solver of one worker and the prefix of the clause log it has loaded.
+     */
+    private final class Worker {
+
+        private final ISatSolver solver;
+        private int loadedClauses = 0;
+
+        Worker(ISatSolver solver) {
+            this.solver = solver;
+        }
+
+        void load(int logSize, int maxVariable) {
+
+            // declare new atoms even when they carry no clauses (e.g. a fresh query atom)
+            solver.newVariables(maxVariable);
+
+            if (loadedClauses >= logSize) {
+                return;
+            }
+
+            List<int[]> pending;
+            synchronized (SharedClauseLog.this) {
+                pending = new ArrayList<>(_clauses.subList(loadedClauses, logSize));
+            }
+
+            // only the unguarded clauses can clash, after which every check is unsatisfiable
+            for (int[] clause : pending) {
+                solver.addClause(clause);
+            }
+
+            loadedClauses = logSize;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import uct.cs.klm.algorithms.enums.SatBackendType;
+
+/**
+ * This class represents a pool of reusable solver instances of one backend.
+ *
+ * A caller borrows a solver for the duration of one check and returns it
+ * afterwards, so concurrent workers (request threads or ForkJoinPool workers)
+ * each solve on their own instance. The idle queue is lock-free, and a
+ * returned solver is reset before it is offered to the next borrower.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class SolverPool {
+
+    // idle solvers kept per pool; extra returned solvers are dropped
+    private static final int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final Map<SatBackendType, SolverPool> _pools = new ConcurrentHashMap<>();
+
+    private final ISatBackend _backend;
+    private final ConcurrentLinkedQueue<ISatSolver> _idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger _idleCount = new AtomicInteger();
+
+    private final LongAdder _borrowed = new LongAdder();
+    private final LongAdder _created = new LongAdder();
+
+    private SolverPool(ISatBackend backend) {
+        _backend = backend;
+    }
+
+    /**
+     * Gets the shared pool of the given backend.
+     *
+     * @param backend The SAT backend.
+     * @return The pool.
+     */
+    public static SolverPool of(ISatBackend backend) {
+        return _pools.computeIfAbsent(backend.getType(), type -> new SolverPool(backend));
+    }
+
+    /**
+     * Borrows an empty solver, creating one if none is idle.
+     *
+     * @return The solver; pass it to release when done.
+     */
+    public ISatSolver borrow() {
+
+        _borrowed.increment();
+        ISatSolver solver = _idle.poll();
+
+        if (solver != null) {
+            _idleCount.decrementAndGet();
+            return solver;
+        }
+
+        _created.increment();
+        return _backend.createSolver();
+    }
+
+    /**
+     * Returns a borrowed solver to the pool.
+     *
+     * @param solver The solver.
+     */
+    public void release(ISatSolver solver) {
+
+        if (_idleCount.incrementAndGet() > MAX_IDLE) {
+            _idleCount.decrementAndGet();
+            return;
+        }
+
+        solver.reset();
+        _idle.offer(solver);
+    }
+
+    public long getBorrowed() {
+        return _borrowed.sum();
+    }
+
+    public long getCreated() {
+        return _created.sum();
+    }
+}
@@ -0,0 +1,152 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.enums.CnfFragment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.utils.FormulaSubsetIndex;
+import uct.cs.klm.algorithms.utils.ReasonerUtils;
+
+/**
+ * This class represents an incremental SAT session over the subsets of a
+ * formula subset index.
+ *
+ * The fixed formulas are loaded unguarded and every indexed formula is
+ * guarded by a selector literal of its own, so a subset is activated by
+ * turning its bits into assumptions. Workers borrow solvers from the shared
+ * clause log of the session, as in a rank session.
+ *
+ * When the fixed and indexed formulas are all Horn or 2-CNF the subset and the
+ * negated query are decided directly by the linear-time solver of that
+ * fragment instead. The fixed formulas are then kept as one clause set and the
+ * block of each indexed formula is looked up once, so a subset is copied from
+ * the fixed set and extended by its blocks rather than rebuilt.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class SubsetSatSession {
+
+    private static final Logger _logger = LoggerFactory.getLogger(SubsetSatSession.class);
+
+    private final FormulaSubsetIndex _index;
+    private final int[] _selectors;
+    private final boolean _isTractable;
+
+    // null unless tractable
+    private final ClauseSet _fixedClauses;
+    private final ClauseBlock[] _blocks;
+
+    private final SharedClauseLog _clauseLog;
+    private final LongAdder _satCalls = new LongAdder();
+
+    /**
+     * Loads the fixed and indexed formulas of the index into a new session.
+     *
+     * @param index The formula subset index.
+     * @param backend The SAT backend of the session solver.
+     */
+    public SubsetSatSession(FormulaSubsetIndex index, ISatBackend backend) {
+
+        _index = index;
+        _clauseLog = new SharedClauseLog(backend);
+        _selectors = new int[index.size()];
+
+        for (PlFormula formula : index.getFixedFormulas()) {
+            _clauseLog.addClause(_clauseLog.encode(formula));
+        }
+
+        for (int bit = 0; bit < index.size(); bit++) {
+
+            int selector = _clauseLog.newVariable();
+            _selectors[bit] = selector;
+
+            int literal = _clauseLog.encode(index.getFormula(bit));
+            _clauseLog.addClause(literal, -selector);
+        }
+
+        ClauseSet fixedClauses = new ClauseSet();
+        fixedClauses.addAll(index.getFixedFormulas());
+
+        ClauseBlock[] blocks = new ClauseBlock[index.size()];
+        boolean isHorn = fixedClauses.mark().isHorn();
+        boolean isTwoCnf = fixedClauses.mark().isTwoCnf();
+
+        for (int bit = 0; bit < index.size(); bit++) {
+            blocks[bit] = ClauseBlockCache.get(index.getFormula(bit));
+            isHorn &= blocks[bit].isHorn();
+            isTwoCnf &= blocks[bit].isTwoCnf();
+        }
+
+        _isTractable = isHorn || isTwoCnf;
+        _fixedClauses = _isTractable ? fixedClauses : null;
+        _blocks = _isTractable ? blocks : null;
+    }
+
+    public FormulaSubsetIndex getIndex() {
+        return _index;
+    }
+
+    /**
+     * Gets the number of SAT calls made by this session.
+     *
+     * @return The number of SAT calls.
+     */
+    public long getSatCalls() {
+        return _satCalls.sum();
+    }
+
+    /**
+     * Checks whether the fixed formulas and the materialised formulas of the
+     * subset classically entail the formula, charging the call to the budget.
+     *
+     * @param subset The subset of indexed formulas.
+     * @param formula The formula to check.
+     * @param budget The budget of the request.
+     * @return True if the formula is entailed.
+     * @throws ReasoningBudget.ExceededException If the budget runs out.
+     */
+    public boolean entails(long subset, PlFormula formula, ReasoningBudget budget) {
+
+        budget.chargeSatCall();
+
+        if (_isTractable) {
+
+            ClauseSet clauseSet = new ClauseSet(_fixedClauses, _fixedClauses.mark());
+            for (int bit = 0; bit < _blocks.length; bit++) {
+                if ((subset & (1L << bit)) != 0) {
+                    clauseSet.add(_blocks[bit]);
+                }
+            }
+            clauseSet.add(ReasonerUtils.toNegatedFormula(formula));
+
+            CnfFragment fragment = clauseSet.getFragment();
+
+            if (fragment != CnfFragment.General) {
+                _satCalls.increment();
+                return !CnfSatReasoner.isSatisfiable(CnfSatReasoner.createFragmentSolver(fragment), clauseSet, budget);
+            }
+        }
+
+        int literal = _clauseLog.encode(formula);
+
+        int[] assumptions = new int[_selectors.length + 1];
+        for (int bit = 0; bit < _selectors.length; bit++) {
+            assumptions[bit] = (subset & (1L << bit)) != 0 ? _selectors[bit] : -_selectors[bit];
+        }
+        assumptions[_selectors.length] = -literal;
+
+        _satCalls.increment();
+        boolean isEntailed = !_clauseLog.isSatisfiable(assumptions, budget);
+
+        if (_logger.isDebugEnabled()) {
+            _logger.debug("  Subset[{}] entails {}: {}", Long.toBinaryString(subset), formula, isEntailed);
+        }
+
+        return isEntailed;
+    }
+}
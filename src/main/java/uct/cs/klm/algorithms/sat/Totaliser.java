@@ -0,0 +1,122 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class represents a totaliser encoding of the number of true literals
+ * among a set of input literals (Bailleux and Boufkhad).
+ *
+ * The inputs are counted by a binary tree whose every node has an output
+ * variable per possible count, in unary: output k of a node is true exactly
+ * when at least k inputs below it are true. The outputs of the root are then
+ * assumed to bound the count, so one encoding serves every bound.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class Totaliser {
+
+    private final int[] _outputs;
+
+    /**
+     * Encodes the count of the input literals.
+     *
+     * @param inputs The input literals.
+     * @param encoder The encoder of the fresh variables.
+     * @param clauses The clause sink for the defining clauses.
+     */
+    public Totaliser(int[] inputs, CnfEncoder encoder, List<int[]> clauses) {
+        _outputs = inputs.length == 0 ? new int[0] : toOutputs(inputs, 0, inputs.length, encoder, clauses);
+    }
+
+    /**
+     * Gets the number of inputs.
+     *
+     * @return The number of inputs.
+     */
+    public int size() {
+        return _outputs.length;
+    }
+
+    /**
+     * Gets the literal that is true exactly when at least count inputs are
+     * true.
+     *
+     * @param count The count, from 1 to the number of inputs.
+     * @return The output literal.
+     */
+    public int atLeast(int count) {
+
+        if (count < 1 || count > _outputs.length) {
+            throw new IllegalArgumentException(String.format("Cannot bound %s inputs by %s", _outputs.length, count));
+        }
+
+        return _outputs[count - 1];
+    }
+
+    /**
+     * Gets the literal that is true exactly when at most count inputs are
+     * true.
+     *
+     * @param count The count, from 0 to one less than the number of inputs.
+     * @return The output literal.
+     */
+    public int atMost(int count) {
+        return -atLeast(count + 1);
+    }
+
+    private static int[] toOutputs(int[] inputs, int from, int to, CnfEncoder encoder, List<int[]> clauses) {
+
+        if (to - from == 1) {
+            return new int[]{inputs[from]};
+        }
+
+        int middle = (from + to) >>> 1;
+        int[] left = toOutputs(inputs, from, middle, encoder, clauses);
+        int[] right = toOutputs(inputs, middle, to, encoder, clauses);
+
+        int[] outputs = new int[left.length + right.length];
+        for (int index = 0; index < outputs.length; index++) {
+            outputs[index] = encoder.newVariable();
+        }
+
+        // i true on the left and j on the right: at least i + j, and
+        // not i + 1 on the left and not j + 1 on the right: not i + j + 1
+        for (int i = 0; i <= left.length; i++) {
+            for (int j = 0; j <= right.length; j++) {
+
+                if (i + j > 0) {
+                    clauses.add(toClause(
+                            i > 0 ? -left[i - 1] : 0,
+                            j > 0 ? -right[j - 1] : 0,
+                            outputs[i + j - 1]));
+                }
+
+                if (i + j < outputs.length) {
+                    clauses.add(toClause(
+                            i < left.length ? left[i] : 0,
+                            j < right.length ? right[j] : 0,
+                            -outputs[i + j]));
+                }
+            }
+        }
+
+        return outputs;
+    }
+
+    // a clause of the given literals, leaving out the zeros
+    private static int[] toClause(int a, int b, int c) {
+
+        int[] literals = {a, b, c};
+        int size = 0;
+
+        for (int literal : literals) {
+            if (literal != 0) {
+                literals[size++] = literal;
+            }
+        }
+
+        return size == literals.length ? literals : Arrays.copyOf(literals, size);
+    }
+}
@@ -0,0 +1,200 @@
+package uct.cs.klm.algorithms.sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+
+/**
+ * This class represents a linear-time satisfiability check for 2-CNF clauses
+ * (at most two literals per clause).
+ *
+ * Each clause (a or b) contributes the implications not a to b and not b to a;
+ * the clauses are unsatisfiable exactly when some variable and its negation
+ * fall into the same strongly connected component of this implication graph
+ * (Aspvall, Plass and Tarjan). Assumptions are added as unit clauses.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class TwoSatSolver implements ISatSolver {
+
+    private final List<int[]> _clauses = new ArrayList<>();
+    private int _maxVariable = 0;
+
+    // the model of the last satisfiable call
+    private boolean[] _model = new boolean[1];
+
+    @Override
+    public void newVariables(int maxVariable) {
+        _maxVariable = Math.max(_maxVariable, maxVariable);
+    }
+
+    @Override
+    public void addClause(int[] clause) {
+
+        if (clause.length > 2) {
+            throw new IllegalArgumentException("Not a 2-CNF clause");
+        }
+
+        for (int literal : clause) {
+            _maxVariable = Math.max(_maxVariable, Math.abs(literal));
+        }
+        _clauses.add(clause);
+    }
+
+    @Override
+    public void reset() {
+        _clauses.clear();
+        _maxVariable = 0;
+    }
+
+    @Override
+    public boolean isSatisfiable(int[] assumptions, ReasoningBudget budget) {
+
+        budget.check();
+
+        int nodeCount = 2 * (_maxVariable + 1);
+        int[] edgeStarts = new int[nodeCount + 1];
+
+        // first pass counts the out edges of each node, the second fills them
+        for (int[] clause : _clauses) {
+            if (clause.length == 0) {
+                return false;
+            }
+            countEdges(clause[0], clause.length == 1 ? clause[0] : clause[1], edgeStarts);
+        }
+        for (int literal : assumptions) {
+            countEdges(literal, literal, edgeStarts);
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            edgeStarts[node + 1] += edgeStarts[node];
+        }
+
+        int[] edges = new int[edgeStarts[nodeCount]];
+        int[] fill = Arrays.copyOf(edgeStarts, nodeCount);
+
+        for (int[] clause : _clauses) {
+            addEdges(clause[0], clause.length == 1 ? clause[0] : clause[1], edges, fill);
+        }
+        for (int literal : assumptions) {
+            addEdges(literal, literal, edges, fill);
+        }
+
+        int[] components = stronglyConnectedComponents(nodeCount, edgeStarts, edges);
+
+        boolean[] model = new boolean[_maxVariable + 1];
+
+        // components are labelled sinks first, so a literal is true when its
+        // component comes after the component of its negation
+        for (int variable = 1; variable <= _maxVariable; variable++) {
+            if (components[node(variable)] == components[node(-variable)]) {
+                return false;
+            }
+            model[variable] = components[node(variable)] < components[node(-variable)];
+        }
+
+        _model = model;
+        return true;
+    }
+
+    @Override
+    public boolean getModelValue(int variable) {
+        return variable < _model.length && _model[variable];
+    }
+
+    private static int node(int literal) {
+        return literal > 0 ? 2 * literal : 2 * -literal + 1;
+    }
+
+    private static void countEdges(int a, int b, int[] edgeStarts) {
+        edgeStarts[node(-a) + 1]++;
+        edgeStarts[node(-b) + 1]++;
+    }
+
+    private static void addEdges(int a, int b, int[] edges, int[] fill) {
+        edges[fill[node(-a)]++] = node(b);
+        edges[fill[node(-b)]++] = node(a);
+    }
+
+    /**
+     * Labels the strongly connected components with an iterative Tarjan
+     * search, so deep implication chains do not overflow the stack.
+     */
+    private static int[] stronglyConnectedComponents(int nodeCount, int[] edgeStarts, int[] edges) {
+
+        int[] index = new int[nodeCount];
+        int[] lowLink = new int[nodeCount];
+        int[] components = new int[nodeCount];
+        boolean[] isOnStack = new boolean[nodeCount];
+        Arrays.fill(index, -1);
+
+        int[] stack = new int[nodeCount];
+        int stackSize = 0;
+
+        // explicit call stack: node and position in its edge list
+        int[] callNodes = new int[nodeCount];
+        int[] callEdges = new int[nodeCount];
+
+        int nextIndex = 0;
+        int nextComponent = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int depth = 0;
+            callNodes[0] = root;
+            callEdges[0] = edgeStarts[root];
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            isOnStack[root] = true;
+
+            while (depth >= 0) {
+
+                int node = callNodes[depth];
+
+                if (callEdges[depth] < edgeStarts[node + 1]) {
+
+                    int next = edges[callEdges[depth]++];
+
+                    if (index[next] == -1) {
+                        index[next] = lowLink[next] = nextIndex++;
+                        stack[stackSize++] = next;
+                        isOnStack[next] = true;
+                        depth++;
+                        callNodes[depth] = next;
+                        callEdges[depth] = edgeStarts[next];
+                    } else if (isOnStack[next]) {
+                        lowLink[node] = Math.min(lowLink[node], index[next]);
+                    }
+
+                    continue;
+                }
+
+                if (lowLink[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        isOnStack[member] = false;
+                        components[member] = nextComponent;
+                    } while (member != node);
+                    nextComponent++;
+                }
+
+                depth--;
+
+                if (depth >= 0) {
+                    int parent = callNodes[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+            }
+        }
+
+        return components;
+    }
+}
@@ -0,0 +1,39 @@
+package uct.cs.klm.algorithms.services;
+
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * This class represents the checks of one negated antecedent along the
+ * positions of a search, e.g. the powersets a lexicographic or relevant
+ * closure tries in turn.
+ *
+ * The queries of an antecedent group walk the same positions, so each
+ * position is checked once, by the first query that reaches it.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class AntecedentChecks {
+
+    private final BitSet _checked = new BitSet();
+    private final BitSet _entailed = new BitSet();
+
+    /**
+     * Gets the result of the check at a position, making it on first use. A
+     * check cut short by the budget throws and is not recorded.
+     *
+     * @param position The position of the search.
+     * @param check The check of the position.
+     * @return True if the negated antecedent is entailed at the position.
+     */
+    public boolean isEntailed(int position, BooleanSupplier check) {
+
+        if (!_checked.get(position)) {
+            _entailed.set(position, check.getAsBoolean());
+            _checked.set(position);
+        }
+
+        return _entailed.get(position);
+    }
+}
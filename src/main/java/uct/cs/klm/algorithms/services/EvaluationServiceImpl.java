@@ -129,8 +129,6 @@ public class EvaluationServiceImpl implements EvaluationService {
                 ReasonerType.MinimalRelevantClosure;
         };
 
-        IReasonerService reasoner = ReasonerFactory.createEntailment(reasonerType);
-
         InferenceOperator operator = query.inferenceOperator();
         List<Algorithm> selectedAlgorithms = query.algorithms();
         List<EvaluationData> dataList = new ArrayList<>();
@@ -144,6 +142,10 @@ public class EvaluationServiceImpl implements EvaluationService {
             EvaluationData data = new EvaluationData(testQuery, operator);
 
             for (Algorithm algo : selectedAlgorithms) {
+
+                // own caches, so that no run is warmed by another or by other requests
+                IReasonerService reasoner = ReasonerFactory.createIsolatedEntailment(reasonerType, algo);
+
                 long start = System.nanoTime();
                 reasoner.getEntailment(baseRank, formula);
                 double timeMs = Math.round(((System.nanoTime() - start) / 1_000_000.0) * 100.0) / 100.0;
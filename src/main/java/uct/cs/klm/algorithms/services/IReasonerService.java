@@ -1,9 +1,15 @@
 package uct.cs.klm.algorithms.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
 
 /**
  * This interface represents a reasoner service for a given query.
@@ -14,5 +20,41 @@ import uct.cs.klm.algorithms.models.ModelEntailment;
  */
 
 public interface IReasonerService {
-  public ModelEntailment getEntailment(ModelBaseRank baseRank, PlFormula queryFormula);
+  public default ModelEntailment getEntailment(ModelBaseRank baseRank, PlFormula queryFormula) {
+    return getEntailment(baseRank, queryFormula, ReasoningBudget.unlimited());
+  }
+
+  /**
+   * Determines the entailment within the given budget. If the budget runs out
+   * the result is not entailed and has status BudgetExceeded.
+   */
+  public ModelEntailment getEntailment(ModelBaseRank baseRank, PlFormula queryFormula, ReasoningBudget budget);
+
+  /**
+   * Determines the entailments of queries, each equal to the entailment of
+   * getEntailment and in the order of the queries. Reasoners override this
+   * to group the queries by canonical antecedent, as QueryPlanner does, and
+   * search for each antecedent once.
+   */
+  public default List<ModelEntailment> getEntailments(ModelBaseRank baseRank, List<? extends PlFormula> queryFormulas, ReasoningBudget budget) {
+
+    List<ModelEntailment> entailments = new ArrayList<>(queryFormulas.size());
+
+    for (PlFormula queryFormula : queryFormulas) {
+      entailments.add(getEntailment(baseRank, queryFormula, budget));
+    }
+
+    return entailments;
+  }
+
+  /**
+   * Ranks the antecedents of queries ahead of the queries, e.g. from a query
+   * log, for reasoners that memoise a search per antecedent. The others have
+   * nothing to warm and rank none.
+   *
+   * @return The rank number of the lowest rank kept, by antecedent.
+   */
+  public default Map<PlFormula, Integer> preRank(ModelBaseRank baseRank, Collection<? extends PlFormula> antecedents, ReasoningBudget budget) {
+    return Map.of();
+  }
 }
@@ -1,10 +1,28 @@
 package uct.cs.klm.algorithms.services;
 
-import org.tweetyproject.logics.pl.reasoner.SatReasoner;
-import org.tweetyproject.logics.pl.sat.Sat4jSolver;
-import org.tweetyproject.logics.pl.sat.SatSolver;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.tweetyproject.logics.pl.syntax.PlFormula;
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
+import uct.cs.klm.algorithms.enums.ReasoningStatus;
+import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.ranking.RemovalBoundaryCache;
+import uct.cs.klm.algorithms.sat.CnfSatReasoner;
+import uct.cs.klm.algorithms.sat.EntailmentCache;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
+import uct.cs.klm.algorithms.sat.SubsetSatSession;
+import uct.cs.klm.algorithms.utils.DisplayUtils;
+import uct.cs.klm.algorithms.utils.Fingerprint;
 import uct.cs.klm.algorithms.utils.ReasonerUtils;
 
 /**
@@ -17,18 +35,225 @@ import uct.cs.klm.algorithms.utils.ReasonerUtils;
 
 public abstract class KlmReasonerBase {
 
-    protected final SatReasoner _reasoner;
+    private static final Logger _logger = LoggerFactory.getLogger(KlmReasonerBase.class);
+
+    private static final int OWN_CACHE_CAPACITY = 4_096;
+
+    protected final ISatBackend _backend;
+    protected final CnfSatReasoner _reasoner;
+
+    // the shared ones unless the reasoner is given its own
+    protected EntailmentCache _entailmentCache;
+    protected RemovalBoundaryCache _removalBoundaryCache;
+
+    // optional, null when rank suffixes are not compiled
+    protected final IKnowledgeCompiler _compiler;
 
     public KlmReasonerBase() {
-        SatSolver.setDefaultSolver(new Sat4jSolver());
-        _reasoner = new SatReasoner();
+        this(SatBackendFactory.getDefault());
     }
 
-    protected boolean doesInfinityRankEntailQuery(ModelRank rank, PlFormula queryFormula) {
+    public KlmReasonerBase(ISatBackend backend) {
+        this(backend, null);
+    }
+
+    public KlmReasonerBase(ISatBackend backend, IKnowledgeCompiler compiler) {
+        _backend = backend;
+        _reasoner = new CnfSatReasoner(backend);
+        _entailmentCache = EntailmentCache.getShared();
+        _removalBoundaryCache = RemovalBoundaryCache.getShared();
+        _compiler = compiler;
+    }
+
+    /**
+     * Gives this reasoner an entailment cache and removal boundary memo of
+     * its own, so that it neither answers from nor fills those shared by the
+     * other requests, e.g. for a timed run. Only to be called before the
+     * reasoner is first used.
+     */
+    public void useOwnCaches() {
+        _entailmentCache = new EntailmentCache(OWN_CACHE_CAPACITY);
+        _removalBoundaryCache = new RemovalBoundaryCache(OWN_CACHE_CAPACITY);
+    }
+
+    /**
+     * Checks whether the (materialised) knowledge base classically entails the
+     * formula, answering from the entailment cache where possible.
+     *
+     * @param materialisedKb The materialised knowledge base.
+     * @param formula The formula to check.
+     * @param budget The budget of the request.
+     * @return True if the formula is entailed.
+     */
+    protected boolean query(Collection<? extends PlFormula> materialisedKb, PlFormula formula, ReasoningBudget budget) {
+        return _entailmentCache.getOrCompute(
+                Fingerprint.of(materialisedKb),
+                formula,
+                () -> _reasoner.query(materialisedKb, formula, budget));
+    }
+
+    /**
+     * Checks whether the rank suffix of the session entails the formula,
+     * answering from the entailment cache where possible, then from
+     * the compiled suffix if a compiler is configured, and otherwise by SAT.
+     *
+     * @param session The SAT session of the base ranking.
+     * @param fromIndex The index of the lowest active rank.
+     * @param formula The formula to check.
+     * @param budget The budget of the request.
+     * @return True if the formula is entailed.
+     */
+    protected boolean query(RankSatSession session, int fromIndex, PlFormula formula, ReasoningBudget budget) {
+        return _entailmentCache.getOrCompute(
+                session.getSuffixFingerprint(fromIndex),
+                formula,
+                () -> {
+                    Boolean isEntailed = _compiler == null ? null : _compiler.entails(session, fromIndex, formula, budget);
+                    return isEntailed != null ? isEntailed : session.entails(fromIndex, formula, budget);
+                });
+    }
+
+    /**
+     * Checks whether the fixed formulas and a subset of the indexed formulas
+     * of the session entail the formula, answering from the entailment cache
+     * where possible.
+     *
+     * @param session The SAT session of the subset index.
+     * @param subset The subset of indexed formulas.
+     * @param formula The formula to check.
+     * @param budget The budget of the request.
+     * @return True if the formula is entailed.
+     */
+    protected boolean query(SubsetSatSession session, long subset, PlFormula formula, ReasoningBudget budget) {
+        return _entailmentCache.getOrCompute(
+                session.getIndex().toFingerprint(subset),
+                formula,
+                () -> session.entails(subset, formula, budget));
+    }
+
+    protected boolean doesInfinityRankEntailQuery(ModelRank rank, PlFormula queryFormula, ReasoningBudget budget) {
 
         PlFormula materialisedQueryFormula = ReasonerUtils.toMaterialisedFormula(queryFormula);
-        var materialisedKB = ReasonerUtils.toMaterialisedKnowledgeBase(rank);
+        var materialisedKB = rank.getMaterialisedView();
+
+        if (_compiler == null) {
+            return query(materialisedKB, materialisedQueryFormula, budget);
+        }
+
+        return _entailmentCache.getOrCompute(
+                Fingerprint.of(materialisedKB),
+                materialisedQueryFormula,
+                () -> {
+                    Boolean isEntailed = _compiler.entails(materialisedKB, materialisedQueryFormula, budget);
+                    return isEntailed != null ? isEntailed : _reasoner.query(materialisedKB, materialisedQueryFormula, budget);
+                });
+    }
+
+    /**
+     * Determines the entailments of queries, searching once per canonical
+     * antecedent. The queries are grouped as by QueryPlanner, the search of
+     * a group is made for its first query and each query of the group is
+     * then checked on it. A query whose budget runs out is not entailed and
+     * has status BudgetExceeded; a search cut short is tried again for the
+     * next query of its group.
+     *
+     * @param <T> The type of the result of an antecedent search.
+     * @param baseRank The base rank.
+     * @param queryFormulas The queries.
+     * @param builder The entailment builder of the reasoner, for the queries
+     * whose budget runs out.
+     * @param antecedentSearch The search of the antecedent of a query.
+     * @param consequentCheck The check of a query on its antecedent search.
+     * @return The entailments, in the order of the queries.
+     */
+    protected <T> List<ModelEntailment> toEntailments(
+            ModelBaseRank baseRank,
+            List<? extends PlFormula> queryFormulas,
+            Supplier<? extends ModelEntailment.EntailmentBuilder<?>> builder,
+            AntecedentSearch<T> antecedentSearch,
+            ConsequentCheck<T> consequentCheck) {
+
+        ModelEntailment[] entailments = new ModelEntailment[queryFormulas.size()];
+
+        for (List<Integer> positions : QueryPlanner.toGroups(queryFormulas).values()) {
+
+            T search = null;
+
+            for (int position : positions) {
+
+                PlFormula queryFormula = queryFormulas.get(position);
+                long startTime = System.nanoTime();
+
+                try {
+                    if (search == null) {
+                        search = antecedentSearch.search(queryFormula);
+                    }
+
+                    entailments[position] = consequentCheck.check(search, queryFormula, startTime);
+                } catch (ReasoningBudget.ExceededException ex) {
+                    DisplayUtils.LogDebug(_logger, String.format("=> Budget exceeded: %s", ex.getMessage()));
+                    entailments[position] = toBudgetExceededEntailment(
+                            builder.get(),
+                            baseRank,
+                            queryFormula,
+                            startTime,
+                            ex.getMessage());
+                }
+            }
+        }
+
+        return Arrays.asList(entailments);
+    }
+
+    /**
+     * Builds the result of a request whose budget ran out: not entailed, with
+     * status BudgetExceeded and the limit that was hit.
+     *
+     * @param builder The entailment builder of the reasoner.
+     * @param baseRank The base rank of the request.
+     * @param queryFormula The query formula.
+     * @param startTime The start time of the request.
+     * @param reason The limit that was hit.
+     * @return The entailment.
+     */
+    protected ModelEntailment toBudgetExceededEntailment(
+            ModelEntailment.EntailmentBuilder<?> builder,
+            ModelBaseRank baseRank,
+            PlFormula queryFormula,
+            long startTime,
+            String reason) {
+
+        return builder
+                .withKnowledgeBase(baseRank.getKnowledgeBaseKb())
+                .withQueryFormula(queryFormula)
+                .withBaseRanking(baseRank.getRanking())
+                .withEntailed(false)
+                .withStatus(ReasoningStatus.BudgetExceeded)
+                .withStatusMessage(reason)
+                .withTimeTaken(ReasonerUtils.ToTimeDifference(startTime, System.nanoTime()))
+                .build();
+    }
+
+    /**
+     * The part of a query that depends only on its antecedent, e.g. the
+     * removal boundary or the subsets consistent with it.
+     *
+     * @param <T> The type of the result of the search.
+     */
+    @FunctionalInterface
+    protected interface AntecedentSearch<T> {
+
+        T search(PlFormula queryFormula);
+    }
+
+    /**
+     * The check of a query on the search of its antecedent.
+     *
+     * @param <T> The type of the result of the search.
+     */
+    @FunctionalInterface
+    protected interface ConsequentCheck<T> {
 
-        return _reasoner.query(materialisedKB, materialisedQueryFormula);
+        ModelEntailment check(T search, PlFormula queryFormula, long startTime);
     }
 }
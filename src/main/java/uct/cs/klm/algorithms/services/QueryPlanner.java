@@ -0,0 +1,95 @@
+package uct.cs.klm.algorithms.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+import uct.cs.klm.algorithms.utils.Fingerprint;
+
+/**
+ * This class represents a query planner for many queries on one base rank.
+ *
+ * The queries are grouped by the canonical text of their antecedent, in the
+ * order each antecedent is first met, and every group is handed to the
+ * reasoner at once: the removal or subset search of the antecedent is made
+ * once per group and only the consequents are checked per query. The
+ * entailments are returned in the order of the queries.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class QueryPlanner {
+
+    private static final Logger _logger = LoggerFactory.getLogger(QueryPlanner.class);
+
+    private final IReasonerService _reasoner;
+
+    public QueryPlanner(IReasonerService reasoner) {
+        _reasoner = reasoner;
+    }
+
+    /**
+     * Determines the entailment of every query within one shared budget.
+     *
+     * @param baseRank The base rank.
+     * @param queryFormulas The queries.
+     * @param budget The budget of the request.
+     * @return The entailments, in the order of the queries.
+     */
+    public List<ModelEntailment> getEntailments(
+            ModelBaseRank baseRank,
+            List<? extends PlFormula> queryFormulas,
+            ReasoningBudget budget) {
+
+        Map<Fingerprint, List<Integer>> groups = toGroups(queryFormulas);
+
+        _logger.debug("Planned {} queries in {} antecedent groups", queryFormulas.size(), groups.size());
+
+        ModelEntailment[] entailments = new ModelEntailment[queryFormulas.size()];
+
+        for (List<Integer> positions : groups.values()) {
+
+            List<PlFormula> groupQueries = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                groupQueries.add(queryFormulas.get(position));
+            }
+
+            List<ModelEntailment> groupEntailments = _reasoner.getEntailments(baseRank, groupQueries, budget);
+
+            for (int index = 0; index < positions.size(); index++) {
+                entailments[positions.get(index)] = groupEntailments.get(index);
+            }
+        }
+
+        return Arrays.asList(entailments);
+    }
+
+    /**
+     * Groups the positions of the queries by the fingerprint of the canonical
+     * text of their antecedent.
+     *
+     * @param queryFormulas The queries.
+     * @return The positions of the queries, by antecedent.
+     */
+    public static Map<Fingerprint, List<Integer>> toGroups(List<? extends PlFormula> queryFormulas) {
+
+        Map<Fingerprint, List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int position = 0; position < queryFormulas.size(); position++) {
+            PlFormula antecedent = ((Implication) queryFormulas.get(position)).getFirstFormula();
+            groups.computeIfAbsent(Fingerprint.of(antecedent), key -> new ArrayList<>()).add(position);
+        }
+
+        return groups;
+    }
+}
@@ -0,0 +1,210 @@
+package uct.cs.klm.algorithms.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.tweetyproject.logics.pl.syntax.AssociativePlFormula;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Contradiction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Equivalence;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.syntax.Tautology;
+
+import uct.cs.klm.algorithms.models.DefeasibleImplication;
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+
+/**
+ * This class represents a 128-bit fingerprint of a formula or of a set of
+ * formulas.
+ *
+ * The fingerprint of a formula is the digest of its canonical text, which
+ * does not depend on how the formula was written: nested conjunctions and
+ * disjunctions are flattened and their operands (and the sides of an
+ * equivalence) sorted, so whitespace, parenthesisation and operand order do
+ * not change it. The fingerprint of a set is the (wrapping) sum of the
+ * fingerprints of its members, so it does not depend on iteration order and
+ * can be maintained by adding and subtracting members.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public record Fingerprint(long high, long low) {
+
+    public static final Fingerprint EMPTY = new Fingerprint(0L, 0L);
+
+    // upper bound on memoised formula fingerprints, by formula instance
+    private static final int MAX_MEMO_ENTRIES = 200_000;
+
+    private static final IdentityCache<PlFormula, Fingerprint> _memo = new IdentityCache<>(MAX_MEMO_ENTRIES);
+
+    /**
+     * Gets the fingerprint of a single formula.
+     *
+     * @param formula The formula.
+     * @return The fingerprint.
+     */
+    public static Fingerprint of(PlFormula formula) {
+        return _memo.get(formula, f -> digest(toCanonicalText(f)));
+    }
+
+    /**
+     * Gets the fingerprint of a set of formulas. A formula given more than
+     * once, e.g. in a list, is counted once.
+     *
+     * @param formulas The formulas.
+     * @return The fingerprint.
+     */
+    public static Fingerprint of(Iterable<? extends PlFormula> formulas) {
+
+        if (formulas instanceof KnowledgeBase knowledgeBase) {
+            return knowledgeBase.getFingerprint();
+        }
+
+        // the members of a set are distinct already
+        Set<PlFormula> seen = formulas instanceof Set ? null : new HashSet<>();
+
+        long high = 0L;
+        long low = 0L;
+
+        for (PlFormula formula : formulas) {
+
+            if (seen != null && !seen.add(formula)) {
+                continue;
+            }
+
+            Fingerprint fingerprint = of(formula);
+            high += fingerprint.high;
+            low += fingerprint.low;
+        }
+
+        return new Fingerprint(high, low);
+    }
+
+    public Fingerprint plus(Fingerprint other) {
+        return new Fingerprint(high + other.high, low + other.low);
+    }
+
+    public Fingerprint minus(Fingerprint other) {
+        return new Fingerprint(high - other.high, low - other.low);
+    }
+
+    /**
+     * Gets a fingerprint of this fingerprint under a tag, e.g. the same
+     * formulas at another rank. Unlike plus it does not distribute over sums.
+     *
+     * @param tag The tag.
+     * @return The tagged fingerprint.
+     */
+    public Fingerprint tagged(long tag) {
+        return digest(String.format("%s#%s", tag, toHexString()));
+    }
+
+    public String toHexString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    @Override
+    public String toString() {
+        return toHexString();
+    }
+
+    /**
+     * Gets the canonical text of a formula.
+     *
+     * @param formula The formula.
+     * @return The canonical text.
+     */
+    public static String toCanonicalText(PlFormula formula) {
+
+        if (formula instanceof Tautology) {
+            return "+";
+        }
+
+        if (formula instanceof Contradiction) {
+            return "-";
+        }
+
+        if (formula instanceof Proposition atom) {
+            return atom.getName();
+        }
+
+        if (formula instanceof Negation negation) {
+            return "!" + toCanonicalText(negation.getFormula());
+        }
+
+        if (formula instanceof Conjunction conjunction) {
+            return toCanonicalText(conjunction, Conjunction.class, "&", "+");
+        }
+
+        if (formula instanceof Disjunction disjunction) {
+            return toCanonicalText(disjunction, Disjunction.class, "|", "-");
+        }
+
+        if (formula instanceof DefeasibleImplication implication) {
+            return String.format("(%s~>%s)", toCanonicalText(implication.getFirstFormula()), toCanonicalText(implication.getSecondFormula()));
+        }
+
+        if (formula instanceof Implication implication) {
+            return String.format("(%s=>%s)", toCanonicalText(implication.getFirstFormula()), toCanonicalText(implication.getSecondFormula()));
+        }
+
+        if (formula instanceof Equivalence equivalence) {
+            String first = toCanonicalText(equivalence.getFormulas().getFirst());
+            String second = toCanonicalText(equivalence.getFormulas().getSecond());
+            return first.compareTo(second) <= 0
+                    ? String.format("(%s<=>%s)", first, second)
+                    : String.format("(%s<=>%s)", second, first);
+        }
+
+        return formula.toString();
+    }
+
+    private static String toCanonicalText(AssociativePlFormula formula, Class<? extends AssociativePlFormula> type, String operator, String identity) {
+
+        List<String> operands = new ArrayList<>();
+        collectOperands(formula, type, operands);
+
+        if (operands.isEmpty()) {
+            return identity;
+        }
+
+        if (operands.size() == 1) {
+            return operands.get(0);
+        }
+
+        Collections.sort(operands);
+        return "(" + String.join(operator, operands) + ")";
+    }
+
+    // the operands of nested formulas of the same connective, at any depth
+    private static void collectOperands(AssociativePlFormula formula, Class<? extends AssociativePlFormula> type, List<String> operands) {
+        for (PlFormula operand : formula) {
+            if (type.isInstance(operand)) {
+                collectOperands((AssociativePlFormula) operand, type, operands);
+            } else {
+                operands.add(toCanonicalText(operand));
+            }
+        }
+    }
+
+    private static Fingerprint digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new Fingerprint(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 is not available", ex);
+        }
+    }
+}
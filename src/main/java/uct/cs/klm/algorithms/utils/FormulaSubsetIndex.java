@@ -0,0 +1,533 @@
+package uct.cs.klm.algorithms.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+
+/**
+ * This class represents an index of the formulas of a ranking, under which a
+ * subset of the formulas is a single long word.
+ *
+ * Bit j stands for the j-th formula in the order the powerset reasoners sort
+ * formulas inside a subset: rank descending, then by text. Rank weights and
+ * text order are computed once per formula, so subsets are ordered, combined
+ * with the fixed formulas (e.g. the infinity rank) and fingerprinted without
+ * building a knowledge base; only the subset that decides an answer is turned
+ * back into one.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class FormulaSubsetIndex {
+
+    // a subset of more formulas could not be enumerated anyway
+    public static final int MAX_FORMULAS = 62;
+
+    // the ordered subsets of more formulas could not be numbered by an int
+    public static final int MAX_ORDERED_FORMULAS = 30;
+
+    // binomials up to MAX_FORMULAS, for the positions of subsets; C(n, k) is 0 for k > n
+    private static final long[][] BINOMIALS = toBinomials(MAX_FORMULAS);
+
+    private final PlFormula[] _formulas;
+    private final int[] _rankWeights;
+    private final int[] _textOrder;
+    private final PlFormula[] _materialised;
+    private final Fingerprint[] _fingerprints;
+
+    // lower bits with the same materialised formula, counted once in a fingerprint
+    private final long[] _sameAs;
+
+    // the first bit of every rank and of every run of one text in a rank, then the size
+    private final int[] _rankStarts;
+    private final int[] _textStarts;
+
+    private final KnowledgeBase _fixedFormulas;
+    private final Fingerprint _fixedFingerprint;
+
+    /**
+     * Indexes the formulas of a ranking.
+     *
+     * @param ranking The ranking whose formulas are subset.
+     * @param fixedFormulas The formulas that are part of every subset.
+     */
+    public FormulaSubsetIndex(ModelRankCollection ranking, Collection<? extends PlFormula> fixedFormulas) {
+
+        List<ModelRank> ranks = new ArrayList<>(ranking);
+        ranks.sort(Comparator.comparingInt(ModelRank::getRankNumber));
+
+        List<PlFormula> formulas = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+
+        for (ModelRank rank : ranks) {
+            for (PlFormula formula : rank.getFormulas()) {
+                formulas.add(formula);
+                weights.add(rank.getRankNumber() + 1);
+            }
+        }
+
+        int size = formulas.size();
+
+        if (size > MAX_FORMULAS) {
+            throw new IllegalArgumentException(String.format("Cannot index subsets of %s formulas, the limit is %s", size, MAX_FORMULAS));
+        }
+
+        String[] texts = new String[size];
+        Integer[] order = new Integer[size];
+        for (int index = 0; index < size; index++) {
+            texts[index] = formulas.get(index).toString();
+            order[index] = index;
+        }
+
+        // the order of formulas inside a subset: rank descending, then by text
+        Arrays.sort(order, Comparator.<Integer>comparingInt(index -> -weights.get(index))
+                .thenComparing(index -> texts[index]));
+
+        String[] sortedTexts = new String[size];
+
+        _formulas = new PlFormula[size];
+        _rankWeights = new int[size];
+        _materialised = new PlFormula[size];
+        _fingerprints = new Fingerprint[size];
+        _sameAs = new long[size];
+
+        for (int bit = 0; bit < size; bit++) {
+            _formulas[bit] = formulas.get(order[bit]);
+            _rankWeights[bit] = weights.get(order[bit]);
+            _materialised[bit] = FormulaTwins.materialise(_formulas[bit]);
+            sortedTexts[bit] = texts[order[bit]];
+        }
+
+        _textOrder = toTextOrder(sortedTexts);
+        _rankStarts = toRunStarts(_rankWeights, _rankWeights);
+        _textStarts = toRunStarts(_rankWeights, _textOrder);
+
+        _fixedFormulas = new KnowledgeBase();
+        for (PlFormula formula : fixedFormulas) {
+            _fixedFormulas.add(FormulaTwins.materialise(formula));
+        }
+        _fixedFingerprint = Fingerprint.of(_fixedFormulas);
+
+        for (int bit = 0; bit < size; bit++) {
+
+            PlFormula materialised = _materialised[bit];
+            _fingerprints[bit] = _fixedFormulas.contains(materialised) ? Fingerprint.EMPTY : Fingerprint.of(materialised);
+
+            for (int lower = 0; lower < bit; lower++) {
+                if (_materialised[lower].equals(materialised)) {
+                    _sameAs[bit] |= 1L << lower;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return _formulas.length;
+    }
+
+    public PlFormula getFormula(int bit) {
+        return _formulas[bit];
+    }
+
+    /**
+     * Gets the rank weight (rank number plus one) of every formula, by bit.
+     *
+     * @return The rank weights.
+     */
+    public int[] getRankWeights() {
+        return _rankWeights.clone();
+    }
+
+    /**
+     * Gets the first bit of every rank, from the highest rank down, followed
+     * by the number of formulas.
+     *
+     * @return The first bits of the ranks.
+     */
+    public int[] getRankStarts() {
+        return _rankStarts.clone();
+    }
+
+    /**
+     * Gets the first bit of every run of formulas with the same rank and
+     * text, in bit order, followed by the number of formulas. The order of
+     * orderedSubsets only tells the formulas of one run apart by bit.
+     *
+     * @return The first bits of the runs.
+     */
+    public int[] getTextStarts() {
+        return _textStarts.clone();
+    }
+
+    /**
+     * Gets the materialised fixed formulas.
+     *
+     * @return The fixed formulas.
+     */
+    public KnowledgeBase getFixedFormulas() {
+        return _fixedFormulas;
+    }
+
+    /**
+     * Gets the subset of all indexed formulas.
+     *
+     * @return The full subset.
+     */
+    public long getFullSubset() {
+        return _formulas.length == 0 ? 0L : -1L >>> (64 - _formulas.length);
+    }
+
+    /**
+     * Checks whether the materialisation of a formula is one of the fixed
+     * formulas.
+     *
+     * @param formula The formula.
+     * @return True if the formula is fixed.
+     */
+    public boolean isFixed(PlFormula formula) {
+        return _fixedFormulas.contains(FormulaTwins.materialise(formula));
+    }
+
+    /**
+     * Gets the subset of the indexed formulas with the same materialisation
+     * as the given formula.
+     *
+     * @param formula The formula.
+     * @return The subset, empty if no formula matches.
+     */
+    public long toSubsetOf(PlFormula formula) {
+
+        PlFormula materialised = FormulaTwins.materialise(formula);
+        long subset = 0L;
+
+        for (int bit = 0; bit < _materialised.length; bit++) {
+            if (_materialised[bit].equals(materialised)) {
+                subset |= 1L << bit;
+            }
+        }
+
+        return subset;
+    }
+
+    /**
+     * Gets the number of non-empty subsets.
+     *
+     * @return The number of subsets.
+     * @throws IllegalArgumentException If there are more than
+     * MAX_ORDERED_FORMULAS formulas.
+     */
+    public int getSubsetCount() {
+
+        if (_formulas.length > MAX_ORDERED_FORMULAS) {
+            throw new IllegalArgumentException(String.format("Cannot enumerate the subsets of %s formulas", _formulas.length));
+        }
+
+        return (1 << _formulas.length) - 1;
+    }
+
+    /**
+     * Gets every non-empty subset in the order the powerset reasoners try
+     * them: larger subsets first, then the subset whose formulas have the
+     * higher ranks position by position, then by the text of the formulas.
+     *
+     * The subsets are made one at a time, so a search that stops early
+     * neither holds nor orders the subsets it does not reach, and the number
+     * of formulas is only bounded by MAX_FORMULAS.
+     *
+     * @return The ordered subsets.
+     */
+    public PrimitiveIterator.OfLong orderedSubsets() {
+        return new OrderedSubsetIterator(_rankWeights, _textOrder);
+    }
+
+    /**
+     * Gets every non-empty subset in the order of orderedSubsets.
+     *
+     * @return The ordered subsets.
+     */
+    public long[] toOrderedSubsets() {
+
+        long[] subsets = new long[getSubsetCount()];
+
+        PrimitiveIterator.OfLong ordered = orderedSubsets();
+        for (int index = 0; index < subsets.length; index++) {
+            subsets[index] = ordered.nextLong();
+        }
+
+        return subsets;
+    }
+
+    /**
+     * Compares two subsets in the order of orderedSubsets.
+     *
+     * @param a The first subset.
+     * @param b The second subset.
+     * @return A negative number if a comes first, positive if b does.
+     */
+    public int compare(long a, long b) {
+
+        int cmpSize = Integer.compare(Long.bitCount(b), Long.bitCount(a));
+        if (cmpSize != 0) {
+            return cmpSize;
+        }
+
+        // position by position the formulas of both subsets, in bit order
+        for (long x = a, y = b; x != 0; x &= x - 1, y &= y - 1) {
+            int cmpRank = Integer.compare(
+                    _rankWeights[Long.numberOfTrailingZeros(y)],
+                    _rankWeights[Long.numberOfTrailingZeros(x)]);
+            if (cmpRank != 0) {
+                return cmpRank;
+            }
+        }
+
+        for (long x = a, y = b; x != 0; x &= x - 1, y &= y - 1) {
+            int cmpText = Integer.compare(
+                    _textOrder[Long.numberOfTrailingZeros(x)],
+                    _textOrder[Long.numberOfTrailingZeros(y)]);
+            if (cmpText != 0) {
+                return cmpText;
+            }
+        }
+
+        return Long.compare(a, b);
+    }
+
+    /**
+     * Gets the position of a subset in the order of orderedSubsets, from 0,
+     * with the empty subset after every other. The subsets that come first
+     * are counted rather than enumerated: the larger ones, then those with
+     * more formulas of a higher rank, then of an earlier run of text, then
+     * those of the smaller long among the formulas of a run.
+     *
+     * @param subset The subset.
+     * @return The position.
+     */
+    public long toPosition(long subset) {
+
+        int size = _formulas.length;
+        int count = Long.bitCount(subset);
+
+        if (count == 0) {
+            return (1L << size) - 1;
+        }
+
+        long position = 0;
+
+        for (int larger = count + 1; larger <= size; larger++) {
+            position += BINOMIALS[size][larger];
+        }
+
+        // the number of ways to place as many formulas as the subset in the ranks below each rank
+        int rankCount = _rankStarts.length - 1;
+        long[] lowerRankWays = new long[rankCount + 1];
+        lowerRankWays[rankCount] = 1;
+
+        for (int rank = rankCount - 1; rank >= 0; rank--) {
+            int from = _rankStarts[rank];
+            int to = _rankStarts[rank + 1];
+            lowerRankWays[rank] = lowerRankWays[rank + 1] * BINOMIALS[to - from][Long.bitCount(subset & toMask(from, to))];
+        }
+
+        int remaining = count;
+        long upperWays = 1;
+
+        for (int rank = 0; rank < rankCount; rank++) {
+
+            int from = _rankStarts[rank];
+            int to = _rankStarts[rank + 1];
+            int kept = Long.bitCount(subset & toMask(from, to));
+
+            for (int more = kept + 1; more <= Math.min(to - from, remaining); more++) {
+                position += upperWays * BINOMIALS[to - from][more] * BINOMIALS[size - to][remaining - more];
+            }
+
+            remaining -= kept;
+            upperWays *= BINOMIALS[to - from][kept];
+        }
+
+        upperWays = 1;
+
+        for (int rank = 0, run = 0; rank < rankCount; rank++) {
+
+            int rankEnd = _rankStarts[rank + 1];
+            remaining = Long.bitCount(subset & toMask(_rankStarts[rank], rankEnd));
+
+            for (; _textStarts[run] < rankEnd; run++) {
+
+                int from = _textStarts[run];
+                int to = _textStarts[run + 1];
+                int kept = Long.bitCount(subset & toMask(from, to));
+
+                for (int more = kept + 1; more <= Math.min(to - from, remaining); more++) {
+                    position += upperWays * BINOMIALS[to - from][more] * BINOMIALS[rankEnd - to][remaining - more] * lowerRankWays[rank + 1];
+                }
+
+                remaining -= kept;
+                upperWays *= BINOMIALS[to - from][kept];
+            }
+        }
+
+        // within the runs, by colexicographic rank from the lowest run up
+        long lowerRunWays = 1;
+
+        for (int run = 0; run < _textStarts.length - 1; run++) {
+
+            int from = _textStarts[run];
+            int to = _textStarts[run + 1];
+            long kept = (subset & toMask(from, to)) >>> from;
+
+            int index = 0;
+            for (long rest = kept; rest != 0; rest &= rest - 1) {
+                position += BINOMIALS[Long.numberOfTrailingZeros(rest)][++index] * lowerRunWays;
+            }
+
+            lowerRunWays *= BINOMIALS[to - from][index];
+        }
+
+        return position;
+    }
+
+    /**
+     * Gets the fingerprint of the materialised fixed formulas and subset,
+     * equal to the fingerprint of the knowledge base of toKnowledgeBase.
+     *
+     * @param subset The subset.
+     * @return The fingerprint.
+     */
+    public Fingerprint toFingerprint(long subset) {
+
+        Fingerprint fingerprint = _fixedFingerprint;
+
+        for (long rest = subset; rest != 0; rest &= rest - 1) {
+            int bit = Long.numberOfTrailingZeros(rest);
+            if ((subset & _sameAs[bit]) == 0) {
+                fingerprint = fingerprint.plus(_fingerprints[bit]);
+            }
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Gets the formulas of a subset in bit order.
+     *
+     * @param subset The subset.
+     * @return The formulas.
+     */
+    public List<PlFormula> toFormulas(long subset) {
+
+        List<PlFormula> formulas = new ArrayList<>(Long.bitCount(subset));
+
+        for (long rest = subset; rest != 0; rest &= rest - 1) {
+            formulas.add(_formulas[Long.numberOfTrailingZeros(rest)]);
+        }
+
+        return formulas;
+    }
+
+    /**
+     * Gets the materialised formulas of a subset, without the fixed formulas.
+     *
+     * @param subset The subset.
+     * @return The materialised formulas.
+     */
+    public Set<PlFormula> toMaterialisedFormulas(long subset) {
+
+        Set<PlFormula> formulas = new LinkedHashSet<>();
+
+        for (long rest = subset; rest != 0; rest &= rest - 1) {
+            formulas.add(_materialised[Long.numberOfTrailingZeros(rest)]);
+        }
+
+        return formulas;
+    }
+
+    /**
+     * Gets the formulas of a subset as a knowledge base.
+     *
+     * @param subset The subset.
+     * @return The knowledge base.
+     */
+    public KnowledgeBase toKnowledgeBase(long subset) {
+        return new KnowledgeBase(toFormulas(subset));
+    }
+
+    /**
+     * Gets the materialised knowledge base of the fixed formulas and a
+     * subset.
+     *
+     * @param subset The subset.
+     * @return The materialised knowledge base.
+     */
+    public KnowledgeBase toMaterialisedKnowledgeBase(long subset) {
+
+        KnowledgeBase knowledgeBase = new KnowledgeBase(_fixedFormulas);
+        knowledgeBase.addAll(toMaterialisedFormulas(subset));
+
+        return knowledgeBase;
+    }
+
+    private static long toMask(int from, int to) {
+        return to - from == 64 ? -1L : ((1L << (to - from)) - 1) << from;
+    }
+
+    // the first index of every run of equal keys, then the length
+    private static int[] toRunStarts(int[] outerKeys, int[] innerKeys) {
+
+        List<Integer> starts = new ArrayList<>();
+
+        for (int index = 0; index < outerKeys.length; index++) {
+            if (index == 0 || outerKeys[index] != outerKeys[index - 1] || innerKeys[index] != innerKeys[index - 1]) {
+                starts.add(index);
+            }
+        }
+
+        starts.add(outerKeys.length);
+
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static long[][] toBinomials(int size) {
+
+        long[][] binomials = new long[size + 1][size + 1];
+
+        for (int n = 0; n <= size; n++) {
+            binomials[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                binomials[n][k] = binomials[n - 1][k - 1] + binomials[n - 1][k];
+            }
+        }
+
+        return binomials;
+    }
+
+    private static int[] toTextOrder(String[] sortedTexts) {
+
+        int[] textOrder = new int[sortedTexts.length];
+        Integer[] byText = new Integer[sortedTexts.length];
+        for (int index = 0; index < byText.length; index++) {
+            byText[index] = index;
+        }
+        Arrays.sort(byText, Comparator.comparing(index -> sortedTexts[index]));
+
+        for (int position = 0; position < byText.length; position++) {
+            int index = byText[position];
+            boolean isTie = position > 0 && sortedTexts[byText[position - 1]].equals(sortedTexts[index]);
+            textOrder[index] = isTie ? textOrder[byText[position - 1]] : position;
+        }
+
+        return textOrder;
+    }
+}
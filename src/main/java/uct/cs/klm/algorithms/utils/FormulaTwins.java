@@ -0,0 +1,71 @@
+package uct.cs.klm.algorithms.utils;
+
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.models.DefeasibleImplication;
+
+/**
+ * This class represents a process-wide memo of the materialised and
+ * dematerialised twins and the negation of formulas, so converting a formula
+ * again returns the same instance instead of allocating a new one, and the
+ * caches keyed by formula instance hit for it.
+ *
+ * Twins are kept by formula instance in bounded LRU caches; the twin of a
+ * formula that has been evicted is built afresh, equal to the old one.
+ */
+public final class FormulaTwins {
+
+    // upper bound on the twins of each kind
+    private static final int MAX_ENTRIES = 200_000;
+
+    private static final IdentityCache<PlFormula, PlFormula> _materialised = new IdentityCache<>(MAX_ENTRIES);
+    private static final IdentityCache<PlFormula, PlFormula> _dematerialised = new IdentityCache<>(MAX_ENTRIES);
+    private static final IdentityCache<PlFormula, PlFormula> _negations = new IdentityCache<>(MAX_ENTRIES);
+
+    private FormulaTwins() {
+    }
+
+    /**
+     * Gets the classical counterpart of a defeasible implication; any other
+     * formula is its own materialisation.
+     *
+     * @param formula The formula.
+     * @return The materialised formula.
+     */
+    public static PlFormula materialise(PlFormula formula) {
+
+        if (formula instanceof DefeasibleImplication defeasibleImplication) {
+            return _materialised.get(formula, f -> new Implication(defeasibleImplication.getFormulas()));
+        }
+
+        return formula;
+    }
+
+    /**
+     * Gets the defeasible counterpart of a classical implication; any other
+     * formula is its own dematerialisation.
+     *
+     * @param formula The formula.
+     * @return The dematerialised formula.
+     */
+    public static PlFormula dematerialise(PlFormula formula) {
+
+        if (formula instanceof Implication implication && !(formula instanceof DefeasibleImplication)) {
+            return _dematerialised.get(formula, f -> new DefeasibleImplication(implication.getFormulas()));
+        }
+
+        return formula;
+    }
+
+    /**
+     * Gets the negation of a formula.
+     *
+     * @param formula The formula.
+     * @return The negation.
+     */
+    public static PlFormula negate(PlFormula formula) {
+        return _negations.get(formula, Negation::new);
+    }
+}
@@ -0,0 +1,121 @@
+package uct.cs.klm.algorithms.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * This class represents a bounded cache of values computed from keys that are
+ * compared by identity, e.g. formulas, whose structural equality would change
+ * if one were changed while cached.
+ *
+ * Entries are kept in access-ordered (LRU) segments, as in EntailmentCache. A
+ * segment evicts its eldest entry under its own lock as it adds a new one, so
+ * the cache never grows past its capacity and never drops an entry it is
+ * adding. A value is computed outside the lock, so two threads may compute
+ * the same one; the first stored is returned to both.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class IdentityCache<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment<K, V>[] _segments;
+
+    /**
+     * Creates a cache holding at most (roughly) the given number of entries.
+     *
+     * @param capacity The maximum number of entries.
+     */
+    @SuppressWarnings("unchecked")
+    public IdentityCache(int capacity) {
+        int segmentCapacity = Math.max(1, capacity / SEGMENT_COUNT);
+        _segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            _segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Gets the cached value of a key or computes and stores it.
+     *
+     * @param key The key.
+     * @param function Computes the value on a miss.
+     * @return The value.
+     */
+    public V get(K key, Function<? super K, ? extends V> function) {
+
+        IdentityKey<K> identityKey = new IdentityKey<>(key);
+        Segment<K, V> segment = _segments[Math.floorMod(identityKey.hashCode(), SEGMENT_COUNT)];
+
+        V value;
+        synchronized (segment) {
+            value = segment.get(identityKey);
+        }
+
+        if (value != null) {
+            return value;
+        }
+
+        value = function.apply(key);
+
+        synchronized (segment) {
+            V existing = segment.putIfAbsent(identityKey, value);
+            return existing != null ? existing : value;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : _segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : _segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * A key comparing objects by identity.
+     */
+    private record IdentityKey<K>(K key) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey<?> identityKey && identityKey.key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<IdentityKey<K>, V> {
+
+        private final int _capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            _capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IdentityKey<K>, V> eldest) {
+            return size() > _capacity;
+        }
+    }
+}
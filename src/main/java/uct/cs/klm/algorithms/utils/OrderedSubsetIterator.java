@@ -0,0 +1,258 @@
+package uct.cs.klm.algorithms.utils;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * This class represents a lazy enumeration of the non-empty subsets of a
+ * formula subset index, in the order of FormulaSubsetIndex.compare.
+ *
+ * The bits are sorted by rank descending, then by text, so the bits of a rank
+ * form a block and the bits of a rank with the same text form a group. For a
+ * subset size the order is then an odometer of three levels: how many bits of
+ * each block (the most of the highest rank first), how many bits of each
+ * group inside a block (the most of the first text first), and which bits of
+ * each group (by value, the highest group deciding). Each level steps to its
+ * successor in place, so only a few words per formula are held at any time.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+final class OrderedSubsetIterator implements PrimitiveIterator.OfLong {
+
+    // the groups of every block, and the first bit and number of bits of every group
+    private final int[][] _blockGroups;
+    private final int[] _blocks;
+    private final int[] _blockSizes;
+    private final int[] _groupStarts;
+    private final int[] _groupSizes;
+
+    private final int[] _blockCounts;
+    private final int[] _groupCounts;
+    private final long[] _groupMasks;
+
+    private int _subsetSize;
+    private boolean _hasNext;
+
+    /**
+     * Enumerates the subsets of bits sorted by rank weight descending, then
+     * by text order.
+     *
+     * @param rankWeights The rank weight of every bit.
+     * @param textOrder The text order of every bit.
+     */
+    OrderedSubsetIterator(int[] rankWeights, int[] textOrder) {
+
+        int size = rankWeights.length;
+
+        int blockCount = 0;
+        int groupCount = 0;
+        for (int bit = 0; bit < size; bit++) {
+            boolean isNewBlock = bit == 0 || rankWeights[bit] != rankWeights[bit - 1];
+            if (isNewBlock) {
+                blockCount++;
+            }
+            if (isNewBlock || textOrder[bit] != textOrder[bit - 1]) {
+                groupCount++;
+            }
+        }
+
+        _blockGroups = new int[blockCount][];
+        _blockSizes = new int[blockCount];
+        _groupStarts = new int[groupCount];
+        _groupSizes = new int[groupCount];
+
+        int block = -1;
+        int group = -1;
+        int blockStartGroup = 0;
+        for (int bit = 0; bit < size; bit++) {
+
+            boolean isNewBlock = bit == 0 || rankWeights[bit] != rankWeights[bit - 1];
+
+            if (isNewBlock) {
+                if (block >= 0) {
+                    _blockGroups[block] = toRange(blockStartGroup, group + 1);
+                }
+                block++;
+                blockStartGroup = group + 1;
+            }
+
+            if (isNewBlock || textOrder[bit] != textOrder[bit - 1]) {
+                group++;
+                _groupStarts[group] = bit;
+            }
+
+            _blockSizes[block]++;
+            _groupSizes[group]++;
+        }
+
+        if (block >= 0) {
+            _blockGroups[block] = toRange(blockStartGroup, group + 1);
+        }
+
+        _blocks = toRange(0, blockCount);
+        _blockCounts = new int[blockCount];
+        _groupCounts = new int[groupCount];
+        _groupMasks = new long[groupCount];
+
+        _subsetSize = size;
+        _hasNext = size > 0;
+
+        if (_hasNext) {
+            firstBlockCounts();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return _hasNext;
+    }
+
+    @Override
+    public long nextLong() {
+
+        if (!_hasNext) {
+            throw new NoSuchElementException();
+        }
+
+        long subset = 0L;
+        for (int group = 0; group < _groupMasks.length; group++) {
+            subset |= _groupMasks[group] << _groupStarts[group];
+        }
+
+        _hasNext = nextGroupMasks() || nextGroupCounts() || nextBlockCounts();
+
+        return subset;
+    }
+
+    private boolean nextGroupMasks() {
+
+        // the lowest group is the least significant
+        for (int group = 0; group < _groupMasks.length; group++) {
+
+            if (_groupCounts[group] == 0) {
+                continue;
+            }
+
+            long next = nextCombination(_groupMasks[group]);
+
+            if (next < (1L << _groupSizes[group])) {
+                _groupMasks[group] = next;
+                return true;
+            }
+
+            _groupMasks[group] = firstCombination(_groupCounts[group]);
+        }
+
+        return false;
+    }
+
+    private boolean nextGroupCounts() {
+
+        // the last block is the least significant
+        for (int block = _blockGroups.length - 1; block >= 0; block--) {
+
+            if (nextComposition(_groupCounts, _groupSizes, _blockGroups[block])) {
+                firstGroupMasks();
+                return true;
+            }
+
+            firstComposition(_groupCounts, _groupSizes, _blockGroups[block], _blockCounts[block]);
+        }
+
+        return false;
+    }
+
+    private boolean nextBlockCounts() {
+
+        if (!nextComposition(_blockCounts, _blockSizes, _blocks)) {
+
+            _subsetSize--;
+
+            if (_subsetSize == 0) {
+                return false;
+            }
+
+            firstBlockCounts();
+            return true;
+        }
+
+        firstGroupCounts();
+        return true;
+    }
+
+    private void firstBlockCounts() {
+        firstComposition(_blockCounts, _blockSizes, _blocks, _subsetSize);
+        firstGroupCounts();
+    }
+
+    private void firstGroupCounts() {
+        for (int block = 0; block < _blockGroups.length; block++) {
+            firstComposition(_groupCounts, _groupSizes, _blockGroups[block], _blockCounts[block]);
+        }
+        firstGroupMasks();
+    }
+
+    private void firstGroupMasks() {
+        for (int group = 0; group < _groupMasks.length; group++) {
+            _groupMasks[group] = firstCombination(_groupCounts[group]);
+        }
+    }
+
+    // the largest counts first, from the left, within the bounds
+    private static void firstComposition(int[] counts, int[] bounds, int[] positions, int total) {
+        for (int position : positions) {
+            counts[position] = Math.min(bounds[position], total);
+            total -= counts[position];
+        }
+    }
+
+    // the next counts with the same total, lexicographically descending
+    private static boolean nextComposition(int[] counts, int[] bounds, int[] positions) {
+
+        int rest = 0;
+        int capacity = 0;
+
+        for (int index = positions.length - 1; index >= 0; index--) {
+
+            int position = positions[index];
+
+            if (counts[position] > 0 && capacity > rest) {
+
+                counts[position]--;
+                rest++;
+
+                for (int next = index + 1; next < positions.length; next++) {
+                    counts[positions[next]] = Math.min(bounds[positions[next]], rest);
+                    rest -= counts[positions[next]];
+                }
+
+                return true;
+            }
+
+            rest += counts[position];
+            capacity += bounds[position];
+        }
+
+        return false;
+    }
+
+    private static long firstCombination(int count) {
+        return count == 0 ? 0L : -1L >>> (64 - count);
+    }
+
+    // the next larger word with as many bits (Gosper's hack)
+    private static long nextCombination(long mask) {
+        long lowest = mask & -mask;
+        long ripple = mask + lowest;
+        return ripple | (((mask ^ ripple) >>> 2) / lowest);
+    }
+
+    private static int[] toRange(int from, int to) {
+        int[] range = new int[to - from];
+        for (int index = 0; index < range.length; index++) {
+            range[index] = from + index;
+        }
+        return range;
+    }
+}
@@ -1,11 +1,14 @@
 package uct.cs.klm.algorithms.utils;
 
+import uct.cs.klm.algorithms.compilation.IKnowledgeCompiler;
 import uct.cs.klm.algorithms.relevant.*;
 import uct.cs.klm.algorithms.lexicographic.*;
 import uct.cs.klm.algorithms.rational.*;
 import uct.cs.klm.algorithms.enums.*;
 import uct.cs.klm.algorithms.explanation.*;
 import uct.cs.klm.algorithms.services.*;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
 
 /**
  * This class represents a reasoner factory for a given query.
@@ -37,33 +40,146 @@ public class ReasonerFactory {
         };
     }
 
+    public static Algorithm createAlgorithm(String algorithm) {
+
+        if (algorithm == null || algorithm.isBlank()) {
+            return Algorithm.Naive;
+        }
+
+        return switch (algorithm.toLowerCase()) {
+            case "naive" ->
+                Algorithm.Naive;
+            case "naiveindex" ->
+                Algorithm.NaiveIndex;
+            case "binary" ->
+                Algorithm.Binary;
+            case "binaryindex" ->
+                Algorithm.BinaryIndex;
+            case "ternary" ->
+                Algorithm.Ternary;
+            case "ternaryindex" ->
+                Algorithm.TernaryIndex;
+            case "parallel" ->
+                Algorithm.Parallel;
+            case "parallelindex" ->
+                Algorithm.ParallelIndex;
+            case "powerset" ->
+                Algorithm.PowerSet;
+            case "powersetcombined" ->
+                Algorithm.PowerSetCombined;
+            case "powersetsubset" ->
+                Algorithm.PowerSetSubset;
+            case "maxsat" ->
+                Algorithm.MaxSat;
+            case "cardinality" ->
+                Algorithm.Cardinality;
+
+            default ->
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        };
+    }
+
     public static IReasonerService createEntailment(ReasonerType reasonerType) {
+        return createEntailment(reasonerType, SatBackendFactory.getDefault());
+    }
+
+    public static IReasonerService createEntailment(ReasonerType reasonerType, ISatBackend backend) {
+        return createEntailment(reasonerType, backend, null);
+    }
+
+    public static IReasonerService createEntailment(ReasonerType reasonerType, ISatBackend backend, IKnowledgeCompiler compiler) {
         return switch (reasonerType) {
             case ReasonerType.RationalClosure ->
-                new RationalClosureReasonerImpl();
+                new RationalClosureReasonerImpl(backend, compiler);
             case ReasonerType.LexicographicClosure ->
-                new LexicographicClosureReasonerImpl();
+                new LexicographicClosureReasonerImpl(backend, compiler);
             case ReasonerType.MinimalRelevantClosure ->
-                new MinimalRelevantReasonerImpl();
+                new MinimalRelevantReasonerImpl(backend, compiler);
             case ReasonerType.BasicRelevantClosure ->
-                new BasicRelevantReasonerImpl();
+                new BasicRelevantReasonerImpl(backend, compiler);
 
             default ->
                 throw new IllegalArgumentException("Unknown reasoner: " + reasonerType);
         };
     }
 
+    public static IReasonerService createEntailment(ReasonerType reasonerType, Algorithm algorithm) {
+        return createEntailment(reasonerType, algorithm, SatBackendFactory.getDefault(), null);
+    }
+
+    /**
+     * Creates a reasoner as createEntailment does, with an entailment cache
+     * and removal boundary memo of its own rather than the shared ones, for
+     * runs that are timed.
+     */
+    public static IReasonerService createIsolatedEntailment(ReasonerType reasonerType, Algorithm algorithm) {
+
+        IReasonerService reasoner = createEntailment(reasonerType, algorithm);
+
+        if (reasoner instanceof KlmReasonerBase klmReasoner) {
+            klmReasoner.useOwnCaches();
+        }
+
+        return reasoner;
+    }
+
+    /**
+     * Creates a reasoner that uses the given algorithm where the reasoner has
+     * a variant for it, and its default algorithm otherwise.
+     */
+    public static IReasonerService createEntailment(ReasonerType reasonerType, Algorithm algorithm, ISatBackend backend, IKnowledgeCompiler compiler) {
+        return switch (reasonerType) {
+            case ReasonerType.RationalClosure ->
+                switch (algorithm) {
+                    case Algorithm.NaiveIndex ->
+                        new RationalClosureReasonerImpl(backend, compiler, true);
+                    case Algorithm.Binary ->
+                        new RationalClosureBinaryReasonerImpl(backend, compiler);
+                    case Algorithm.BinaryIndex ->
+                        new RationalClosureBinaryReasonerImpl(backend, compiler, true);
+                    case Algorithm.Ternary ->
+                        new RationalClosureTernaryReasonerImpl(backend, compiler);
+                    case Algorithm.TernaryIndex ->
+                        new RationalClosureTernaryReasonerImpl(backend, compiler, true);
+                    case Algorithm.Parallel ->
+                        new RationalClosureParallelReasonerImpl(backend, compiler);
+                    case Algorithm.ParallelIndex ->
+                        new RationalClosureParallelReasonerImpl(backend, compiler, true);
+
+                    default ->
+                        new RationalClosureReasonerImpl(backend, compiler);
+                };
+            case ReasonerType.LexicographicClosure ->
+                switch (algorithm) {
+                    case Algorithm.MaxSat ->
+                        new LexicographicClosureMaxSatReasonerImpl(backend, compiler);
+                    case Algorithm.Cardinality ->
+                        new LexicographicClosureCardinalityReasonerImpl(backend, compiler);
+
+                    default ->
+                        new LexicographicClosureReasonerImpl(backend, compiler);
+                };
+
+            default ->
+                createEntailment(reasonerType, backend, compiler);
+        };
+    }
+
     public static IJustificationService createJustification(ReasonerType reasonerType) {
+        return createJustification(reasonerType, SatBackendFactory.getDefault());
+    }
+
+    public static IJustificationService createJustification(ReasonerType reasonerType, ISatBackend backend) {
 
         return switch (reasonerType) {
             case ReasonerType.RationalClosure ->
-                new RationalClosureJustificationService();
+                new RationalClosureJustificationService(backend);
             case ReasonerType.LexicographicClosure ->
-                new LexicographicClosureJustificationService();
+                new LexicographicClosureJustificationService(backend);
             case ReasonerType.MinimalRelevantClosure ->
-                new MinimalRelevantJustificationService();
+                new MinimalRelevantJustificationService(backend);
             case ReasonerType.BasicRelevantClosure ->
-                new BasicRelevantJustificationService();
+                new BasicRelevantJustificationService(backend);
 
             default ->
                 throw new IllegalArgumentException("Unknown reasoner: " + reasonerType);
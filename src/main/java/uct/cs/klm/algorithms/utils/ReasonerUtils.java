@@ -5,8 +5,10 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.AbstractMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -17,7 +19,6 @@ import org.tweetyproject.logics.pl.syntax.PlFormula;
 
 import uct.cs.klm.algorithms.models.DefeasibleImplication;
 import uct.cs.klm.algorithms.models.KnowledgeBase;
-import uct.cs.klm.algorithms.models.ModelFormulaRanked;
 import uct.cs.klm.algorithms.models.ModelRankResponse;
 import uct.cs.klm.algorithms.ranking.ModelBaseRank;
 import uct.cs.klm.algorithms.ranking.ModelRank;
@@ -69,12 +70,7 @@ public final class ReasonerUtils {
      * @return Defeasible implication.
      */
     public static PlFormula toMaterialisedFormula(PlFormula formula) {
-
-        if (formula instanceof DefeasibleImplication defeasibleImplication) {
-            return new Implication(defeasibleImplication.getFormulas());
-        }
-
-        return formula;
+        return FormulaTwins.materialise(formula);
     }
 
     /**
@@ -84,26 +80,25 @@ public final class ReasonerUtils {
      * @return Classical implication.
      */
     public static PlFormula toDematerialisedFormula(PlFormula formula) {
-        if ((formula instanceof Implication implication) && !(formula instanceof DefeasibleImplication)) {
-            return new DefeasibleImplication(implication.getFormulas());
-        }
+        return FormulaTwins.dematerialise(formula);
+    }
 
-        return formula;
+    /**
+     * Gets the negation of a formula.
+     *
+     * @param formula The formula.
+     * @return The negation.
+     */
+    public static PlFormula toNegatedFormula(PlFormula formula) {
+        return FormulaTwins.negate(formula);
     }
 
     public static KnowledgeBase toMaterialisedKnowledgeBase(KnowledgeBase knowledgeBase) {
-
-        KnowledgeBase result = new KnowledgeBase();
-
-        knowledgeBase.forEach(formula -> {
-            result.add(toMaterialisedFormula(formula));
-        });
-
-        return result;
+        return new KnowledgeBase(knowledgeBase.getMaterialisedView());
     }
 
     public static KnowledgeBase toMaterialisedKnowledgeBase(ModelRank rank) {
-        return toMaterialisedKnowledgeBase(rank.getFormulas().materialisedKnowledgeBase());
+        return new KnowledgeBase(rank.getMaterialisedView());
     }
 
     public static KnowledgeBase toKnowledgeBase(ModelRank infinityRank, ModelRankCollection higherRanks, List<PlFormula> powersetEntry, KnowledgeBase irrelevantKb) {
@@ -128,26 +123,39 @@ public final class ReasonerUtils {
 
     public static KnowledgeBase toMaterialisedKnowledgeBase(ModelRank infinityRank, ModelRankCollection higherRanks, List<PlFormula> powersetEntry) {
 
-        List<PlFormula> allFormulas = new ArrayList<>();
-
-        allFormulas.addAll(infinityRank.getFormulas());
-
-        allFormulas.addAll(toMaterialisedKnowledgeBase(higherRanks));
+        KnowledgeBase result = new KnowledgeBase(infinityRank.getMaterialisedView());
 
-        var powersetKb = new KnowledgeBase(powersetEntry);
-        allFormulas.addAll(powersetKb.materialisedKnowledgeBase());
+        for (ModelRank rank : higherRanks) {
+            result.addAll(rank.getMaterialisedView());
+        }
 
-        powersetKb.addAll(allFormulas);
+        for (PlFormula formula : powersetEntry) {
+            result.add(toMaterialisedFormula(formula));
+        }
 
-        return powersetKb.materialisedKnowledgeBase();
+        return result;
     }
 
     public static KnowledgeBase toMaterialisedKnowledgeBase(ArrayList<ModelRank> baseRank) {
-        return toMaterialisedKnowledgeBase(toKnowledgeBase(baseRank).materialisedKnowledgeBase());
+        return toMaterialisedKnowledgeBase((List<ModelRank>) baseRank);
     }
 
+    /**
+     * Materialises a union of ranks by concatenating the cached materialised
+     * view of every rank.
+     *
+     * @param baseRank The ranks.
+     * @return The materialised knowledge base.
+     */
     public static KnowledgeBase toMaterialisedKnowledgeBase(List<ModelRank> baseRank) {
-        return toMaterialisedKnowledgeBase(toKnowledgeBase(baseRank).materialisedKnowledgeBase());
+
+        KnowledgeBase result = new KnowledgeBase();
+
+        for (ModelRank rank : baseRank) {
+            result.addAll(rank.getMaterialisedView());
+        }
+
+        return result;
     }
 
     public static ModelRankCollection toModelRankCollection(ArrayList<ModelRank> baseRank) {
@@ -196,7 +204,7 @@ public final class ReasonerUtils {
 
     public static KnowledgeBase removeFormula(KnowledgeBase kb, PlFormula formula) {
         KnowledgeBase result = new KnowledgeBase(kb);
-        result.getFormulas().remove(formula);
+        result.remove(formula);
         return result;
     }
 
@@ -393,26 +401,19 @@ public final class ReasonerUtils {
             return new ArrayList<>();
         }
 
-        List<List<PlFormula>> combinations = new ArrayList<>();
-
-        // Generate all possible combinations
-        for (int i = 1; i <= rank.getFormulas().size(); i++) {
-            combinations.addAll(generateFormulaCombinations(formulaList, i));
-        }
-
-        combinations.add(new ArrayList<>());
-
-        combinations.sort((a, b) -> Integer.compare(b.size(), a.size()));
+        // all combinations as bit subsets of the formula list, largest first
+        int i = 0;
+        for (int size = formulaList.size(); size >= 0; size--) {
+            for (long combination : toCombinations(formulaList.size(), size)) {
 
-        for (int i = 0; i < combinations.size(); i++) {
+                ModelRank model = new ModelRank(i++);
 
-            ModelRank model = new ModelRank(i);
+                for (long rest = combination; rest != 0; rest &= rest - 1) {
+                    model.addFormula(formulaList.get(Long.numberOfTrailingZeros(rest)));
+                }
 
-            for (PlFormula formula : combinations.get(i)) {
-                model.addFormula(formula);
+                modelRankings.add(model);
             }
-
-            modelRankings.add(model);
         }
 
         int counter = 0;
@@ -434,23 +435,68 @@ public final class ReasonerUtils {
 
         List<List<PlFormula>> combinations = new ArrayList<>();
 
-        if (size == 0) {
-            combinations.add(new ArrayList<>());
-        } else {
+        for (long combination : toCombinations(formulaList.size(), size)) {
+            combinations.add(toFormulaList(formulaList, combination));
+        }
 
-            for (int i = 0; i < formulaList.size(); i++) {
-                PlFormula value = formulaList.get(i);
-                List<PlFormula> rest = formulaList.subList(i + 1, formulaList.size());
-                for (List<PlFormula> p : generateFormulaCombinations(rest, size - 1)) {
-                    List<PlFormula> combination = new ArrayList<>();
-                    combination.add(value);
-                    combination.addAll(p);
-                    combinations.add(combination);
-                }
+        return combinations;
+    }
+
+    /**
+     * Gets the subsets of the given size of n items as bit subsets, in the
+     * lexicographic order of their item indices.
+     *
+     * @param n The number of items, at most 63.
+     * @param size The size of the subsets.
+     * @return The subsets.
+     */
+    private static List<Long> toCombinations(int n, int size) {
+
+        List<Long> combinations = new ArrayList<>();
+
+        if (size > n) {
+            return combinations;
+        }
+
+        int[] indices = new int[size];
+        for (int k = 0; k < size; k++) {
+            indices[k] = k;
+        }
+
+        while (true) {
+
+            long combination = 0L;
+            for (int index : indices) {
+                combination |= 1L << index;
+            }
+            combinations.add(combination);
+
+            // advance the rightmost index that can still move
+            int k = size - 1;
+            while (k >= 0 && indices[k] == n - size + k) {
+                k--;
+            }
+
+            if (k < 0) {
+                return combinations;
+            }
+
+            indices[k]++;
+            for (int next = k + 1; next < size; next++) {
+                indices[next] = indices[next - 1] + 1;
             }
         }
+    }
 
-        return combinations;
+    private static List<PlFormula> toFormulaList(List<PlFormula> formulaList, long subset) {
+
+        List<PlFormula> formulas = new ArrayList<>(Long.bitCount(subset));
+
+        for (long rest = subset; rest != 0; rest &= rest - 1) {
+            formulas.add(formulaList.get(Long.numberOfTrailingZeros(rest)));
+        }
+
+        return formulas;
     }
 
     public static List<List<PlFormula>> AddToList(List<List<PlFormula>> addTo, List<List<PlFormula>> addFrom) {
@@ -516,45 +562,47 @@ public final class ReasonerUtils {
             counter++;
         }
          */
-        List<List<PlFormula>> result = new ArrayList<>();
+        // the previous subsets as bit subsets over the first index of each formula
         int n = formulaList.size();
-        int totalSubsets = 1 << n;
-
-        for (int i = 1; i < totalSubsets; i++) {
-            List<PlFormula> subset = new ArrayList<>();
-            for (int j = 0; j < n; j++) {
-                // Check if jth bit is set in i
-                if ((i & (1 << j)) != 0) {
-                    subset.add(formulaList.get(j));
+        Map<PlFormula, Integer> firstIndex = new HashMap<>();
+        for (int j = n - 1; j >= 0; j--) {
+            firstIndex.put(formulaList.get(j), j);
+        }
+
+        Set<Long> previousSubsets = new HashSet<>();
+        for (List<PlFormula> list : previousPowersets) {
+
+            long subset = 0L;
+            for (PlFormula formula : list) {
+                Integer index = firstIndex.get(formula);
+                if (index == null) {
+                    subset = -1L;
+                    break;
                 }
+                subset |= 1L << index;
             }
-            result.add(subset);
-        }
 
-        /*
-        counter = 0;
-        for (var ff : result) {
-            DisplayUtils.LogDebug(_logger, String.format("---powersetIterative::result := %s: %s", counter, ff));
-            counter++;
+            // the size tells lists with repeated formulas apart, as before
+            if (subset != -1L && Long.bitCount(subset) == list.size()) {
+                previousSubsets.add(subset);
+            }
         }
-         */
-        List<List<PlFormula>> finalResult = new ArrayList<>();
 
-        for (List<PlFormula> list : result) {
+        List<List<PlFormula>> finalResult = new ArrayList<>();
+        long totalSubsets = 1L << n;
 
-            DisplayUtils.LogDebug(_logger, String.format("---powersetIterative::CurrentList := %s", list));
+        for (long i = 1; i < totalSubsets; i++) {
 
-            if (previousPowersets.contains(list)) {
-                continue;
+            long subset = 0L;
+            for (long rest = i; rest != 0; rest &= rest - 1) {
+                subset |= 1L << firstIndex.get(formulaList.get(Long.numberOfTrailingZeros(rest)));
             }
 
-            boolean exists = previousPowersets.stream().anyMatch(ls -> ls.size() == list.size() && new HashSet<>(ls).equals(new HashSet<>(list)));
-
-            if (exists) {
+            if (Long.bitCount(subset) == Long.bitCount(i) && previousSubsets.contains(subset)) {
                 continue;
             }
 
-            finalResult.add(list);
+            finalResult.add(toFormulaList(formulaList, i));
         }
 
         finalResult.sort(Comparator.comparingInt(List<PlFormula>::size).reversed());
@@ -575,24 +623,21 @@ public final class ReasonerUtils {
 
         List<List<PlFormula>> result = new ArrayList<>();
         int n = rankList.size();
-        int totalSubsets = 1 << n; // 2^n
-
-        for (int i = 1; i < totalSubsets; i++) {
-            List<PlFormula> subset = new ArrayList<>();
-            for (int j = 0; j < n; j++) {
-                // Check if jth bit is set in i
-                if ((i & (1 << j)) != 0) {
-                    subset.add(rankList.get(j));
+        long totalSubsets = 1L << n; // 2^n
+
+        // by size, and by bit subset within a size (reversed when starting large)
+        for (int k = 1; k <= n; k++) {
+
+            int size = startSmall ? k : n + 1 - k;
+
+            for (long i = 1; i < totalSubsets; i++) {
+                long subset = startSmall ? i : totalSubsets - i;
+                if (Long.bitCount(subset) == size) {
+                    result.add(toFormulaList(rankList, subset));
                 }
             }
-            result.add(subset);
         }
 
-        result.sort(Comparator.comparingInt(List::size));
-
-        if (!startSmall) {
-            result = result.reversed();
-        }
         return result;
     }
 
@@ -600,73 +645,11 @@ public final class ReasonerUtils {
 
         rankCollection.sort(Comparator.comparingInt(ModelRank::getRankNumber));
 
-        List<ModelFormulaRanked> entries = new ArrayList<>();
-
-        for (ModelRank rank : rankCollection) {
-
-            for (PlFormula formula : rank.getFormulas()) {
-                entries.add(new ModelFormulaRanked(rank.getRankNumber() + 1, formula));
-            }
-        }
-
-        // Generate subsets of ModelFormulaRanked
-        List<List<ModelFormulaRanked>> subsets = new ArrayList<>();
-        powersetGenerate(0, entries, new ArrayList<>(), subsets);
-
-        // Sort formulas inside each subset by rank descending
-        for (List<ModelFormulaRanked> subset : subsets) {
-            subset.sort(
-                    Comparator.comparingInt(ModelFormulaRanked::rank).reversed()
-                            .thenComparing(m -> m.formula().toString())
-            );
-        }
-
-        // Sort subsets
-        subsets.sort((a, b) -> {
-            // 1. Size descending
-            int cmpSize = Integer.compare(b.size(), a.size());
-            if (cmpSize != 0) {
-                return cmpSize;
-            }
-
-            // 2. Lexicographic comparison of ranks
-            for (int i = 0; i < a.size(); i++) {
-                int cmpRank = Integer.compare(b.get(i).rank(), a.get(i).rank());
-                if (cmpRank != 0) {
-                    return cmpRank;
-                }
-            }
-
-            // 3. Tie-breaker: string comparison of formulas
-            for (int i = 0; i < a.size(); i++) {
-                int cmpFormula = a.get(i).formula().toString()
-                        .compareTo(b.get(i).formula().toString());
-                if (cmpFormula != 0) {
-                    return cmpFormula;
-                }
-            }
-
-            return 0;
-        });
-
-        // Convert to List<List<PlFormula>>
-        var resultList = subsets.stream()
-                .map(list -> list.stream()
-                .map(ModelFormulaRanked::formula)
-                .collect(Collectors.toList()))
-                .collect(Collectors.toList());
+        FormulaSubsetIndex index = new FormulaSubsetIndex(rankCollection, new KnowledgeBase());
 
         List<KnowledgeBase> finalKb = new ArrayList<>();
-        for (List<PlFormula> subset : resultList) {
-            if (subset.isEmpty()) {
-                continue;
-            }
-            KnowledgeBase kb = new KnowledgeBase();
-            for (PlFormula formula : subset) {
-                kb.add(formula);
-            }
-
-            finalKb.add(kb);
+        for (long subset : index.toOrderedSubsets()) {
+            finalKb.add(index.toKnowledgeBase(subset));
         }
 
         int counter = 1;
@@ -679,27 +662,6 @@ public final class ReasonerUtils {
         return finalKb;
     }
 
-    // Standard power-set generator
-    private static void powersetGenerate(
-            int index,
-            List<ModelFormulaRanked> entries,
-            List<ModelFormulaRanked> current,
-            List<List<ModelFormulaRanked>> result
-    ) {
-        if (index == entries.size()) {
-            result.add(new ArrayList<>(current));
-            return;
-        }
-
-        // Exclude
-        powersetGenerate(index + 1, entries, current, result);
-
-        // Include
-        current.add(entries.get(index));
-        powersetGenerate(index + 1, entries, current, result);
-        current.remove(current.size() - 1);  // backtrack
-    }
-
     public static ModelRank removeFormulasFromRank(ModelRank currentRank, KnowledgeBase knowledgeBase) {
 
         ModelRank resultRank = new ModelRank(currentRank.getRankNumber());
@@ -755,6 +717,75 @@ public final class ReasonerUtils {
         return powersetRanking;
     }
 
+    /**
+     * Gets the response ranks of subsets of an index, each with the infinity
+     * rank and the fixed formulas of the index, numbered from one. Gives the
+     * same ranks as building the knowledge base of every subset first.
+     *
+     * @param baseRank The base rank.
+     * @param index The formula subset index.
+     * @param subsets The subsets.
+     * @return The response ranks.
+     */
+    public static ArrayList<ModelRankResponse> toResponseRanks(ModelBaseRank baseRank, FormulaSubsetIndex index, long[] subsets) {
+
+        var infinityKb = toMaterialisedKnowledgeBase(baseRank.getRanking().getInfinityRank().getFormulas());
+
+        // the formulas of every base rank, and the bits that select each (-1 for always)
+        List<List<PlFormula>> rankFormulas = new ArrayList<>();
+        List<long[]> rankSelectors = new ArrayList<>();
+
+        for (ModelRank rank : baseRank.getRanking()) {
+
+            List<PlFormula> formulas = new ArrayList<>();
+            List<Long> selectors = new ArrayList<>();
+
+            for (PlFormula formula : rank.getFormulas()) {
+
+                boolean isFixed = infinityKb.contains(toMaterialisedFormula(formula)) || index.isFixed(formula);
+                long selector = isFixed ? -1L : index.toSubsetOf(formula);
+
+                if (selector != 0L) {
+                    formulas.add(formula);
+                    selectors.add(selector);
+                }
+            }
+
+            rankFormulas.add(formulas);
+            rankSelectors.add(selectors.stream().mapToLong(Long::longValue).toArray());
+        }
+
+        ArrayList<ModelRankResponse> powersetRanking = new ArrayList<>();
+
+        int counter = 1;
+        for (long subset : subsets) {
+
+            ArrayList<String> formulas = new ArrayList<>();
+
+            for (int r = 0; r < rankFormulas.size(); r++) {
+
+                // listed in the order of a rank holding just the selected formulas, as before
+                ModelRank rank = new ModelRank();
+                long[] selectors = rankSelectors.get(r);
+
+                for (int i = 0; i < selectors.length; i++) {
+                    if (selectors[i] == -1L || (selectors[i] & subset) != 0) {
+                        rank.addFormula(rankFormulas.get(r).get(i));
+                    }
+                }
+
+                for (PlFormula formula : rank.getFormulas()) {
+                    formulas.add(formula.toString());
+                }
+            }
+
+            powersetRanking.add(new ModelRankResponse(counter, formulas));
+            counter++;
+        }
+
+        return powersetRanking;
+    }
+
     public static ModelRankResponse toResponseKnowledgebase(ModelBaseRank baseRank, KnowledgeBase knowledgeBase, int rankNumber) {
         return new ModelRankResponse(rankNumber, toResponseKnowledgebase(baseRank, knowledgeBase));
     }
@@ -0,0 +1,145 @@
+package uct.cs.klm.algorithms.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+
+/**
+ * This class represents an inverted signature index of a set of formulas:
+ * every formula has a bitset of its atoms and every atom a bitset of the
+ * formulas it occurs in.
+ *
+ * Formulas and atoms are numbered in the order they are first met, so growing
+ * a set of formulas by the atoms they share is a handful of bitset ORs rather
+ * than a scan of every formula's signature.
+ *
+ * @version 1.0.1
+ * @since 2026-10-17
+ */
+public final class SignatureIndex {
+
+    private final PlFormula[] _formulas;
+    private final BitSet[] _formulaAtoms;
+    private final List<BitSet> _atomFormulas = new ArrayList<>();
+    private final Map<Proposition, Integer> _atomIds = new HashMap<>();
+
+    /**
+     * Indexes the given formulas.
+     *
+     * @param formulas The formulas.
+     */
+    public SignatureIndex(Collection<? extends PlFormula> formulas) {
+
+        _formulas = formulas.toArray(new PlFormula[0]);
+        _formulaAtoms = new BitSet[_formulas.length];
+
+        for (int position = 0; position < _formulas.length; position++) {
+
+            BitSet atoms = new BitSet();
+
+            for (Proposition atom : _formulas[position].getAtoms()) {
+
+                Integer atomId = _atomIds.get(atom);
+
+                if (atomId == null) {
+                    atomId = _atomIds.size();
+                    _atomIds.put(atom, atomId);
+                    _atomFormulas.add(new BitSet());
+                }
+
+                atoms.set(atomId);
+                _atomFormulas.get(atomId).set(position);
+            }
+
+            _formulaAtoms[position] = atoms;
+        }
+    }
+
+    public int size() {
+        return _formulas.length;
+    }
+
+    public int getAtomCount() {
+        return _atomIds.size();
+    }
+
+    /**
+     * Gets the atoms of a formula that occur in the indexed formulas.
+     *
+     * @param formula The formula.
+     * @return The atom bitset.
+     */
+    public BitSet toAtoms(PlFormula formula) {
+
+        BitSet atoms = new BitSet();
+
+        for (Proposition atom : formula.getAtoms()) {
+            Integer atomId = _atomIds.get(atom);
+            if (atomId != null) {
+                atoms.set(atomId);
+            }
+        }
+
+        return atoms;
+    }
+
+    /**
+     * Gets the atoms of the indexed formulas at the given positions.
+     *
+     * @param positions The formula positions.
+     * @return The atom bitset.
+     */
+    public BitSet toAtoms(BitSet positions) {
+
+        BitSet atoms = new BitSet();
+
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            atoms.or(_formulaAtoms[position]);
+        }
+
+        return atoms;
+    }
+
+    /**
+     * Gets the positions of the indexed formulas that share an atom with the
+     * given atoms.
+     *
+     * @param atoms The atom bitset.
+     * @return The formula positions.
+     */
+    public BitSet toRelatedFormulas(BitSet atoms) {
+
+        BitSet positions = new BitSet();
+
+        for (int atomId = atoms.nextSetBit(0); atomId >= 0; atomId = atoms.nextSetBit(atomId + 1)) {
+            positions.or(_atomFormulas.get(atomId));
+        }
+
+        return positions;
+    }
+
+    /**
+     * Gets the indexed formulas at the given positions as a knowledge base.
+     *
+     * @param positions The formula positions.
+     * @return The knowledge base.
+     */
+    public KnowledgeBase toKnowledgeBase(BitSet positions) {
+
+        KnowledgeBase knowledgeBase = new KnowledgeBase();
+
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            knowledgeBase.add(_formulas[position]);
+        }
+
+        return knowledgeBase;
+    }
+}
@@ -0,0 +1,145 @@
+package uct.cs.klm.algorithms.compilation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+import uct.cs.klm.algorithms.generators.RandomKnowledgeBaseGenerator;
+import uct.cs.klm.algorithms.models.DefeasibleImplication;
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.rational.RationalClosureReasonerImpl;
+import uct.cs.klm.algorithms.ranking.BaseRankService;
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+import uct.cs.klm.algorithms.sat.CnfSatReasoner;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.RankSatSession;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
+
+/**
+ * Checks the entailments of the BDD compiler against the SAT path on random
+ * knowledge bases.
+ */
+class BddKnowledgeCompilerTest {
+
+    private static final String SYMBOLS = "abcde";
+
+    private final ISatBackend backend = SatBackendFactory.getDefault();
+
+    protected IKnowledgeCompiler createCompiler() {
+        return new BddKnowledgeCompiler(1_000_000, 100_000);
+    }
+
+    @Test
+    void entailsAsTheSatSessionOnEveryRankSuffix() {
+
+        Random random = new Random(5);
+
+        for (int seed = 0; seed < 40; seed++) {
+
+            ModelBaseRank baseRank = new BaseRankService(backend).construct(toKnowledgeBase(seed, random));
+            RankSatSession session = baseRank.getSatSession(backend);
+            IKnowledgeCompiler compiler = createCompiler();
+
+            for (int fromIndex = 0; fromIndex <= session.getRanking().size(); fromIndex++) {
+                for (int query = 0; query < 8; query++) {
+
+                    PlFormula formula = toFormula(random);
+                    Boolean isEntailed = compiler.entails(session, fromIndex, formula, ReasoningBudget.unlimited());
+
+                    assertNotNull(isEntailed);
+                    assertEquals((Boolean) session.entails(fromIndex, formula), isEntailed, String.format("%s from %s", formula, fromIndex));
+                }
+            }
+        }
+    }
+
+    @Test
+    void entailsAsSatOnKnowledgeBases() {
+
+        Random random = new Random(6);
+        CnfSatReasoner reasoner = new CnfSatReasoner(backend);
+
+        for (int seed = 40; seed < 80; seed++) {
+
+            KnowledgeBase materialisedKb = new KnowledgeBase(toKnowledgeBase(seed, random).getMaterialisedView());
+            IKnowledgeCompiler compiler = createCompiler();
+
+            for (int query = 0; query < 8; query++) {
+
+                PlFormula formula = toFormula(random);
+                Boolean isEntailed = compiler.entails(materialisedKb, formula, ReasoningBudget.unlimited());
+
+                assertNotNull(isEntailed);
+                assertEquals((Boolean) reasoner.query(materialisedKb, formula), isEntailed, String.valueOf(formula));
+            }
+        }
+    }
+
+    @Test
+    void answersRationalClosureAsTheSatPath() {
+
+        Random random = new Random(7);
+
+        for (int seed = 80; seed < 120; seed++) {
+
+            ModelBaseRank baseRank = new BaseRankService(backend).construct(toKnowledgeBase(seed, random));
+
+            // own caches, so neither answers from the entailments of the other
+            RationalClosureReasonerImpl expectedReasoner = new RationalClosureReasonerImpl(backend);
+            RationalClosureReasonerImpl actualReasoner = new RationalClosureReasonerImpl(backend, createCompiler());
+            expectedReasoner.useOwnCaches();
+            actualReasoner.useOwnCaches();
+
+            for (int query = 0; query < 6; query++) {
+
+                PlFormula queryFormula = new DefeasibleImplication(toFormula(random), toLiteral(random));
+
+                ModelEntailment expected = expectedReasoner.getEntailment(baseRank, queryFormula, ReasoningBudget.unlimited());
+                ModelEntailment actual = actualReasoner.getEntailment(baseRank, queryFormula, ReasoningBudget.unlimited());
+
+                assertEquals(expected.getEntailed(), actual.getEntailed(), String.valueOf(queryFormula));
+                assertEquals(
+                        expected.getRemainingRanking().getKnowledgeBase().getFingerprint(),
+                        actual.getRemainingRanking().getKnowledgeBase().getFingerprint(),
+                        String.valueOf(queryFormula));
+            }
+        }
+    }
+
+    private KnowledgeBase toKnowledgeBase(int seed, Random random) {
+        return new RandomKnowledgeBaseGenerator(SYMBOLS, seed, backend)
+                .generateKnowledgeBase(3 + random.nextInt(8), random.nextInt(3), 3, 20);
+    }
+
+    // a literal, or two literals under a connective
+    private static PlFormula toFormula(Random random) {
+
+        PlFormula first = toLiteral(random);
+        PlFormula second = toLiteral(random);
+
+        return switch (random.nextInt(4)) {
+            case 0 -> first;
+            case 1 -> new Conjunction(first, second);
+            case 2 -> new Disjunction(first, second);
+            default -> new Implication(first, second);
+        };
+    }
+
+    private static PlFormula toLiteral(Random random) {
+        Proposition proposition = new Proposition(String.valueOf(SYMBOLS.charAt(random.nextInt(SYMBOLS.length()))));
+        return random.nextBoolean() ? proposition : new Negation(proposition);
+    }
+}
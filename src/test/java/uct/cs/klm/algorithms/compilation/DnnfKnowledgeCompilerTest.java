@@ -0,0 +1,13 @@
+package uct.cs.klm.algorithms.compilation;
+
+/**
+ * Checks the entailments of the d-DNNF compiler against the SAT path on
+ * random knowledge bases, as for the BDD compiler.
+ */
+class DnnfKnowledgeCompilerTest extends BddKnowledgeCompilerTest {
+
+    @Override
+    protected IKnowledgeCompiler createCompiler() {
+        return new DnnfKnowledgeCompiler(1_000_000, 100_000);
+    }
+}
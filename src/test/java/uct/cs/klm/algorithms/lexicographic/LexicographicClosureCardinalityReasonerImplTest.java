@@ -0,0 +1,16 @@
+package uct.cs.klm.algorithms.lexicographic;
+
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.services.IReasonerService;
+
+/**
+ * Checks the cardinality variant of lexicographic closure against the
+ * powerset walk of LexicographicClosureReasonerImpl.
+ */
+class LexicographicClosureCardinalityReasonerImplTest extends LexicographicClosureMaxSatReasonerImplTest {
+
+    @Override
+    protected IReasonerService createReasoner(ISatBackend backend) {
+        return new LexicographicClosureCardinalityReasonerImpl(backend);
+    }
+}
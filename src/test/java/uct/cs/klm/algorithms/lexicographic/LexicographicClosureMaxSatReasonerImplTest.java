@@ -0,0 +1,165 @@
+package uct.cs.klm.algorithms.lexicographic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+import uct.cs.klm.algorithms.generators.RandomKnowledgeBaseGenerator;
+import uct.cs.klm.algorithms.models.DefeasibleImplication;
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ModelEntailment;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.ranking.BaseRankService;
+import uct.cs.klm.algorithms.ranking.ModelBaseRank;
+import uct.cs.klm.algorithms.ranking.ModelRank;
+import uct.cs.klm.algorithms.ranking.ModelRankCollection;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
+import uct.cs.klm.algorithms.services.IReasonerService;
+
+/**
+ * Checks the MaxSAT variant of lexicographic closure against the powerset
+ * walk of LexicographicClosureReasonerImpl.
+ */
+class LexicographicClosureMaxSatReasonerImplTest {
+
+    private static final String SYMBOLS = "abcde";
+
+    private final ISatBackend backend = SatBackendFactory.getDefault();
+
+    protected IReasonerService createReasoner(ISatBackend backend) {
+        return new LexicographicClosureMaxSatReasonerImpl(backend);
+    }
+
+    @Test
+    void entailsWhatSomeConsistentPowersetEntails() {
+
+        Proposition a = new Proposition("a");
+        Proposition c = new Proposition("c");
+        Proposition d = new Proposition("d");
+
+        KnowledgeBase knowledgeBase = new KnowledgeBase();
+        knowledgeBase.add(new DefeasibleImplication(a, c));
+        knowledgeBase.add(new DefeasibleImplication(a, d));
+        knowledgeBase.add(new Implication(c, new Negation(d)));
+
+        ModelBaseRank baseRank = new BaseRankService(backend).construct(knowledgeBase);
+
+        for (PlFormula queryFormula : List.of(new DefeasibleImplication(a, c), new DefeasibleImplication(a, d))) {
+
+            ModelEntailment expected = new LexicographicClosureReasonerImpl(backend).getEntailment(baseRank, queryFormula, ReasoningBudget.unlimited());
+            ModelEntailment actual = createReasoner(backend).getEntailment(baseRank, queryFormula, ReasoningBudget.unlimited());
+
+            assertTrue(expected.getEntailed());
+            assertEquivalent(expected, actual);
+        }
+    }
+
+    @Test
+    void answersAsThePowersetWalkOnRandomKnowledgeBases() {
+
+        Random random = new Random(7);
+
+        for (int seed = 0; seed < 60; seed++) {
+
+            KnowledgeBase knowledgeBase = new RandomKnowledgeBaseGenerator(SYMBOLS, seed, backend)
+                    .generateKnowledgeBase(3 + random.nextInt(8), random.nextInt(3), 2, 20);
+
+            ModelBaseRank baseRank = new BaseRankService(backend).construct(knowledgeBase);
+            IReasonerService expectedReasoner = new LexicographicClosureReasonerImpl(backend);
+            IReasonerService actualReasoner = createReasoner(backend);
+
+            for (PlFormula queryFormula : toQueryFormulas(knowledgeBase, random)) {
+                assertEquivalent(
+                        expectedReasoner.getEntailment(baseRank, queryFormula, ReasoningBudget.unlimited()),
+                        actualReasoner.getEntailment(baseRank, queryFormula, ReasoningBudget.unlimited()));
+            }
+        }
+    }
+
+    @Test
+    void answersQueriesWithMixedAntecedentsAsOneByOne() {
+
+        Random random = new Random(11);
+
+        for (int seed = 100; seed < 120; seed++) {
+
+            KnowledgeBase knowledgeBase = new RandomKnowledgeBaseGenerator(SYMBOLS, seed, backend)
+                    .generateKnowledgeBase(4 + random.nextInt(6), 1, 2, 20);
+
+            ModelBaseRank baseRank = new BaseRankService(backend).construct(knowledgeBase);
+            List<PlFormula> queryFormulas = toQueryFormulas(knowledgeBase, random);
+
+            List<ModelEntailment> entailments = createReasoner(backend).getEntailments(baseRank, queryFormulas, ReasoningBudget.unlimited());
+
+            for (int index = 0; index < queryFormulas.size(); index++) {
+                assertEquivalent(
+                        new LexicographicClosureReasonerImpl(backend).getEntailment(baseRank, queryFormulas.get(index), ReasoningBudget.unlimited()),
+                        entailments.get(index));
+            }
+        }
+    }
+
+    // antecedents of the knowledge base and single literals, with literal consequents
+    private static List<PlFormula> toQueryFormulas(KnowledgeBase knowledgeBase, Random random) {
+
+        List<PlFormula> antecedents = new ArrayList<>();
+        for (PlFormula formula : knowledgeBase) {
+            if (formula instanceof DefeasibleImplication implication) {
+                antecedents.add(implication.getFirstFormula());
+            }
+        }
+
+        List<PlFormula> queryFormulas = new ArrayList<>();
+
+        for (int index = 0; index < 6; index++) {
+            PlFormula antecedent = !antecedents.isEmpty() && random.nextBoolean()
+                    ? antecedents.get(random.nextInt(antecedents.size()))
+                    : toLiteral(random);
+            queryFormulas.add(new DefeasibleImplication(antecedent, toLiteral(random)));
+        }
+
+        return queryFormulas;
+    }
+
+    private static PlFormula toLiteral(Random random) {
+        Proposition proposition = new Proposition(String.valueOf(SYMBOLS.charAt(random.nextInt(SYMBOLS.length()))));
+        return random.nextBoolean() ? proposition : new Negation(proposition);
+    }
+
+    private static void assertEquivalent(ModelEntailment expected, ModelEntailment actual) {
+
+        String query = String.valueOf(expected.getQueryFormula());
+
+        assertEquals(expected.getEntailed(), actual.getEntailed(), query);
+        assertEquals(expected.getConsistentRank(), actual.getConsistentRank(), query);
+        assertEquals(toFormulasByRank(expected.getRemainingRanking()), toFormulasByRank(actual.getRemainingRanking()), query);
+        assertEquals(toFormulasByRank(expected.getRemovedRanking()), toFormulasByRank(actual.getRemovedRanking()), query);
+    }
+
+    private static Map<Integer, Set<PlFormula>> toFormulasByRank(ModelRankCollection ranking) {
+
+        Map<Integer, Set<PlFormula>> formulasByRank = new TreeMap<>();
+
+        for (ModelRank rank : ranking) {
+            if (!rank.getFormulas().isEmpty()) {
+                formulasByRank.put(rank.getRankNumber(), new HashSet<>(rank.getFormulas()));
+            }
+        }
+
+        return formulasByRank;
+    }
+}
@@ -0,0 +1,130 @@
+package uct.cs.klm.algorithms.ranking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+
+import uct.cs.klm.algorithms.generators.RandomKnowledgeBaseGenerator;
+import uct.cs.klm.algorithms.models.KnowledgeBase;
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+import uct.cs.klm.algorithms.sat.ISatBackend;
+import uct.cs.klm.algorithms.sat.SatBackendFactory;
+import uct.cs.klm.algorithms.utils.Symbols;
+
+/**
+ * Checks that updating a base rank gives the base rank constructed from
+ * scratch.
+ */
+class BaseRankServiceTest {
+
+    private static final String SYMBOLS = "abcde";
+
+    private final ISatBackend backend = SatBackendFactory.getDefault();
+
+    @Test
+    void updatesAsItConstructsUnderAddsAndRemoves() {
+
+        Random random = new Random(13);
+        BaseRankService service = new BaseRankService(backend);
+
+        for (int seed = 0; seed < 40; seed++) {
+
+            KnowledgeBase knowledgeBase = toKnowledgeBase(seed, random);
+            KnowledgeBase extra = toKnowledgeBase(seed + 1000, random);
+
+            KnowledgeBase added = toSample(extra.getDefeasibleFormulas(), random);
+            KnowledgeBase removed = toSample(knowledgeBase.getDefeasibleFormulas(), random);
+
+            ModelBaseRank previous = service.construct(knowledgeBase);
+            ModelBaseRank updated = service.update(previous, added, removed, ReasoningBudget.unlimited());
+
+            KnowledgeBase changed = new KnowledgeBase(knowledgeBase);
+            changed.removeAll(removed);
+            changed.addAll(added);
+
+            assertSameRanks(new BaseRankService(backend).construct(changed), updated);
+
+            // and back again, from the updated base rank
+            ModelBaseRank reverted = service.update(updated, removed, added, ReasoningBudget.unlimited());
+            assertSameRanks(new BaseRankService(backend).construct(knowledgeBase), reverted);
+        }
+    }
+
+    @Test
+    void constructsFromScratchWhenThePreviousBaseRankIsNotItsOwn() {
+
+        Random random = new Random(17);
+
+        for (int seed = 100; seed < 140; seed++) {
+
+            KnowledgeBase knowledgeBase = toKnowledgeBase(seed, random);
+            // half of the updates change nothing, so the whole sequence would be reused
+            KnowledgeBase added = random.nextBoolean()
+                    ? toSample(toKnowledgeBase(seed + 1000, random).getDefeasibleFormulas(), random)
+                    : new KnowledgeBase();
+
+            // claims that no formula is exceptional
+            ModelRankCollection sequence = new ModelRankCollection();
+            sequence.addRank(0, knowledgeBase.getDefeasibleFormulas());
+            sequence.addRank(Symbols.INFINITY_RANK_NUMBER, new KnowledgeBase());
+
+            ModelRankCollection ranking = new ModelRankCollection();
+            ranking.addRank(0, knowledgeBase.getDefeasibleFormulas());
+            ranking.addRank(Symbols.INFINITY_RANK_NUMBER, knowledgeBase.getClassicalFormulas());
+
+            ModelBaseRank forged = new ModelBaseRank(knowledgeBase, sequence, ranking, 0);
+            ModelBaseRank updated = new BaseRankService(backend).update(forged, added, null, ReasoningBudget.unlimited());
+
+            KnowledgeBase changed = new KnowledgeBase(knowledgeBase);
+            changed.addAll(added);
+
+            assertSameRanks(new BaseRankService(backend).construct(changed), updated);
+        }
+    }
+
+    private KnowledgeBase toKnowledgeBase(int seed, Random random) {
+        return new RandomKnowledgeBaseGenerator(SYMBOLS, seed, backend)
+                .generateKnowledgeBase(3 + random.nextInt(8), random.nextInt(3), 2, 20);
+    }
+
+    private static KnowledgeBase toSample(KnowledgeBase knowledgeBase, Random random) {
+
+        List<PlFormula> formulas = new ArrayList<>(knowledgeBase);
+        KnowledgeBase sample = new KnowledgeBase();
+
+        for (PlFormula formula : formulas) {
+            if (random.nextInt(3) == 0) {
+                sample.add(formula);
+            }
+        }
+
+        return sample;
+    }
+
+    private static void assertSameRanks(ModelBaseRank expected, ModelBaseRank actual) {
+        assertEquals(toFormulasByRank(expected.getRanking()), toFormulasByRank(actual.getRanking()));
+        assertEquals(toFormulasByRank(expected.getSequence()), toFormulasByRank(actual.getSequence()));
+    }
+
+    private static Map<Integer, Set<PlFormula>> toFormulasByRank(ModelRankCollection ranking) {
+
+        Map<Integer, Set<PlFormula>> formulasByRank = new TreeMap<>();
+
+        for (ModelRank rank : ranking) {
+            if (!rank.getFormulas().isEmpty()) {
+                formulasByRank.put(rank.getRankNumber(), new HashSet<>(rank.getFormulas()));
+            }
+        }
+
+        return formulasByRank;
+    }
+}
@@ -0,0 +1,221 @@
+package uct.cs.klm.algorithms.sat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import uct.cs.klm.algorithms.models.ReasoningBudget;
+
+/**
+ * Checks the in-process CDCL solver on small formulas and against Sat4j on
+ * random incremental ones.
+ */
+class DpllSatSolverTest {
+
+    @Test
+    void findsAModelOfASatisfiableFormula() {
+
+        List<int[]> clauses = List.of(
+                new int[]{1, 2},
+                new int[]{-1, 2},
+                new int[]{-2, 3},
+                new int[]{-3, -1});
+
+        DpllSatSolver solver = newSolver(3, clauses);
+
+        assertTrue(solver.isSatisfiable());
+        assertModel(solver, clauses, new int[0]);
+    }
+
+    @Test
+    void refutesAnUnsatisfiableFormula() {
+
+        // three pigeons, two holes
+        DpllSatSolver solver = newSolver(6, toPigeonholeClauses(3, 2));
+
+        assertFalse(solver.isSatisfiable());
+    }
+
+    @Test
+    void refutesTheEmptyClause() {
+
+        DpllSatSolver solver = newSolver(1, List.of(new int[]{1}, new int[0]));
+
+        assertFalse(solver.isSatisfiable());
+        assertFalse(solver.isSatisfiable(new int[]{1}));
+    }
+
+    @Test
+    void keepsAssumptionsToTheirCall() {
+
+        List<int[]> clauses = List.of(new int[]{-1, 2}, new int[]{-2, 3});
+        DpllSatSolver solver = newSolver(3, clauses);
+
+        // 1 implies 3, so assuming 1 and not 3 conflicts
+        assertFalse(solver.isSatisfiable(new int[]{1, -3}));
+        assertFalse(solver.isSatisfiable(new int[]{2, -2}));
+
+        assertTrue(solver.isSatisfiable(new int[]{1}));
+        assertModel(solver, clauses, new int[]{1});
+
+        assertTrue(solver.isSatisfiable(new int[]{-3}));
+        assertModel(solver, clauses, new int[]{-3});
+
+        assertTrue(solver.isSatisfiable());
+    }
+
+    @Test
+    void answersAfterClausesAreAdded() {
+
+        List<int[]> clauses = new ArrayList<>(List.of(new int[]{1, 2}, new int[]{-1, 3}));
+        DpllSatSolver solver = newSolver(3, clauses);
+
+        assertTrue(solver.isSatisfiable(new int[]{-2}));
+
+        clauses.add(new int[]{-3});
+        solver.addClause(new int[]{-3});
+
+        assertTrue(solver.isSatisfiable());
+        assertModel(solver, clauses, new int[0]);
+        assertFalse(solver.isSatisfiable(new int[]{-2}));
+
+        solver.newVariables(4);
+        solver.addClause(new int[]{-2, 4});
+        solver.addClause(new int[]{-4});
+
+        assertFalse(solver.isSatisfiable());
+    }
+
+    @Test
+    void startsAfreshAfterAReset() {
+
+        DpllSatSolver solver = newSolver(6, toPigeonholeClauses(3, 2));
+        assertFalse(solver.isSatisfiable());
+
+        solver.reset();
+        solver.newVariables(2);
+        solver.addClause(new int[]{1, -2});
+
+        assertTrue(solver.isSatisfiable(new int[]{2}));
+        assertTrue(solver.getModelValue(1));
+    }
+
+    @Test
+    void stopsAtTheConflictLimit() {
+
+        DpllSatSolver solver = newSolver(56, toPigeonholeClauses(8, 7));
+
+        assertThrows(ReasoningBudget.ExceededException.class,
+                () -> solver.isSatisfiable(new int[0], new ReasoningBudget(0, 0, 10)));
+    }
+
+    @Test
+    void answersAsSat4jOnRandomIncrementalFormulas() {
+
+        Random random = new Random(3);
+
+        for (int round = 0; round < 200; round++) {
+
+            int variableCount = 5 + random.nextInt(30);
+            DpllSatSolver solver = new DpllSatSolver();
+            Sat4jSatSolver reference = new Sat4jSatSolver();
+            solver.newVariables(variableCount);
+            reference.newVariables(variableCount);
+
+            List<int[]> clauses = new ArrayList<>();
+
+            // around the satisfiability threshold of 3-CNF, in batches with queries in between
+            for (int batch = 0; batch < 6; batch++) {
+
+                for (int index = 0; index < variableCount * 3 / 4; index++) {
+                    int[] clause = toRandomClause(random, variableCount, 1 + random.nextInt(3));
+                    clauses.add(clause);
+                    solver.addClause(clause);
+                    reference.addClause(clause);
+                }
+
+                for (int query = 0; query < 3; query++) {
+
+                    int[] assumptions = toRandomClause(random, variableCount, random.nextInt(4));
+                    boolean isSatisfiable = reference.isSatisfiable(assumptions);
+
+                    assertEquals(isSatisfiable, solver.isSatisfiable(assumptions), String.format("round %s", round));
+
+                    if (isSatisfiable) {
+                        assertModel(solver, clauses, assumptions);
+                    }
+                }
+            }
+        }
+    }
+
+    private static DpllSatSolver newSolver(int variableCount, List<int[]> clauses) {
+
+        DpllSatSolver solver = new DpllSatSolver();
+        solver.newVariables(variableCount);
+        clauses.forEach(solver::addClause);
+
+        return solver;
+    }
+
+    // pigeon p in hole h is variable p * holes + h + 1
+    private static List<int[]> toPigeonholeClauses(int pigeons, int holes) {
+
+        List<int[]> clauses = new ArrayList<>();
+
+        for (int pigeon = 0; pigeon < pigeons; pigeon++) {
+            int[] clause = new int[holes];
+            for (int hole = 0; hole < holes; hole++) {
+                clause[hole] = pigeon * holes + hole + 1;
+            }
+            clauses.add(clause);
+        }
+
+        for (int hole = 0; hole < holes; hole++) {
+            for (int first = 0; first < pigeons; first++) {
+                for (int second = first + 1; second < pigeons; second++) {
+                    clauses.add(new int[]{-(first * holes + hole + 1), -(second * holes + hole + 1)});
+                }
+            }
+        }
+
+        return clauses;
+    }
+
+    private static int[] toRandomClause(Random random, int variableCount, int size) {
+
+        int[] clause = new int[size];
+
+        for (int index = 0; index < size; index++) {
+            int variable = 1 + random.nextInt(variableCount);
+            clause[index] = random.nextBoolean() ? variable : -variable;
+        }
+
+        return clause;
+    }
+
+    private static void assertModel(ISatSolver solver, List<int[]> clauses, int[] assumptions) {
+
+        for (int literal : assumptions) {
+            assertEquals(literal > 0, solver.getModelValue(Math.abs(literal)), "assumption " + literal);
+        }
+
+        for (int[] clause : clauses) {
+
+            boolean isSatisfied = false;
+            for (int literal : clause) {
+                isSatisfied |= solver.getModelValue(Math.abs(literal)) == (literal > 0);
+            }
+
+            assertTrue(isSatisfied, "clause " + Arrays.toString(clause));
+        }
+    }
+}